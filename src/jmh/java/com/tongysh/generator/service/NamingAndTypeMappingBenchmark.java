@@ -0,0 +1,55 @@
+package com.tongysh.generator.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 命名转换与SQL类型映射基准测试
+ *
+ * @author tongysh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamingAndTypeMappingBenchmark {
+
+    private static final String[] NAMES = {
+            "id", "user_name", "order_item_detail", "created-at", "T_SYS_USER_ROLE_RELATION"
+    };
+
+    private CodeGeneratorService service;
+
+    @Setup
+    public void setup() {
+        service = new CodeGeneratorService();
+    }
+
+    @Benchmark
+    public void toCamelCase(Blackhole blackhole) {
+        for (String name : NAMES) {
+            blackhole.consume(service.toCamelCase(name, true));
+            blackhole.consume(service.toCamelCase(name, false));
+        }
+    }
+
+    @Benchmark
+    public void resolveTypeMapping(Blackhole blackhole) {
+        for (String sqlType : SyntheticTables.SQL_TYPES) {
+            blackhole.consume(SyntheticTables.TYPE_MAPPINGS.resolve(Dialect.MYSQL, sqlType));
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.ColumnInfo;
+import com.tongysh.generator.dto.TableInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 基准测试用的合成表结构，不依赖数据库
+ *
+ * @author tongysh
+ */
+final class SyntheticTables {
+
+    /**
+     * 循环使用的列类型，覆盖各类映射分支
+     */
+    static final String[] SQL_TYPES = {
+            "BIGINT", "INT", "VARCHAR", "CHAR", "TEXT", "DATETIME", "DATE",
+            "TIMESTAMP", "DECIMAL", "DOUBLE", "FLOAT", "TINYINT", "TINYINT(1)", "BIGINT UNSIGNED",
+            "BIT", "JSON", "BLOB"
+    };
+
+    /**
+     * 类型映射表（不加载用户覆盖）
+     */
+    static final TypeMappingRegistry TYPE_MAPPINGS = newTypeMappingRegistry();
+
+    private SyntheticTables() {
+    }
+
+    /**
+     * 构建指定列数的表，第一列为主键
+     *
+     * @param service 用于命名转换
+     * @param tableName 表名
+     * @param columnCount 列数
+     */
+    static TableInfo table(CodeGeneratorService service, String tableName, int columnCount) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setTableName(tableName);
+        tableInfo.setPackageName("com.example.bench");
+        tableInfo.setEntityName(service.toCamelCase(tableName, true));
+        tableInfo.setEntityVarName(service.toCamelCase(tableName, false));
+
+        List<ColumnInfo> columns = new ArrayList<>();
+        for (int i = 0; i < columnCount; i++) {
+            String columnName = i == 0 ? "id" : "column_name_" + i;
+            String sqlType = i == 0 ? "BIGINT" : SQL_TYPES[i % SQL_TYPES.length];
+
+            ColumnInfo column = new ColumnInfo();
+            column.setColumnName(columnName);
+            column.setColumnType(sqlType);
+            column.setFullColumnType(sqlType);
+            column.setComment("第 " + i + " 列");
+            TypeMappingRegistry.TypeMapping mapping = TYPE_MAPPINGS.resolve(Dialect.MYSQL, column);
+            column.setJavaType(mapping.javaType());
+            column.setJavaImport(mapping.javaImport());
+            column.setJdbcType(mapping.jdbcType());
+            column.setJavaFieldName(service.toCamelCase(columnName, false));
+            column.setPrimaryKey(i == 0);
+            column.setAutoIncrement(i == 0);
+            column.setNullable(i != 0);
+            columns.add(column);
+        }
+        tableInfo.setColumns(columns);
+        tableInfo.setPrimaryKey(columns.get(0));
+        tableInfo.setPrimaryKeys(List.of(columns.get(0)));
+        return tableInfo;
+    }
+
+    private static TypeMappingRegistry newTypeMappingRegistry() {
+        TypeMappingRegistry registry = new TypeMappingRegistry();
+        registry.init();
+        return registry;
+    }
+}
@@ -0,0 +1,56 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.GeneratorRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 模板渲染基准测试：逐个模板、不同列数
+ *
+ * @author tongysh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemplateRenderBenchmark {
+
+    @Param({"entity.ftl", "mapper.ftl", "mapper-xml.ftl", "service.ftl", "service-impl.ftl", "controller.ftl"})
+    public String templateName;
+
+    @Param({"10", "100", "1000"})
+    public int columnCount;
+
+    private TemplateEngine templateEngine;
+
+    private Map<String, Object> dataModel;
+
+    @Setup
+    public void setup() throws Exception {
+        templateEngine = new TemplateEngine();
+        templateEngine.init();
+
+        CodeGeneratorService service = new CodeGeneratorService();
+        dataModel = service.createDataModel(SyntheticTables.table(service, "bench_table", columnCount),
+                new GeneratorRequest());
+    }
+
+    @Benchmark
+    public String render() throws Exception {
+        return templateEngine.renderToString(templateName, dataModel);
+    }
+}
@@ -0,0 +1,89 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.GeneratorRequest;
+import com.tongysh.generator.dto.TableGenerationResult;
+import com.tongysh.generator.dto.TableInfo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * zip组装基准测试：多表渲染并压缩，输出丢弃
+ *
+ * @author tongysh
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ZipAssemblyBenchmark {
+
+    @Param({"1", "10", "100"})
+    public int tableCount;
+
+    @Param({"20"})
+    public int columnCount;
+
+    private CodeGeneratorService service;
+
+    private RenderExecutor renderExecutor;
+
+    private List<TableInfo> tableInfos;
+
+    private GenerationContext context;
+
+    @Setup
+    public void setup() throws Exception {
+        TemplateEngine templateEngine = new TemplateEngine();
+        templateEngine.init();
+        renderExecutor = new RenderExecutor();
+        renderExecutor.init();
+
+        GenerationMetrics generationMetrics = new GenerationMetrics();
+        ReflectionTestUtils.setField(generationMetrics, "meterRegistry", new SimpleMeterRegistry());
+
+        service = new CodeGeneratorService();
+        ReflectionTestUtils.setField(service, "templateEngine", templateEngine);
+        ReflectionTestUtils.setField(service, "renderExecutor", renderExecutor);
+        ReflectionTestUtils.setField(service, "generationMetrics", generationMetrics);
+        context = new GenerationContext("benchmark", new GeneratorRequest());
+
+        tableInfos = new ArrayList<>();
+        for (int i = 0; i < tableCount; i++) {
+            tableInfos.add(SyntheticTables.table(service, "bench_table_" + i, columnCount));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderExecutor.destroy();
+    }
+
+    @Benchmark
+    public List<TableGenerationResult> addFileToZip() throws Exception {
+        try (ZipOutputStream zos = new ZipOutputStream(OutputStream.nullOutputStream())) {
+            List<TableGenerationResult> results = service.addFileToZip(zos, tableInfos, context);
+            zos.finish();
+            return results;
+        }
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -58,6 +59,23 @@ public class CodeGeneratorController {
         }
     }
 
+    /**
+     * 失效元数据缓存（表结构变更后调用），未指定数据库名时失效该连接下的全部缓存
+     */
+    @PostMapping("/cache/invalidate")
+    public GeneratorResponse invalidateCache(@RequestBody DbConnectionRequest request) {
+        int count = databaseService.invalidateCache(request);
+        return GeneratorResponse.success("已清除 " + count + " 项元数据缓存", count);
+    }
+
+    /**
+     * 获取元数据缓存命中统计
+     */
+    @GetMapping("/cache/stats")
+    public GeneratorResponse getCacheStats() {
+        return GeneratorResponse.success("获取缓存统计成功", databaseService.getCacheStats());
+    }
+
 
     /**
      * 生成CRUD代码
@@ -93,10 +111,10 @@ public class CodeGeneratorController {
      * 生成CRUD代码并下载zip包
      * 
      * @param request 生成请求参数（表名、包名）
-     * @return 生成结果
+     * @return 流式输出的zip包
      */
     @PostMapping(value = "/generate-download", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
-    public ResponseEntity<byte[]> generateCodeAndDownload(@RequestBody GeneratorRequest request) {
+    public ResponseEntity<StreamingResponseBody> generateCodeAndDownload(@RequestBody GeneratorRequest request) {
         log.info("开始生成代码并下载，表名: {}, 包名: {}", request.getTableName(), request.getPackageName());
         
         // 参数校验
@@ -122,17 +140,93 @@ public class CodeGeneratorController {
             outputDir = "generated-code";
         }
         
-        // 生成代码并返回zip字节数组
-        byte[] zipBytes = codeGeneratorService.generateCodeAsZip(request);
+        // 解析表结构，文件在写出响应时边渲染边压缩
+        CodeGeneratorService.ZipWriter zipWriter = codeGeneratorService.prepareZip(request);
         
-        // 设置响应头
+        // 设置响应头（流式输出，不设置Content-Length）
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
         headers.setContentDispositionFormData("attachment", outputDir + ".zip");
-        headers.setContentLength(zipBytes.length);
         
         return ResponseEntity.ok()
                 .headers(headers)
-                .body(zipBytes);
+                .body(zipWriter::writeTo);
+    }
+
+    /**
+     * 批量生成CRUD代码
+     * 
+     * @param request 生成请求参数（表名列表或表名匹配模式、包名）
+     * @return 逐表的生成结果
+     */
+    @PostMapping("/generate-batch")
+    public GeneratorResponse generateBatch(@RequestBody GeneratorRequest request) {
+        log.info("开始批量生成代码，表名: {}, 匹配模式: {}, 包名: {}",
+                request.getTableNames(), request.getTablePattern(), request.getPackageName());
+        
+        String error = validateBatchRequest(request);
+        if (error != null) {
+            return GeneratorResponse.fail(error);
+        }
+        
+        return codeGeneratorService.generateBatch(request);
+    }
+    
+    /**
+     * 批量生成CRUD代码并下载zip包，zip中附带逐表的生成报告
+     * 
+     * @param request 生成请求参数（表名列表或表名匹配模式、包名）
+     * @return zip包
+     */
+    @PostMapping(value = "/generate-batch-download", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> generateBatchAndDownload(@RequestBody GeneratorRequest request) {
+        log.info("开始批量生成代码并下载，表名: {}, 匹配模式: {}, 包名: {}",
+                request.getTableNames(), request.getTablePattern(), request.getPackageName());
+        
+        String error = validateBatchRequest(request);
+        if (error != null) {
+            throw new IllegalArgumentException(error);
+        }
+        
+        String outputDir = request.getOutputDir();
+        if (outputDir == null || outputDir.trim().isEmpty()) {
+            outputDir = "generated-code";
+        }
+        
+        CodeGeneratorService.ZipWriter zipWriter = codeGeneratorService.prepareBatchZip(request);
+        
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", outputDir + ".zip");
+        
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(zipWriter::writeTo);
+    }
+    
+    /**
+     * 批量生成参数校验
+     * 
+     * @return 校验失败信息，校验通过返回null
+     */
+    private String validateBatchRequest(GeneratorRequest request) {
+        if (request.getDbUrl() == null || request.getDbUrl().trim().isEmpty()) {
+            return "数据库连接地址不能为空";
+        }
+        if (request.getDbUsername() == null || request.getDbUsername().trim().isEmpty()) {
+            return "数据库用户名不能为空";
+        }
+        if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
+            return "数据库名不能为空";
+        }
+        boolean hasTableNames = request.getTableNames() != null && !request.getTableNames().isEmpty();
+        boolean hasTablePattern = request.getTablePattern() != null && !request.getTablePattern().trim().isEmpty();
+        if (!hasTableNames && !hasTablePattern) {
+            return "表名列表和表名匹配模式不能同时为空";
+        }
+        if (request.getPackageName() == null || request.getPackageName().trim().isEmpty()) {
+            return "包名不能为空";
+        }
+        return null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,141 @@
+package com.tongysh.generator.controller;
+
+import com.tongysh.generator.dto.GeneratorRequest;
+import com.tongysh.generator.dto.GeneratorResponse;
+import com.tongysh.generator.dto.JobStatus;
+import com.tongysh.generator.service.GenerationJobService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * 异步生成任务控制器
+ *
+ * @author tongysh
+ */
+@Slf4j
+@RestController
+@RequestMapping("/api/generator/jobs")
+public class GenerationJobController {
+
+    @Autowired
+    private GenerationJobService generationJobService;
+
+    /**
+     * 提交生成任务，立即返回任务ID
+     *
+     * @param request 生成请求参数（表名，或表名列表/表名匹配模式、包名）
+     * @return 任务状态
+     */
+    @PostMapping
+    public GeneratorResponse submit(@RequestBody GeneratorRequest request) {
+        log.info("提交生成任务，表名: {}, 表名列表: {}, 匹配模式: {}, 包名: {}", request.getTableName(),
+                request.getTableNames(), request.getTablePattern(), request.getPackageName());
+
+        String error = validateRequest(request);
+        if (error != null) {
+            return GeneratorResponse.fail(error);
+        }
+
+        try {
+            return GeneratorResponse.success("任务已提交", generationJobService.submit(request));
+        } catch (IllegalStateException e) {
+            return GeneratorResponse.fail(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询任务状态
+     */
+    @GetMapping("/{jobId}")
+    public GeneratorResponse getStatus(@PathVariable String jobId) {
+        JobStatus status = generationJobService.getStatus(jobId);
+        if (status == null) {
+            return GeneratorResponse.fail("任务不存在或已过期");
+        }
+        return GeneratorResponse.success("获取任务状态成功", status);
+    }
+
+    /**
+     * 订阅任务进度（Server-Sent Events）
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> subscribe(@PathVariable String jobId) {
+        SseEmitter emitter = generationJobService.subscribe(jobId);
+        if (emitter == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
+    /**
+     * 下载已完成任务的zip包
+     */
+    @GetMapping(value = "/{jobId}/download", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> download(@PathVariable String jobId) throws Exception {
+        if (generationJobService.getStatus(jobId) == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Path file = generationJobService.getResultFile(jobId);
+        if (file == null) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_OCTET_STREAM);
+        headers.setContentDispositionFormData("attachment", generationJobService.getFileName(jobId));
+        headers.setContentLength(Files.size(file));
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(out -> Files.copy(file, out));
+    }
+
+    /**
+     * 取消任务
+     */
+    @DeleteMapping("/{jobId}")
+    public GeneratorResponse cancel(@PathVariable String jobId) {
+        JobStatus status = generationJobService.cancel(jobId);
+        if (status == null) {
+            return GeneratorResponse.fail("任务不存在或已过期");
+        }
+        return GeneratorResponse.success("任务已取消", status);
+    }
+
+    /**
+     * 任务参数校验
+     *
+     * @return 校验失败信息，校验通过返回null
+     */
+    private String validateRequest(GeneratorRequest request) {
+        if (request.getDbUrl() == null || request.getDbUrl().trim().isEmpty()) {
+            return "数据库连接地址不能为空";
+        }
+        if (request.getDbUsername() == null || request.getDbUsername().trim().isEmpty()) {
+            return "数据库用户名不能为空";
+        }
+        if (request.getDatabaseName() == null || request.getDatabaseName().trim().isEmpty()) {
+            return "数据库名不能为空";
+        }
+        boolean hasTableName = request.getTableName() != null && !request.getTableName().trim().isEmpty();
+        boolean hasTableNames = request.getTableNames() != null && !request.getTableNames().isEmpty();
+        boolean hasTablePattern = request.getTablePattern() != null && !request.getTablePattern().trim().isEmpty();
+        if (!hasTableName && !hasTableNames && !hasTablePattern) {
+            return "表名不能为空";
+        }
+        if (request.getPackageName() == null || request.getPackageName().trim().isEmpty()) {
+            return "包名不能为空";
+        }
+        return null;
+    }
+}
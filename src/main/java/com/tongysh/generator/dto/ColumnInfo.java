@@ -19,6 +19,41 @@ public class ColumnInfo {
      */
     private String columnType;
     
+    /**
+     * JDBC类型码（{@link java.sql.Types}），未知时为null
+     */
+    private Integer sqlTypeCode;
+    
+    /**
+     * 完整列类型（含长度、精度、unsigned等，如 bigint(20) unsigned）
+     */
+    private String fullColumnType;
+    
+    /**
+     * 列长度（字符类型为最大长度，数值类型为精度），未知时为null
+     */
+    private Long columnSize;
+    
+    /**
+     * 小数位数，非数值类型为null
+     */
+    private Integer decimalDigits;
+    
+    /**
+     * 是否允许为空
+     */
+    private boolean nullable;
+    
+    /**
+     * 默认值
+     */
+    private String defaultValue;
+    
+    /**
+     * 是否自增
+     */
+    private boolean autoIncrement;
+    
     /**
      * 列注释
      */
@@ -29,6 +64,11 @@ public class ColumnInfo {
      */
     private String javaType;
     
+    /**
+     * Java类型需要导入的类（java.lang中的类型与数组为null）
+     */
+    private String javaImport;
+    
     /**
      * Java字段名
      */
@@ -43,4 +83,19 @@ public class ColumnInfo {
      * JDBC类型
      */
     private String jdbcType;
+    
+    /**
+     * 是否为大字段（TEXT、BLOB、JSON等），列表查询默认不查询大字段
+     */
+    private boolean largeObject;
+    
+    /**
+     * 是否为某个索引的第一列（可以单独使用索引过滤）
+     */
+    private boolean indexed;
+    
+    /**
+     * 是否有单列全文索引
+     */
+    private boolean fulltextIndexed;
 }
\ No newline at end of file
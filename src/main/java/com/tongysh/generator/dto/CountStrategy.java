@@ -0,0 +1,34 @@
+package com.tongysh.generator.dto;
+
+/**
+ * 生成的分页查询统计总数的方式
+ *
+ * @author tongysh
+ */
+public enum CountStrategy {
+
+    /**
+     * 查询数据后再执行 COUNT(*)，返回精确总数
+     */
+    EXACT,
+
+    /**
+     * 不统计总数，多查一条记录判断是否有下一页
+     */
+    HAS_NEXT,
+
+    /**
+     * 查询数据与 COUNT(*) 并发执行
+     */
+    PARALLEL,
+
+    /**
+     * 无过滤条件时使用 information_schema.TABLES 中的估算行数，有过滤条件时执行 COUNT(*)
+     */
+    ESTIMATED,
+
+    /**
+     * 按过滤条件缓存 COUNT(*) 结果，在有效期内复用
+     */
+    CACHED
+}
@@ -0,0 +1,24 @@
+package com.tongysh.generator.dto;
+
+/**
+ * 生成的条件查询如何根据索引生成过滤条件
+ *
+ * @author tongysh
+ */
+public enum FilterIndexMode {
+
+    /**
+     * 不考虑索引，所有列都生成过滤条件（字符串列为包含匹配）
+     */
+    ALL,
+
+    /**
+     * 只为有索引的列生成过滤条件，字符串列使用前缀匹配或全文检索
+     */
+    INDEXED,
+
+    /**
+     * 有索引的列同 INDEXED，无索引的列保留原过滤条件并在XML中标注可能全表扫描
+     */
+    FLAG
+}
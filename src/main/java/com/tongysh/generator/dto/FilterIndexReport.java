@@ -0,0 +1,35 @@
+package com.tongysh.generator.dto;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单表过滤条件的索引使用情况
+ *
+ * @author tongysh
+ */
+@Data
+public class FilterIndexReport {
+
+    /**
+     * 表名
+     */
+    private String tableName;
+
+    /**
+     * 无索引过滤列的处理方式
+     */
+    private FilterIndexMode mode;
+
+    /**
+     * 有索引支持的过滤条件，格式为 列名: 条件类型
+     */
+    private List<String> indexedFilters = new ArrayList<>();
+
+    /**
+     * 没有索引支持的过滤列
+     */
+    private List<String> unindexedFilters = new ArrayList<>();
+}
@@ -0,0 +1,31 @@
+package com.tongysh.generator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 增量生成统计
+ *
+ * @author tongysh
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerationStats {
+
+    /**
+     * 新增的文件数
+     */
+    private int added;
+
+    /**
+     * 内容变化并重新写入的文件数
+     */
+    private int changed;
+
+    /**
+     * 内容未变化、跳过写入的文件数
+     */
+    private int unchanged;
+}
@@ -0,0 +1,24 @@
+package com.tongysh.generator.dto;
+
+/**
+ * 生成代码的目标技术栈
+ *
+ * @author tongysh
+ */
+public enum GenerationTarget {
+
+    /**
+     * Spring MVC + MyBatis，每个请求占用一个平台线程
+     */
+    MVC,
+
+    /**
+     * Spring MVC + MyBatis，并生成将请求处理和异步任务切换到虚拟线程的配置类（需要 JDK 21）
+     */
+    VIRTUAL_THREADS,
+
+    /**
+     * Spring WebFlux + Spring Data R2DBC，全链路非阻塞（不支持联合主键）
+     */
+    REACTIVE
+}
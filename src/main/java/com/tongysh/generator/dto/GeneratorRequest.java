@@ -2,6 +2,8 @@ package com.tongysh.generator.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 /**
  * 代码生成请求参数
  * 
@@ -35,6 +37,16 @@ public class GeneratorRequest {
      */
     private String tableName;
     
+    /**
+     * 批量生成的表名列表
+     */
+    private List<String> tableNames;
+    
+    /**
+     * 批量生成的表名匹配模式（SQL LIKE语法，如 order_%）
+     */
+    private String tablePattern;
+    
     /**
      * 包名
      */
@@ -44,4 +56,119 @@ public class GeneratorRequest {
      * 输出目录名（与src同级）
      */
     private String outputDir;
+    
+    /**
+     * 游标分页的排序列（应有索引），为空或不适用时按主键排序
+     */
+    private String cursorColumn;
+    
+    /**
+     * 生成的批量插入每条语句的最大行数，为空时使用默认值（1000）
+     */
+    private Integer batchMaxRows;
+    
+    /**
+     * 生成的批量插入每条语句的最大字节数，应小于目标库的 max_allowed_packet，为空时使用默认值（4MB）
+     */
+    private Integer batchMaxBytes;
+    
+    /**
+     * 生成的批量插入是否通过 MyBatis ExecutorType.BATCH 会话执行
+     */
+    private boolean batchExecutor;
+    
+    /**
+     * 生成的流式导出查询的 fetchSize，为空时不指定，由驱动使用默认值。
+     * <p>
+     * 指定后写入生成的映射文件，与生成代码实际连接的数据库相关，而不是读取表结构的数据库：
+     * <ul>
+     *     <li>MySQL：Integer.MIN_VALUE 逐行流式读取；正数需要在连接URL中开启 useCursorFetch=true，否则仍会读取全部结果</li>
+     *     <li>PostgreSQL、H2 等：只能使用正数，负数会在 setFetchSize 时报错。PostgreSQL 在事务中按 fetchSize 分批读取</li>
+     * </ul>
+     * 生成的性能测试和 rw-local 配置使用H2，需要在H2上运行导出时不要使用 Integer.MIN_VALUE。
+     * 0 和 Integer.MIN_VALUE 以外的负数视为未指定
+     */
+    private Integer exportFetchSize;
+    
+    /**
+     * 生成的分页查询统计总数的方式，为空时为 EXACT
+     */
+    private CountStrategy countStrategy;
+    
+    /**
+     * countStrategy 为 CACHED 时总数的缓存秒数，为空时使用默认值（30秒）
+     */
+    private Integer countCacheSeconds;
+    
+    /**
+     * 生成的Service中 getById 经过本地缓存（Caffeine）的表名
+     */
+    private List<String> cacheTables;
+    
+    /**
+     * 本地缓存的最大条目数，为空时使用默认值（10000）
+     */
+    private Integer cacheMaxSize;
+    
+    /**
+     * 本地缓存条目写入后的有效秒数，为空时使用默认值（300秒）
+     */
+    private Integer cacheTtlSeconds;
+    
+    /**
+     * 生成的条件查询如何根据索引生成过滤条件，为空时为 ALL
+     */
+    private FilterIndexMode filterIndexMode;
+    
+    /**
+     * 生成代码的目标技术栈，为空时为 MVC
+     */
+    private GenerationTarget target;
+    
+    /**
+     * 生成的Service是否带 Micrometer 指标：方法计时（@Timed）、Mapper语句计时和查询返回、批量删除影响的行数（MVC和虚拟线程目标）
+     */
+    private boolean metrics;
+    
+    /**
+     * 开启指标时是否发布百分位直方图（耗时和查询返回的行数），默认关闭：每个计时器的直方图有几十个时间序列
+     */
+    private boolean metricsHistograms;
+    
+    /**
+     * 是否生成读写分离：路由数据源（只读事务使用从库）和只读的查询方法（MVC和虚拟线程目标）
+     */
+    private boolean readWriteSplit;
+    
+    /**
+     * 批量生成时是否识别分表：同一前缀、数字后缀为 0 ~ n-1 的表（如 order_0 ~ order_63）生成为一张逻辑表
+     */
+    private boolean shardTables;
+    
+    /**
+     * 分表键列名，按该列取模路由到分表，为空时使用主键
+     */
+    private String shardKey;
+    
+    /**
+     * 是否为每张表额外生成基于内嵌H2（MySQL模式）的性能测试（MVC和虚拟线程目标）
+     */
+    private boolean perfTest;
+    
+    /**
+     * 性能测试的造数行数，为空时使用默认值（10000）
+     */
+    private Integer perfRows;
+    
+    /**
+     * 提取数据库连接参数
+     */
+    public DbConnectionRequest toConnectionRequest() {
+        DbConnectionRequest connectionRequest = new DbConnectionRequest();
+        connectionRequest.setDbUrl(dbUrl);
+        connectionRequest.setDbUsername(dbUsername);
+        connectionRequest.setDbPassword(dbPassword);
+        connectionRequest.setDatabaseName(databaseName);
+        return connectionRequest;
+    }
 }
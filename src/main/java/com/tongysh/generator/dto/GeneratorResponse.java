@@ -4,6 +4,8 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 /**
  * 代码生成响应结果
  * 
@@ -29,11 +31,25 @@ public class GeneratorResponse {
      */
     private Object data;
     
+    /**
+     * 增量生成统计（仅生成到目录时返回）
+     */
+    private GenerationStats stats;
+    
+    /**
+     * 逐表的过滤条件索引报告（仅生成到目录时返回）
+     */
+    private List<FilterIndexReport> indexReport;
+    
     public static GeneratorResponse success(String message, Object data) {
-        return new GeneratorResponse(true, message, data);
+        return new GeneratorResponse(true, message, data, null, null);
+    }
+    
+    public static GeneratorResponse success(String message, Object data, GenerationStats stats) {
+        return new GeneratorResponse(true, message, data, stats, null);
     }
     
     public static GeneratorResponse fail(String message) {
-        return new GeneratorResponse(false, message, null);
+        return new GeneratorResponse(false, message, null, null, null);
     }
 }
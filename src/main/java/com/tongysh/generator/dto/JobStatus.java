@@ -0,0 +1,68 @@
+package com.tongysh.generator.dto;
+
+import lombok.Data;
+
+/**
+ * 异步生成任务状态
+ *
+ * @author tongysh
+ */
+@Data
+public class JobStatus {
+
+    /**
+     * 任务ID
+     */
+    private String jobId;
+
+    /**
+     * 任务状态
+     */
+    private State state;
+
+    /**
+     * 需要生成的表总数（表名解析完成前为0）
+     */
+    private int totalTables;
+
+    /**
+     * 已处理的表数量（包含失败的表）
+     */
+    private int completedTables;
+
+    /**
+     * 生成失败的表数量
+     */
+    private int failedTables;
+
+    /**
+     * 当前阶段
+     */
+    private String phase;
+
+    /**
+     * 提示信息（失败原因）
+     */
+    private String message;
+
+    /**
+     * 提交时间（毫秒时间戳）
+     */
+    private long submittedAt;
+
+    /**
+     * 结束时间（毫秒时间戳），未结束时为0
+     */
+    private long finishedAt;
+
+    /**
+     * 任务状态
+     */
+    public enum State {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED;
+
+        public boolean isFinished() {
+            return this == COMPLETED || this == FAILED || this == CANCELLED;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.tongysh.generator.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 单表生成结果（批量生成时逐表返回）
+ *
+ * @author tongysh
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TableGenerationResult {
+
+    /**
+     * 表名
+     */
+    private String tableName;
+
+    /**
+     * 是否成功
+     */
+    private boolean success;
+
+    /**
+     * 提示信息（失败原因）
+     */
+    private String message;
+
+    /**
+     * 生成的文件路径（相对于输出目录）
+     */
+    private List<String> files;
+
+    /**
+     * 生成失败的文件及原因
+     */
+    private List<String> errors;
+
+    public static TableGenerationResult of(String tableName, List<String> files, List<String> errors) {
+        if (errors.isEmpty()) {
+            return new TableGenerationResult(tableName, true, "生成成功", files, errors);
+        }
+        return new TableGenerationResult(tableName, false, "部分文件生成失败", files, errors);
+    }
+
+    public static TableGenerationResult fail(String tableName, String message) {
+        return new TableGenerationResult(tableName, false, message, List.of(), List.of());
+    }
+}
@@ -36,7 +36,44 @@ public class TableInfo {
     private List<ColumnInfo> columns;
     
     /**
-     * 主键列信息
+     * 主键列信息（联合主键时为第一列）
      */
     private ColumnInfo primaryKey;
+    
+    /**
+     * 全部主键列，按主键中的顺序排列
+     */
+    private List<ColumnInfo> primaryKeys;
+    
+    /**
+     * 分表数量，不是分表时为0（表名为逻辑表名，物理表为 表名_序号）
+     */
+    private int shardCount;
+    
+    /**
+     * 分表后缀补零的宽度，不补零时为0
+     */
+    private int shardSuffixWidth;
+    
+    /**
+     * 是否为联合主键
+     */
+    public boolean isCompositeKey() {
+        return primaryKeys != null && primaryKeys.size() > 1;
+    }
+    
+    /**
+     * 是否为分表
+     */
+    public boolean isSharded() {
+        return shardCount > 0;
+    }
+    
+    /**
+     * 第 shard 张分表的表名
+     */
+    public String shardTableName(int shard) {
+        String suffix = shardSuffixWidth > 0 ? String.format("%0" + shardSuffixWidth + "d", shard) : String.valueOf(shard);
+        return tableName + "_" + suffix;
+    }
 }
\ No newline at end of file
@@ -1,76 +1,158 @@
 package com.tongysh.generator.service;
 
 import com.tongysh.generator.dto.ColumnInfo;
+import com.tongysh.generator.dto.CountStrategy;
+import com.tongysh.generator.dto.FilterIndexMode;
+import com.tongysh.generator.dto.FilterIndexReport;
+import com.tongysh.generator.dto.GenerationStats;
+import com.tongysh.generator.dto.GenerationTarget;
 import com.tongysh.generator.dto.GeneratorRequest;
 import com.tongysh.generator.dto.GeneratorResponse;
+import com.tongysh.generator.dto.TableGenerationResult;
 import com.tongysh.generator.dto.TableInfo;
-import freemarker.template.Configuration;
-import freemarker.template.Template;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.io.*;
+import java.nio.charset.StandardCharsets;
 import java.sql.*;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
 
 /**
  * 代码生成服务
- * 
+ *
  * @author tongysh
  */
 @Slf4j
 @Service
 public class CodeGeneratorService {
 
+    /**
+     * 批量生成时写入zip的生成报告文件名
+     */
+    private static final String REPORT_FILE_NAME = "generation-report.txt";
+
+    /**
+     * zip输出缓冲区大小
+     */
+    private static final int ZIP_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * 生成的批量插入每条语句的默认最大行数
+     */
+    private static final int DEFAULT_BATCH_MAX_ROWS = 1000;
+
+    /**
+     * 生成的批量插入每条语句的默认最大字节数（MySQL 5.7 max_allowed_packet 的默认值）
+     */
+    private static final int DEFAULT_BATCH_MAX_BYTES = 4 * 1024 * 1024;
+
+    /**
+     * 生成的分页查询缓存总数的默认秒数
+     */
+    private static final int DEFAULT_COUNT_CACHE_SECONDS = 30;
+
+    /**
+     * 生成的实体缓存默认的最大条目数
+     */
+    private static final int DEFAULT_CACHE_MAX_SIZE = 10000;
+
+    /**
+     * 生成的实体缓存默认的有效秒数
+     */
+    private static final int DEFAULT_CACHE_TTL_SECONDS = 300;
+
+    /**
+     * 性能测试的默认造数行数
+     */
+    private static final int DEFAULT_PERF_ROWS = 10000;
+
+    /**
+     * 大字段的JDBC类型
+     */
+    private static final Set<String> LARGE_OBJECT_JDBC_TYPES =
+            Set.of("CLOB", "NCLOB", "BLOB", "LONGVARCHAR", "LONGNVARCHAR", "LONGVARBINARY");
+
+    /**
+     * 可以编码进分页游标的Java类型（与 service-impl.ftl 中的解析函数对应）
+     */
+    private static final Set<String> CURSOR_TYPES = Set.of(
+            "String", "Integer", "Long", "Short", "Byte", "Float", "Double", "Boolean",
+            "BigDecimal", "BigInteger", "UUID",
+            "LocalDate", "LocalDateTime", "LocalTime", "OffsetDateTime", "OffsetTime");
+
+    @Autowired
+    private TemplateEngine templateEngine;
+
+    @Autowired
+    private ConnectionPoolRegistry connectionPoolRegistry;
+
+    @Autowired
+    private MetadataReader metadataReader;
+
+    @Autowired
+    private TypeMappingRegistry typeMappingRegistry;
+
+    @Autowired
+    private MetadataCache metadataCache;
+
+    @Autowired
+    private DatabaseService databaseService;
+
+    @Autowired
+    private RenderExecutor renderExecutor;
+
+    @Autowired
+    private GenerationMetrics generationMetrics;
+
     /**
      * 生成CRUD代码
      */
     public GeneratorResponse generateCode(GeneratorRequest request) {
+        GenerationContext context = new GenerationContext("generate", request);
         try {
-            String tableName = request.getTableName();
-            String packageName = request.getPackageName();
-            
-            // 获取输出目录，确保与项目src同级
-            String projectRoot = System.getProperty("user.dir");
-            String outputPath = request.getOutputDir();
-            if (outputPath == null || outputPath.trim().isEmpty()) {
-                outputPath = "generated-code";
-            }
-            
-            // 确保输出目录与项目src同级
-            outputPath = projectRoot + "/" + outputPath + "/";
-            
-            // 确保输出路径以斜杠结尾
-            if (!outputPath.endsWith("/")) {
-                outputPath += "/";
-            }
-            
-            String srcPath = outputPath + "src/main/java/";
-            String resourcePath = outputPath + "src/main/resources/";
+            String outputPath = resolveOutputPath(request);
 
             // 解析表结构（使用动态数据库连接）
-            TableInfo tableInfo = parseTableInfo(request, tableName, packageName);
+            TableInfo tableInfo = parseTableInfo(request, request.getTableName(), request.getPackageName(), context);
 
-            // 生成各个文件
-            generateEntity(tableInfo, srcPath);
-            generateMapper(tableInfo, srcPath);
-            generateMapperXml(tableInfo, resourcePath);
-            generateService(tableInfo, srcPath);
-            generateServiceImpl(tableInfo, srcPath);
-            generateController(tableInfo, srcPath);
+            // 生成各个文件，内容未变化的文件跳过写入
+            GenerationManifest manifest = GenerationManifest.load(outputPath);
+            TableGenerationResult result = renderTables(List.of(tableInfo),
+                    (path, content) -> writeFile(manifest, path, content, context), context).get(0);
+            manifest.save();
+            generationMetrics.tablesProcessed(context.getEndpoint(), List.of(result));
+            if (!result.isSuccess()) {
+                return GeneratorResponse.fail("代码生成失败: " + String.join("; ", result.getErrors()));
+            }
 
             // 返回相对于项目根目录的路径
             String relativePath = new File(outputPath).getName();
-            return GeneratorResponse.success(
-                    "代码生成成功！",
-                    "代码已生成在项目根目录的 '../" + relativePath + "' 文件夹中"
+            GenerationStats stats = manifest.getStats();
+            GeneratorResponse response = GeneratorResponse.success(
+                    "代码生成成功！" + statsSummary(stats),
+                    "代码已生成在项目根目录的 '../" + relativePath + "' 文件夹中",
+                    stats
             );
+            response.setIndexReport(List.of(filterIndexReport(tableInfo, request)));
+            return response;
         } catch (Exception e) {
             log.error("代码生成失败", e);
             return GeneratorResponse.fail("代码生成失败: " + e.getMessage());
@@ -78,192 +160,319 @@ public class CodeGeneratorService {
     }
 
     /**
-     * 解析表信息
+     * 批量生成CRUD代码，逐表返回生成结果
      */
-    private TableInfo parseTableInfo(GeneratorRequest request, String tableName, String packageName) throws Exception {
-        TableInfo tableInfo = new TableInfo();
-        tableInfo.setTableName(tableName);
-        tableInfo.setPackageName(packageName);
-        tableInfo.setEntityName(toCamelCase(tableName, true));
-        tableInfo.setEntityVarName(toCamelCase(tableName, false));
-        List<ColumnInfo> columns = new ArrayList<>();
-        
-        // 构建数据库连接URL
-        String url = request.getDbUrl();
-        if (!url.endsWith("/")) {
-            url += "/";
-        }
-        url += request.getDatabaseName();
-        // 确保时区参数正确设置，避免拼接错误
-        if (!url.contains("serverTimezone=")) {
-            if (url.contains("?")) {
-                url += "&serverTimezone=Asia/Shanghai";
-            } else {
-                url += "?serverTimezone=Asia/Shanghai";
+    public GeneratorResponse generateBatch(GeneratorRequest request) {
+        GenerationContext context = new GenerationContext("generate-batch", request);
+        try {
+            List<String> tableNames = resolveTableNames(request);
+            if (tableNames.isEmpty()) {
+                return GeneratorResponse.fail("没有找到匹配的表");
             }
-        } else {
-            // 如果已有时区参数，确保它是正确的
-            url = url.replaceAll("serverTimezone=[^&]*", "serverTimezone=Asia/Shanghai");
-        }
-        // 确保其他必要参数也存在
-        if (!url.contains("useUnicode=true")) {
-            if (url.contains("?")) {
-                url += "&useUnicode=true";
-            } else {
-                url += "?useUnicode=true";
+            String outputPath = resolveOutputPath(request);
+            Map<String, ShardFamily> families = shardFamilies(request, tableNames);
+            tableNames = ShardFamily.collapse(tableNames, families);
+
+            // 一次性读取所有表的结构
+            Map<String, String> errors = new HashMap<>();
+            Map<String, TableInfo> tableInfos = parseTableInfos(request, tableNames, families, errors, context);
+
+            GenerationManifest manifest = GenerationManifest.load(outputPath);
+            List<TableGenerationResult> rendered = renderTables(new ArrayList<>(tableInfos.values()),
+                    (path, content) -> writeFile(manifest, path, content, context), context);
+            manifest.save();
+            List<TableGenerationResult> results = mergeResults(tableNames, rendered, errors);
+            generationMetrics.tablesProcessed(context.getEndpoint(), results);
+
+            GenerationStats stats = manifest.getStats();
+            GeneratorResponse response = GeneratorResponse.success(batchSummary(results) + statsSummary(stats),
+                    batchData(new File(outputPath).getName(), results), stats);
+            response.setIndexReport(tableInfos.values().stream()
+                    .map(tableInfo -> filterIndexReport(tableInfo, request))
+                    .toList());
+            return response;
+        } catch (Exception e) {
+            log.error("批量代码生成失败", e);
+            return GeneratorResponse.fail("批量代码生成失败: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 获取输出目录，确保与项目src同级，以斜杠结尾
+     */
+    private String resolveOutputPath(GeneratorRequest request) {
+        String projectRoot = System.getProperty("user.dir");
+        String outputPath = request.getOutputDir();
+        if (outputPath == null || outputPath.trim().isEmpty()) {
+            outputPath = "generated-code";
+        }
+        return projectRoot + "/" + outputPath + "/";
+    }
+
+    /**
+     * 解析批量生成的表名：显式指定的表名与匹配模式的表名合并去重，保持顺序
+     */
+    private List<String> resolveTableNames(GeneratorRequest request) throws Exception {
+        Set<String> tableNames = new LinkedHashSet<>();
+        if (request.getTableNames() != null) {
+            for (String tableName : request.getTableNames()) {
+                if (tableName != null && !tableName.trim().isEmpty()) {
+                    tableNames.add(tableName.trim());
+                }
             }
         }
-        if (!url.contains("characterEncoding=utf8")) {
-            if (url.contains("?")) {
-                url += "&characterEncoding=utf8";
-            } else {
-                url += "?characterEncoding=utf8";
+        String tablePattern = request.getTablePattern();
+        if (tablePattern != null && !tablePattern.trim().isEmpty()) {
+            Pattern pattern = likeToRegex(tablePattern.trim());
+            for (String tableName : databaseService.getTables(request.toConnectionRequest())) {
+                if (pattern.matcher(tableName).matches()) {
+                    tableNames.add(tableName);
+                }
             }
         }
-        if (!url.contains("useSSL=false")) {
-            if (url.contains("?")) {
-                url += "&useSSL=false";
+        return new ArrayList<>(tableNames);
+    }
+
+    /**
+     * 开启分表识别时识别表名中的分表族，以逻辑表名为键
+     */
+    private static Map<String, ShardFamily> shardFamilies(GeneratorRequest request, List<String> tableNames) {
+        if (!request.isShardTables()) {
+            return Map.of();
+        }
+        Map<String, ShardFamily> families = ShardFamily.detect(tableNames);
+        families.values().forEach(family -> log.info("识别到分表 {}: {} 张分表", family.logicalName(), family.shardCount()));
+        return families;
+    }
+
+    /**
+     * SQL LIKE 模式转换为正则（% 匹配任意字符串，_ 匹配单个字符）
+     */
+    static Pattern likeToRegex(String likePattern) {
+        StringBuilder regex = new StringBuilder();
+        for (char c : likePattern.toCharArray()) {
+            if (c == '%') {
+                regex.append(".*");
+            } else if (c == '_') {
+                regex.append('.');
             } else {
-                url += "?useSSL=false";
+                regex.append(Pattern.quote(String.valueOf(c)));
             }
         }
-        
-        try (Connection conn = DriverManager.getConnection(
-                url,
-                request.getDbUsername(),
-                request.getDbPassword())) {
-            DatabaseMetaData metaData = conn.getMetaData();
-            
-            // 获取主键信息
-            ResultSet pkRs = metaData.getPrimaryKeys(null, null, tableName);
-            String primaryKey = null;
-            if (pkRs.next()) {
-                primaryKey = pkRs.getString("COLUMN_NAME");
+        return Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
+    }
+
+    /**
+     * 批量生成结果摘要
+     */
+    private String batchSummary(List<TableGenerationResult> results) {
+        long succeeded = results.stream().filter(TableGenerationResult::isSuccess).count();
+        return "批量生成完成：成功 " + succeeded + " 张表，失败 " + (results.size() - succeeded) + " 张表";
+    }
+
+    /**
+     * 增量生成统计摘要
+     */
+    private String statsSummary(GenerationStats stats) {
+        return "（新增 " + stats.getAdded() + " 个文件，更新 " + stats.getChanged()
+                + " 个文件，未变化 " + stats.getUnchanged() + " 个文件）";
+    }
+
+    /**
+     * 批量生成返回数据
+     */
+    private Map<String, Object> batchData(String outputDir, List<TableGenerationResult> results) {
+        long succeeded = results.stream().filter(TableGenerationResult::isSuccess).count();
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("outputDir", outputDir);
+        data.put("total", results.size());
+        data.put("succeeded", succeeded);
+        data.put("failed", results.size() - succeeded);
+        data.put("results", results);
+        return data;
+    }
+
+    /**
+     * 解析表信息，表结构优先从元数据缓存中获取
+     */
+    private TableInfo parseTableInfo(GeneratorRequest request, String tableName, String packageName,
+                                     GenerationContext context) throws Exception {
+        TableInfo cached = metadataCache.get(tableCacheKey(request, tableName), () -> {
+            try (Connection conn = openConnection(request, context)) {
+                TableInfo tableInfo = readTableInfos(conn, request.getDatabaseName(), List.of(tableName), context).get(tableName);
+                if (tableInfo == null) {
+                    throw new IllegalArgumentException("表 " + tableName + " 不存在");
+                }
+                return tableInfo;
             }
-            pkRs.close();
-            
-            // 获取列信息
-            ResultSet rs = metaData.getColumns(null, null, tableName, null);
-            while (rs.next()) {
-                ColumnInfo column = new ColumnInfo();
-                String columnName = rs.getString("COLUMN_NAME");
-                String columnType = rs.getString("TYPE_NAME");
-                String remarks = rs.getString("REMARKS");
-                
-                column.setColumnName(columnName);
-                column.setColumnType(columnType);
-                column.setComment(remarks != null ? remarks : "");
-                
-                // 设置Java类型
-                column.setJavaType(mapSqlTypeToJava(columnType));
-                
-                // 设置JDBC类型
-                column.setJdbcType(mapSqlTypeToJdbc(columnType));
-                
-                // 设置Java字段名
-                column.setJavaFieldName(toCamelCase(columnName, false));
-                
-                // 判断是否为主键
-                column.setPrimaryKey(columnName.equals(primaryKey));
-                
-                columns.add(column);
+        });
+        return withPackage(cached, packageName);
+    }
+
+    /**
+     * 批量解析表信息：缓存未命中的表通过一次查询读取，读取失败的表记录到errors中。
+     * 分表族读取第一张分表的结构，再转换为逻辑表
+     *
+     * @param tableNames 表名（分表族为逻辑表名）
+     * @param families 逻辑表名到分表族的映射
+     * @return 表名到表信息的映射，按tableNames顺序排列
+     */
+    private Map<String, TableInfo> parseTableInfos(GeneratorRequest request, List<String> tableNames,
+                                                   Map<String, ShardFamily> families, Map<String, String> errors,
+                                                   GenerationContext context) throws Exception {
+        Map<String, TableInfo> loaded = new HashMap<>();
+        List<String> missing = new ArrayList<>();
+        for (String tableName : tableNames) {
+            String physicalName = physicalTableName(tableName, families);
+            TableInfo cached = metadataCache.getIfPresent(tableCacheKey(request, physicalName));
+            if (cached != null) {
+                loaded.put(tableName, cached);
+            } else {
+                missing.add(physicalName);
             }
-            rs.close();
-            
-            tableInfo.setColumns(columns);
-            if (primaryKey != null) {
-                // 查找主键列信息
-                for (ColumnInfo col : columns) {
-                    if (col.isPrimaryKey()) {
-                        tableInfo.setPrimaryKey(col);
-                        break;
+        }
+
+        if (!missing.isEmpty()) {
+            Map<String, TableInfo> read;
+            try (Connection conn = openConnection(request, context)) {
+                read = readTableInfos(conn, request.getDatabaseName(), missing, context);
+            } catch (SQLException e) {
+                log.warn("读取表结构失败", e);
+                read = Map.of();
+                for (String tableName : tableNames) {
+                    if (missing.contains(physicalTableName(tableName, families))) {
+                        errors.put(tableName, "读取表结构失败: " + e.getMessage());
                     }
                 }
             }
+            for (String tableName : tableNames) {
+                String physicalName = physicalTableName(tableName, families);
+                if (!missing.contains(physicalName)) {
+                    continue;
+                }
+                TableInfo tableInfo = read.get(physicalName);
+                if (tableInfo != null) {
+                    metadataCache.put(tableCacheKey(request, physicalName), tableInfo);
+                    loaded.put(tableName, tableInfo);
+                } else {
+                    errors.putIfAbsent(tableName, "读取表结构失败: 表 " + physicalName + " 不存在");
+                }
+            }
         }
-        
+
+        Map<String, TableInfo> tableInfos = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            TableInfo tableInfo = loaded.get(tableName);
+            if (tableInfo != null) {
+                tableInfo = withPackage(tableInfo, request.getPackageName());
+                ShardFamily family = families.get(tableName);
+                if (family != null) {
+                    toShardedTable(tableInfo, family);
+                }
+                tableInfos.put(tableName, tableInfo);
+            }
+        }
+        return tableInfos;
+    }
+
+    private static String physicalTableName(String tableName, Map<String, ShardFamily> families) {
+        ShardFamily family = families.get(tableName);
+        return family != null ? family.firstTable() : tableName;
+    }
+
+    /**
+     * 第一张分表的表信息转换为逻辑表：表名、实体名使用逻辑表名，记录分表数量
+     */
+    private void toShardedTable(TableInfo tableInfo, ShardFamily family) {
+        tableInfo.setTableName(family.logicalName());
+        tableInfo.setEntityName(toCamelCase(family.logicalName(), true));
+        tableInfo.setEntityVarName(toCamelCase(family.logicalName(), false));
+        tableInfo.setShardCount(family.shardCount());
+        tableInfo.setShardSuffixWidth(family.suffixWidth());
+    }
+
+    /**
+     * 从连接池获取目标库连接
+     */
+    private Connection openConnection(GeneratorRequest request, GenerationContext context) throws SQLException {
+        return generationMetrics.record(GenerationMetrics.PHASE_CONNECT, context.getEndpoint(),
+                () -> connectionPoolRegistry.getConnection(
+                        request.getDbUrl(),
+                        request.getDbUsername(),
+                        request.getDbPassword(),
+                        request.getDatabaseName()));
+    }
+
+    private String tableCacheKey(GeneratorRequest request, String tableName) {
+        return MetadataCache.key(request.getDbUrl(), request.getDbUsername(), request.getDbPassword(),
+                request.getDatabaseName(), "table", tableName);
+    }
+
+    /**
+     * 缓存中的表信息与包名无关，按本次请求复制一份再设置包名
+     */
+    private TableInfo withPackage(TableInfo cached, String packageName) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setTableName(cached.getTableName());
+        tableInfo.setEntityName(cached.getEntityName());
+        tableInfo.setEntityVarName(cached.getEntityVarName());
+        tableInfo.setColumns(cached.getColumns());
+        tableInfo.setPrimaryKey(cached.getPrimaryKey());
+        tableInfo.setPrimaryKeys(cached.getPrimaryKeys());
+        tableInfo.setPackageName(packageName);
         return tableInfo;
     }
 
     /**
-     * SQL类型映射到Java类型
+     * 读取表结构并补充实体名、Java类型、JDBC类型和字段名
      */
-    private String mapSqlTypeToJava(String sqlType) {
-        String upperType = sqlType.toUpperCase();
-        
-        if (upperType.contains("INT")) {
-            if (upperType.contains("BIGINT")) {
-                return "Long";
-            } else {
-                return "Integer";
-            }
-        } else if (upperType.contains("VARCHAR") || upperType.contains("CHAR") || upperType.contains("TEXT")) {
-            return "String";
-        } else if (upperType.contains("DATE") || upperType.contains("TIME")) {
-            return "Date";
-        } else if (upperType.contains("DECIMAL") || upperType.contains("NUMERIC")) {
-            return "BigDecimal";
-        } else if (upperType.contains("DOUBLE")) {
-            return "Double";
-        } else if (upperType.contains("FLOAT")) {
-            return "Float";
-        } else if (upperType.contains("BOOLEAN") || upperType.contains("BIT")) {
-            return "Boolean";
-        } else {
-            return "Object";
-        }
-    }
-
-    /**
-     * SQL类型映射到JDBC类型
-     */
-    private String mapSqlTypeToJdbc(String sqlType) {
-        String upperType = sqlType.toUpperCase();
-        
-        if (upperType.contains("INT")) {
-            if (upperType.contains("BIGINT")) {
-                return "BIGINT";
-            } else {
-                return "INTEGER";
-            }
-        } else if (upperType.contains("VARCHAR")) {
-            return "VARCHAR";
-        } else if (upperType.contains("CHAR")) {
-            return "CHAR";
-        } else if (upperType.contains("TEXT")) {
-            return "LONGVARCHAR";
-        } else if (upperType.contains("DATE")) {
-            return "DATE";
-        } else if (upperType.contains("TIME")) {
-            return "TIME";
-        } else if (upperType.contains("DATETIME")) {
-            return "TIMESTAMP";
-        } else if (upperType.contains("TIMESTAMP")) {
-            return "TIMESTAMP";
-        } else if (upperType.contains("DECIMAL") || upperType.contains("NUMERIC")) {
-            return "DECIMAL";
-        } else if (upperType.contains("DOUBLE")) {
-            return "DOUBLE";
-        } else if (upperType.contains("FLOAT")) {
-            return "FLOAT";
-        } else if (upperType.contains("BOOLEAN") || upperType.contains("BIT")) {
-            return "BIT";
-        } else {
-            return "OTHER";
+    private Map<String, TableInfo> readTableInfos(Connection conn, String databaseName, List<String> tableNames,
+                                                  GenerationContext context) throws SQLException {
+        return generationMetrics.record(GenerationMetrics.PHASE_METADATA, context.getEndpoint(), () -> {
+            Map<String, TableInfo> tableInfos = metadataReader.readTables(conn, databaseName, tableNames);
+            Dialect dialect = Dialect.of(conn.getMetaData());
+            tableInfos.values().forEach(tableInfo -> applyJavaMapping(tableInfo, dialect));
+            return tableInfos;
+        });
+    }
+
+    void applyJavaMapping(TableInfo tableInfo, Dialect dialect) {
+        String tableName = tableInfo.getTableName();
+        tableInfo.setEntityName(toCamelCase(tableName, true));
+        tableInfo.setEntityVarName(toCamelCase(tableName, false));
+        for (ColumnInfo column : tableInfo.getColumns()) {
+            TypeMappingRegistry.TypeMapping mapping = typeMappingRegistry.resolve(dialect, column);
+            column.setJavaType(mapping.javaType());
+            column.setJavaImport(mapping.javaImport());
+            column.setJdbcType(mapping.jdbcType());
+            column.setLargeObject(isLargeObject(column));
+            column.setJavaFieldName(toCamelCase(column.getColumnName(), false));
         }
     }
 
+    /**
+     * 是否为大字段：JDBC类型为 CLOB/BLOB/LONGVARCHAR 等，或者列类型为 TEXT、BLOB、JSON 系列
+     */
+    private static boolean isLargeObject(ColumnInfo column) {
+        if (LARGE_OBJECT_JDBC_TYPES.contains(column.getJdbcType())) {
+            return true;
+        }
+        String columnType = column.getColumnType() == null ? "" : column.getColumnType().toLowerCase();
+        return columnType.endsWith("text") || columnType.endsWith("blob")
+                || columnType.startsWith("json") || columnType.equals("bytea");
+    }
+
     /**
      * 驼峰命名转换
      */
-    private String toCamelCase(String str, boolean capitalizeFirst) {
+    String toCamelCase(String str, boolean capitalizeFirst) {
         if (str == null || str.isEmpty()) {
             return str;
         }
-        
+
         StringBuilder sb = new StringBuilder();
         boolean nextUpper = capitalizeFirst;
-        
+
         for (char c : str.toCharArray()) {
             if (c == '_' || c == '-') {
                 nextUpper = true;
@@ -276,300 +485,605 @@ public class CodeGeneratorService {
                 }
             }
         }
-        
+
         return sb.toString();
     }
 
     /**
-     * 创建目录
+     * 规划一张表需要生成的文件：模板、相对于输出目录的路径以及数据模型
      */
-    private void createDirectory(String path) {
-        File dir = new File(path);
-        if (!dir.exists()) {
-            dir.mkdirs();
+    private List<Artifact> planArtifacts(TableInfo tableInfo, GeneratorRequest request) {
+        if (tableInfo.getPrimaryKey() == null) {
+            throw new IllegalStateException("表 " + tableInfo.getTableName() + " 没有主键，无法生成CRUD代码");
+        }
+        GenerationTarget target = generationTarget(request);
+        if (target == GenerationTarget.REACTIVE && tableInfo.isCompositeKey()) {
+            throw new IllegalStateException("表 " + tableInfo.getTableName() + " 为联合主键，响应式目标不支持联合主键");
         }
+        if (tableInfo.isSharded()) {
+            checkShardable(tableInfo, request, target);
+        }
+        String tableName = tableInfo.getTableName();
+        String javaPath = "src/main/java/" + tableInfo.getPackageName().replace(".", "/");
+        String entityName = tableInfo.getEntityName();
+        Map<String, Object> dataModel = createDataModel(tableInfo, request);
+
+        List<Artifact> artifacts = new ArrayList<>();
+        artifacts.add(new Artifact(tableName, "entity.ftl", javaPath + "/entity/" + entityName + ".java", dataModel));
+        if (target == GenerationTarget.REACTIVE) {
+            artifacts.add(new Artifact(tableName, "reactive/repository.ftl", javaPath + "/repository/" + entityName + "Repository.java", dataModel));
+            artifacts.add(new Artifact(tableName, "reactive/service.ftl", javaPath + "/service/I" + entityName + "Service.java", dataModel));
+            artifacts.add(new Artifact(tableName, "reactive/service-impl.ftl", javaPath + "/service/impl/" + entityName + "ServiceImpl.java", dataModel));
+            artifacts.add(new Artifact(tableName, "reactive/controller.ftl", javaPath + "/controller/" + entityName + "Controller.java", dataModel));
+            return artifacts;
+        }
+        artifacts.add(new Artifact(tableName, "mapper.ftl", javaPath + "/mapper/" + entityName + "Mapper.java", dataModel));
+        artifacts.add(new Artifact(tableName, "service.ftl", javaPath + "/service/I" + entityName + "Service.java", dataModel));
+        artifacts.add(new Artifact(tableName, tableInfo.isSharded() ? "shard/service-impl.ftl" : "service-impl.ftl",
+                javaPath + "/service/impl/" + entityName + "ServiceImpl.java", dataModel));
+        artifacts.add(new Artifact(tableName, "controller.ftl", javaPath + "/controller/" + entityName + "Controller.java", dataModel));
+        artifacts.add(new Artifact(tableName, "mapper-xml.ftl", "src/main/resources/mapper/" + entityName + "Mapper.xml", dataModel));
+        if (tableInfo.isSharded()) {
+            artifacts.add(new Artifact(tableName, "shard/shard-context.ftl", javaPath + "/shard/ShardContext.java", dataModel));
+        }
+        if (target == GenerationTarget.VIRTUAL_THREADS) {
+            // 同一个包下的表共用一个配置类，渲染时按路径去重
+            artifacts.add(new Artifact(tableName, "config/virtual-thread-config.ftl",
+                    javaPath + "/config/VirtualThreadConfig.java", dataModel));
+        }
+        if (request.isMetrics()) {
+            artifacts.add(new Artifact(tableName, "config/metrics-config.ftl", javaPath + "/config/MetricsConfig.java", dataModel));
+            artifacts.add(new Artifact(tableName, "config/mapper-metrics-interceptor.ftl",
+                    javaPath + "/config/MapperMetricsInterceptor.java", dataModel));
+        }
+        if (request.isReadWriteSplit()) {
+            artifacts.add(new Artifact(tableName, "config/read-write-routing-config.ftl",
+                    javaPath + "/config/ReadWriteRoutingConfig.java", dataModel));
+            artifacts.add(new Artifact(tableName, "config/application-rw-local.ftl",
+                    "src/main/resources/application-rw-local.properties", dataModel));
+            artifacts.add(new Artifact(tableName, "config/h2-schema.ftl", "src/main/resources/db/h2/" + tableName + ".sql", dataModel));
+        }
+        if (request.isPerfTest()) {
+            String testPath = "src/test/java/" + tableInfo.getPackageName().replace(".", "/");
+            artifacts.add(new Artifact(tableName, "test/perf-test.ftl", testPath + "/perf/" + entityName + "PerformanceTest.java", dataModel));
+        }
+        return artifacts;
     }
 
     /**
-     * 处理模板
+     * 分表只支持MVC、虚拟线程目标和单列主键（跨分表分页按主键归并），分表键在插入前必须有值（不能是自增列）
      */
-    private void processTemplate(String templateName, Map<String, Object> dataModel, String outputPath) throws Exception {
-        Configuration cfg = new Configuration(Configuration.VERSION_2_3_33);
-        cfg.setClassForTemplateLoading(this.getClass(), "/templates");
-        
-        Template template = cfg.getTemplate(templateName);
-        
-        createDirectory(new File(outputPath).getParent());
-        
-        try (Writer writer = new FileWriter(outputPath)) {
-            template.process(dataModel, writer);
+    private static void checkShardable(TableInfo tableInfo, GeneratorRequest request, GenerationTarget target) {
+        String tableName = tableInfo.getTableName();
+        if (target == GenerationTarget.REACTIVE) {
+            throw new IllegalStateException("表 " + tableName + " 为分表，响应式目标不支持分表");
+        }
+        if (tableInfo.isCompositeKey() || "byte[]".equals(tableInfo.getPrimaryKey().getJavaType())) {
+            throw new IllegalStateException("表 " + tableName + " 为分表，主键必须是单列且可以排序");
+        }
+        ColumnInfo shardKey = shardKeyColumn(tableInfo, request);
+        if (shardKey == null) {
+            throw new IllegalStateException("表 " + tableName + " 没有分表键列 " + request.getShardKey());
+        }
+        if (shardKey.isAutoIncrement()) {
+            throw new IllegalStateException("表 " + tableName + " 的分表键 " + shardKey.getColumnName() + " 为自增列，插入前无法确定分表");
         }
     }
 
     /**
-     * 生成实体类
+     * 分表键列：指定的列，未指定时为主键；指定的列不存在时返回null
      */
-    private void generateEntity(TableInfo tableInfo, String srcPath) throws Exception {
-        String packagePath = srcPath + tableInfo.getPackageName().replace(".", "/") + "/entity/";
-        createDirectory(packagePath);
-
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("tableName", tableInfo.getTableName());
-        dataModel.put("columns", tableInfo.getColumns());
-
-        processTemplate("entity.ftl", dataModel, packagePath + tableInfo.getEntityName() + ".java");
+    private static ColumnInfo shardKeyColumn(TableInfo tableInfo, GeneratorRequest request) {
+        String shardKey = request.getShardKey();
+        if (shardKey == null || shardKey.trim().isEmpty()) {
+            return tableInfo.getPrimaryKey();
+        }
+        return tableInfo.getColumns().stream()
+                .filter(column -> column.getColumnName().equalsIgnoreCase(shardKey.trim()))
+                .findFirst()
+                .orElse(null);
     }
 
     /**
-     * 生成Mapper接口
+     * 渲染多张表的所有文件，按表、文件的顺序交给sink输出，返回逐表结果。
+     * 单个文件渲染失败只记录到对应表的结果中，不影响其他文件。
      */
-    private void generateMapper(TableInfo tableInfo, String srcPath) throws Exception {
-        String packagePath = srcPath + tableInfo.getPackageName().replace(".", "/") + "/mapper/";
-        createDirectory(packagePath);
+    private List<TableGenerationResult> renderTables(List<TableInfo> tableInfos, ArtifactSink sink,
+                                                     GenerationContext context) throws Exception {
+        Map<String, List<String>> files = new LinkedHashMap<>();
+        Map<String, List<String>> failures = new LinkedHashMap<>();
+        Map<String, Integer> remaining = new HashMap<>();
+        Map<String, String> planErrors = new LinkedHashMap<>();
+        Set<String> plannedPaths = new HashSet<>();
+        List<Artifact> artifacts = new ArrayList<>();
+        for (TableInfo tableInfo : tableInfos) {
+            String tableName = tableInfo.getTableName();
+            try {
+                // 多张表共用的文件只生成一次
+                List<Artifact> tableArtifacts = planArtifacts(tableInfo, context.getRequest()).stream()
+                        .filter(artifact -> plannedPaths.add(artifact.path()))
+                        .toList();
+                artifacts.addAll(tableArtifacts);
+                files.put(tableName, new ArrayList<>());
+                failures.put(tableName, new ArrayList<>());
+                remaining.put(tableName, tableArtifacts.size());
+            } catch (Exception e) {
+                planErrors.put(tableName, e.getMessage());
+                context.getListener().onTableCompleted(tableName, false);
+            }
+        }
 
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
+        renderInOrder(artifacts, context, rendered -> {
+            Artifact artifact = rendered.artifact();
+            String tableName = artifact.tableName();
+            if (rendered.error() != null) {
+                log.warn("文件 {} 渲染失败", artifact.path(), rendered.error());
+                failures.get(tableName).add(artifact.path() + ": " + rendered.error().getMessage());
+            } else {
+                sink.accept(artifact.path(), rendered.content());
+                files.get(tableName).add(artifact.path());
+            }
+            // 一张表的文件全部输出后通知进度
+            if (remaining.merge(tableName, -1, Integer::sum) == 0) {
+                context.getListener().onTableCompleted(tableName, failures.get(tableName).isEmpty());
+            }
+        });
 
-        processTemplate("mapper.ftl", dataModel, packagePath + tableInfo.getEntityName() + "Mapper.java");
+        List<TableGenerationResult> results = new ArrayList<>();
+        for (TableInfo tableInfo : tableInfos) {
+            String tableName = tableInfo.getTableName();
+            if (planErrors.containsKey(tableName)) {
+                results.add(TableGenerationResult.fail(tableName, planErrors.get(tableName)));
+            } else {
+                results.add(TableGenerationResult.of(tableName, files.get(tableName), failures.get(tableName)));
+            }
+        }
+        return results;
     }
 
     /**
-     * 生成Mapper XML文件
+     * 并行渲染文件，按提交顺序将结果交给consumer，保证输出顺序确定。
+     * 同时渲染中的文件数不超过窗口大小，内存占用与表数量无关。
      */
-    private void generateMapperXml(TableInfo tableInfo, String resourcePath) throws Exception {
-        String xmlPath = resourcePath + "mapper/";
-        createDirectory(xmlPath);
+    private void renderInOrder(List<Artifact> artifacts, GenerationContext context,
+                               RenderedConsumer consumer) throws Exception {
+        int windowSize = renderExecutor.getParallelism() * 2;
+        Deque<Future<RenderedArtifact>> window = new ArrayDeque<>();
+        try {
+            for (Artifact artifact : artifacts) {
+                if (context.isCancelled()) {
+                    throw new CancellationException("生成已取消");
+                }
+                window.add(renderExecutor.submit(() -> renderArtifact(artifact, context)));
+                if (window.size() >= windowSize) {
+                    consumer.accept(window.poll().get());
+                }
+            }
+            while (!window.isEmpty()) {
+                consumer.accept(window.poll().get());
+            }
+        } finally {
+            // 输出失败时取消尚未完成的渲染
+            window.forEach(future -> future.cancel(true));
+        }
+    }
 
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("tableName", tableInfo.getTableName());
-        dataModel.put("columns", tableInfo.getColumns());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
+    /**
+     * 渲染单个文件，异常记录在结果中而不是抛出
+     */
+    private RenderedArtifact renderArtifact(Artifact artifact, GenerationContext context) {
+        try {
+            String content = generationMetrics.record(GenerationMetrics.PHASE_RENDER, context.getEndpoint(),
+                    artifact.templateName(), () -> generateFileContent(artifact.templateName(), artifact.dataModel()));
+            return new RenderedArtifact(artifact, content, null);
+        } catch (Exception e) {
+            return new RenderedArtifact(artifact, null, e);
+        }
+    }
 
-        processTemplate("mapper-xml.ftl", dataModel, xmlPath + tableInfo.getEntityName() + "Mapper.xml");
+    /**
+     * 写入文件（内容未变化时跳过）
+     */
+    private void writeFile(GenerationManifest manifest, String path, String content,
+                           GenerationContext context) throws IOException {
+        generationMetrics.record(GenerationMetrics.PHASE_WRITE, context.getEndpoint(), () -> {
+            int bytes = manifest.write(path, content);
+            generationMetrics.bytesWritten(context.getEndpoint(), "file", bytes);
+            return bytes;
+        });
     }
 
     /**
-     * 生成Service接口
+     * 合并元数据读取失败的表与渲染结果，按tableNames顺序返回
      */
-    private void generateService(TableInfo tableInfo, String srcPath) throws Exception {
-        String servicePackagePath = srcPath + tableInfo.getPackageName().replace(".", "/") + "/service/";
-        createDirectory(servicePackagePath);
+    private List<TableGenerationResult> mergeResults(List<String> tableNames, List<TableGenerationResult> rendered,
+                                                     Map<String, String> errors) {
+        Map<String, TableGenerationResult> byTable = new HashMap<>();
+        rendered.forEach(result -> byTable.put(result.getTableName(), result));
+        List<TableGenerationResult> results = new ArrayList<>();
+        for (String tableName : tableNames) {
+            TableGenerationResult result = byTable.get(tableName);
+            results.add(result != null ? result : TableGenerationResult.fail(tableName, errors.get(tableName)));
+        }
+        return results;
+    }
 
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
+    /**
+     * 生成CRUD代码的zip包。
+     * 表结构在调用时立即解析（连接失败等错误可以在响应开始前返回），
+     * 文件在调用返回对象的 writeTo 时才渲染，边渲染边写入输出流。
+     *
+     * @param request 生成请求参数
+     * @return zip写出器
+     */
+    public ZipWriter prepareZip(GeneratorRequest request) {
+        GenerationContext context = new GenerationContext("generate-download", request);
+        try {
+            // 解析表结构（使用动态数据库连接）
+            TableInfo tableInfo = parseTableInfo(request, request.getTableName(), request.getPackageName(), context);
+            return out -> writeZip(out, List.of(tableInfo), List.of(tableInfo.getTableName()), Map.of(), false, context);
+        } catch (Exception e) {
+            log.error("生成代码zip失败", e);
+            throw new RuntimeException("生成代码zip失败: " + e.getMessage(), e);
+        }
+    }
 
-        processTemplate("service.ftl", dataModel, servicePackagePath + "I" + tableInfo.getEntityName() + "Service.java");
+    /**
+     * 批量生成CRUD代码的zip包，zip中附带逐表的生成报告
+     *
+     * @param request 生成请求参数
+     * @return zip写出器
+     */
+    public ZipWriter prepareBatchZip(GeneratorRequest request) {
+        return prepareBatchZip(request, new GenerationContext("generate-batch-download", request));
     }
 
     /**
-     * 生成Service实现类
+     * 批量生成CRUD代码的zip包，通过上下文中的监听器发布进度
+     *
+     * @param request 生成请求参数
+     * @param context 生成上下文
+     * @return zip写出器
      */
-    private void generateServiceImpl(TableInfo tableInfo, String srcPath) throws Exception {
-        String serviceImplPackagePath = srcPath + tableInfo.getPackageName().replace(".", "/") + "/service/impl/";
-        createDirectory(serviceImplPackagePath);
-        
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
+    public ZipWriter prepareBatchZip(GeneratorRequest request, GenerationContext context) {
+        try {
+            List<String> tableNames = resolveTableNames(request);
+            if (tableNames.isEmpty()) {
+                throw new IllegalArgumentException("没有找到匹配的表");
+            }
+            Map<String, ShardFamily> families = shardFamilies(request, tableNames);
+            List<String> logicalNames = ShardFamily.collapse(tableNames, families);
+            context.getListener().onTablesResolved(logicalNames.size());
 
-        processTemplate("service-impl.ftl", dataModel, serviceImplPackagePath + tableInfo.getEntityName() + "ServiceImpl.java");
+            context.getListener().onPhase(GenerationMetrics.PHASE_METADATA);
+            Map<String, String> errors = new HashMap<>();
+            Map<String, TableInfo> tableInfos = parseTableInfos(request, logicalNames, families, errors, context);
+            errors.keySet().forEach(tableName -> context.getListener().onTableCompleted(tableName, false));
+            return out -> writeZip(out, new ArrayList<>(tableInfos.values()), logicalNames, errors, true, context);
+        } catch (IllegalArgumentException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("批量生成代码zip失败", e);
+            throw new RuntimeException("批量生成代码zip失败: " + e.getMessage(), e);
+        }
     }
 
     /**
-     * 生成Controller
+     * 渲染所有文件并直接写入zip输出流，不在内存中缓存整个压缩包
+     *
+     * @param out 输出流（不会被关闭）
+     * @param tableInfos 表信息
+     * @param tableNames 请求的表名（含读取结构失败的表）
+     * @param errors 读取结构失败的表及原因
+     * @param alwaysReport 是否总是附带生成报告，为false时只在有失败时附带
+     * @param context 生成上下文
      */
-    private void generateController(TableInfo tableInfo, String srcPath) throws Exception {
-        String packagePath = srcPath + tableInfo.getPackageName().replace(".", "/") + "/controller/";
-        createDirectory(packagePath);
+    private void writeZip(OutputStream out, List<TableInfo> tableInfos, List<String> tableNames,
+                          Map<String, String> errors, boolean alwaysReport, GenerationContext context) throws IOException {
+        context.getListener().onPhase(GenerationMetrics.PHASE_RENDER);
+        ZipOutputStream zos = new ZipOutputStream(new BufferedOutputStream(out, ZIP_BUFFER_SIZE));
+        try {
+            List<TableGenerationResult> results = mergeResults(tableNames, addFileToZip(zos, tableInfos, context), errors);
+            generationMetrics.tablesProcessed(context.getEndpoint(), results);
+            if (alwaysReport || results.stream().anyMatch(result -> !result.isSuccess())) {
+                addToZip(zos, REPORT_FILE_NAME, buildReport(results, tableInfos, context.getRequest()));
+            }
+            zos.finish();
+            zos.flush();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            log.error("生成代码zip失败", e);
+            throw new IOException("生成代码zip失败: " + e.getMessage(), e);
+        }
+    }
 
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
+    /**
+     * 生成报告内容，每张表一行，之后附带过滤条件的索引报告
+     */
+    private String buildReport(List<TableGenerationResult> results, List<TableInfo> tableInfos,
+                               GeneratorRequest request) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(batchSummary(results)).append('\n').append('\n');
+        for (TableGenerationResult result : results) {
+            sb.append(result.isSuccess() ? "[成功] " : "[失败] ")
+                    .append(result.getTableName());
+            if (result.isSuccess()) {
+                sb.append(" (").append(result.getFiles().size()).append(" 个文件)");
+            } else {
+                sb.append(": ").append(result.getMessage());
+            }
+            sb.append('\n');
+            for (String error : result.getErrors()) {
+                sb.append("    ").append(error).append('\n');
+            }
+        }
 
-        processTemplate("controller.ftl", dataModel, packagePath + tableInfo.getEntityName() + "Controller.java");
+        sb.append('\n').append("过滤条件索引报告（").append(filterIndexMode(request)).append("）").append('\n').append('\n');
+        for (TableInfo tableInfo : tableInfos) {
+            FilterIndexReport report = filterIndexReport(tableInfo, request);
+            sb.append(report.getTableName()).append('\n');
+            for (String filter : report.getIndexedFilters()) {
+                sb.append("    [索引] ").append(filter).append('\n');
+            }
+            for (String column : report.getUnindexedFilters()) {
+                sb.append(report.getMode() == FilterIndexMode.INDEXED ? "    [省略] " : "    [无索引] ")
+                        .append(column).append('\n');
+            }
+        }
+        return sb.toString();
     }
-    
+
+    private static GenerationTarget generationTarget(GeneratorRequest request) {
+        return request.getTarget() != null ? request.getTarget() : GenerationTarget.MVC;
+    }
+
+    private static FilterIndexMode filterIndexMode(GeneratorRequest request) {
+        return request.getFilterIndexMode() != null ? request.getFilterIndexMode() : FilterIndexMode.ALL;
+    }
+
     /**
-     * 生成CRUD代码并返回zip字节数组
-     * 
-     * @param request 生成请求参数
-     * @return zip字节数组
+     * 统计一张表生成的过滤条件是否有索引支持，与 mapper-xml.ftl 中 Filter_Conditions 的规则一致：
+     * ALL 模式下字符串列为包含匹配，无法使用索引；其他模式下单列全文索引使用 MATCH ... AGAINST，
+     * 普通索引的第一列使用前缀匹配、等值或范围条件（响应式目标不支持全文检索，只有全文索引的列按无索引处理）。
+     * 二进制列不生成过滤条件。
      */
-    public byte[] generateCodeAsZip(GeneratorRequest request) {
-        try {
-            String tableName = request.getTableName();
-            String packageName = request.getPackageName();
-            
-            // 获取输出目录，用于zip文件名
-            String outputDir = request.getOutputDir();
-            if (outputDir == null || outputDir.trim().isEmpty()) {
-                outputDir = "generated-code";
+    FilterIndexReport filterIndexReport(TableInfo tableInfo, GeneratorRequest request) {
+        FilterIndexMode mode = filterIndexMode(request);
+        boolean fulltextSupported = generationTarget(request) != GenerationTarget.REACTIVE;
+        FilterIndexReport report = new FilterIndexReport();
+        report.setTableName(tableInfo.getTableName());
+        report.setMode(mode);
+        for (ColumnInfo column : tableInfo.getColumns()) {
+            String columnName = column.getColumnName();
+            if ("byte[]".equals(column.getJavaType())) {
+                continue;
             }
-            
-            // 解析表结构（使用动态数据库连接）
-            TableInfo tableInfo = parseTableInfo(request, tableName, packageName);
-            
-            // 使用字节数组输出流来收集所有文件内容
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            try (ZipOutputStream zos = new ZipOutputStream(baos)) {
-                
-                // 生成各个文件并添加到zip
-                addFileToZip(zos, tableInfo, packageName);
-                
-                zos.finish();
+            if ("String".equals(column.getJavaType())) {
+                if (mode != FilterIndexMode.ALL && fulltextSupported && column.isFulltextIndexed()) {
+                    report.getIndexedFilters().add(columnName + ": 全文检索");
+                } else if (mode != FilterIndexMode.ALL && column.isIndexed()) {
+                    report.getIndexedFilters().add(columnName + ": 前缀匹配");
+                } else {
+                    report.getUnindexedFilters().add(columnName);
+                }
+            } else if (column.isIndexed()) {
+                report.getIndexedFilters().add(columnName + ": 等值/范围");
+            } else {
+                report.getUnindexedFilters().add(columnName);
             }
-            
-            return baos.toByteArray();
-            
-        } catch (Exception e) {
-            log.error("生成代码zip失败", e);
-            throw new RuntimeException("生成代码zip失败: " + e.getMessage(), e);
         }
+        return report;
     }
-    
+
     /**
      * 将生成的文件添加到zip流中
-     * 
+     *
      * @param zos zip输出流
-     * @param tableInfo 表信息
-     * @param packageName 包名
-     */
-    private void addFileToZip(ZipOutputStream zos, TableInfo tableInfo, String packageName) throws Exception {
-        // 生成文件内容到内存中，然后添加到zip
-        
-        // 生成Entity
-        String entityContent = generateFileContent("entity.ftl", createEntityDataModel(tableInfo));
-        String entityPath = packageName.replace(".", "/") + "/entity/" + tableInfo.getEntityName() + ".java";
-        addToZip(zos, "src/main/java/" + entityPath, entityContent);
-        
-        // 生成Mapper
-        String mapperContent = generateFileContent("mapper.ftl", createMapperDataModel(tableInfo));
-        String mapperPath = packageName.replace(".", "/") + "/mapper/" + tableInfo.getEntityName() + "Mapper.java";
-        addToZip(zos, "src/main/java/" + mapperPath, mapperContent);
-        
-        // 生成Service
-        String serviceContent = generateFileContent("service.ftl", createServiceDataModel(tableInfo));
-        String servicePath = packageName.replace(".", "/") + "/service/I" + tableInfo.getEntityName() + "Service.java";
-        addToZip(zos, "src/main/java/" + servicePath, serviceContent);
-        
-        // 生成ServiceImpl
-        String serviceImplContent = generateFileContent("service-impl.ftl", createServiceImplDataModel(tableInfo));
-        String serviceImplPath = packageName.replace(".", "/") + "/service/impl/" + tableInfo.getEntityName() + "ServiceImpl.java";
-        addToZip(zos, "src/main/java/" + serviceImplPath, serviceImplContent);
-        
-        // 生成Controller
-        String controllerContent = generateFileContent("controller.ftl", createControllerDataModel(tableInfo));
-        String controllerPath = packageName.replace(".", "/") + "/controller/" + tableInfo.getEntityName() + "Controller.java";
-        addToZip(zos, "src/main/java/" + controllerPath, controllerContent);
-        
-        // 生成Mapper XML
-        String mapperXmlContent = generateFileContent("mapper-xml.ftl", createMapperXmlDataModel(tableInfo));
-        String mapperXmlPath = "mapper/" + tableInfo.getEntityName() + "Mapper.xml";
-        addToZip(zos, "src/main/resources/" + mapperXmlPath, mapperXmlContent);
-    }
-    
+     * @param tableInfos 表信息
+     * @param context 生成上下文
+     * @return 逐表生成结果
+     */
+    List<TableGenerationResult> addFileToZip(ZipOutputStream zos, List<TableInfo> tableInfos,
+                                             GenerationContext context) throws Exception {
+        return renderTables(tableInfos, (path, content) ->
+                generationMetrics.record(GenerationMetrics.PHASE_ZIP, context.getEndpoint(), () -> {
+                    long compressedSize = addToZip(zos, path, content);
+                    generationMetrics.bytesWritten(context.getEndpoint(), "zip", compressedSize);
+                    return compressedSize;
+                }), context);
+    }
+
     /**
      * 将内容添加到zip流中
-     * 
+     *
      * @param zos zip输出流
      * @param path 文件路径
      * @param content 文件内容
+     * @return 压缩后的字节数
      */
-    private void addToZip(ZipOutputStream zos, String path, String content) throws IOException {
+    private long addToZip(ZipOutputStream zos, String path, String content) throws IOException {
         ZipEntry entry = new ZipEntry(path);
         zos.putNextEntry(entry);
-        zos.write(content.getBytes("UTF-8"));
+        // 直接编码写入zip流，不关闭writer（关闭会连带关闭zip流）
+        Writer writer = new OutputStreamWriter(zos, StandardCharsets.UTF_8);
+        writer.write(content);
+        writer.flush();
         zos.closeEntry();
+        return entry.getCompressedSize();
     }
-    
+
     /**
      * 生成文件内容到字符串
-     * 
+     *
      * @param templateName 模板名称
      * @param dataModel 数据模型
      * @return 文件内容
      */
     private String generateFileContent(String templateName, Map<String, Object> dataModel) throws Exception {
-        Configuration cfg = new Configuration(Configuration.VERSION_2_3_33);
-        cfg.setClassForTemplateLoading(this.getClass(), "/templates");
-        
-        Template template = cfg.getTemplate(templateName);
-        
-        StringWriter stringWriter = new StringWriter();
-        template.process(dataModel, stringWriter);
-        
-        return stringWriter.toString();
-    }
-    
-    // 创建各种数据模型的辅助方法
-    private Map<String, Object> createEntityDataModel(TableInfo tableInfo) {
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("tableName", tableInfo.getTableName());
-        dataModel.put("columns", tableInfo.getColumns());
-        return dataModel;
+        return templateEngine.renderToString(templateName, dataModel);
     }
-    
-    private Map<String, Object> createMapperDataModel(TableInfo tableInfo) {
+
+    /**
+     * 创建模板数据模型，所有模板共用
+     *
+     * @param tableInfo 表信息
+     * @param request 生成请求参数（生成选项）
+     */
+    Map<String, Object> createDataModel(TableInfo tableInfo, GeneratorRequest request) {
         Map<String, Object> dataModel = new HashMap<>();
         dataModel.put("packageName", tableInfo.getPackageName());
         dataModel.put("entityName", tableInfo.getEntityName());
         dataModel.put("entityVarName", tableInfo.getEntityVarName());
+        dataModel.put("tableName", tableInfo.getTableName());
+        dataModel.put("columns", tableInfo.getColumns());
         dataModel.put("primaryKey", tableInfo.getPrimaryKey());
+        dataModel.put("primaryKeys", tableInfo.getPrimaryKeys());
+        dataModel.put("compositeKey", tableInfo.isCompositeKey());
+        dataModel.put("imports", javaImports(tableInfo.getColumns()));
+        dataModel.put("keyImports", javaImports(tableInfo.getPrimaryKeys()));
+        // 分表不生成游标分页
+        List<ColumnInfo> cursorColumns = tableInfo.isSharded() ? List.of() : cursorColumns(tableInfo, request.getCursorColumn());
+        dataModel.put("cursorColumns", cursorColumns);
+        // 列表查询默认的列：大字段之外的列，主键和游标列总是包含
+        dataModel.put("listColumns", tableInfo.getColumns().stream()
+                .filter(column -> !column.isLargeObject() || column.isPrimaryKey() || cursorColumns.contains(column))
+                .toList());
+        dataModel.put("insertColumns", tableInfo.getColumns().stream().filter(column -> !column.isAutoIncrement()).toList());
+        // 所有列都是主键时没有可更新的列，不生成按ID批量更新
+        dataModel.put("nonKeyColumns", tableInfo.getColumns().stream().filter(column -> !column.isPrimaryKey()).toList());
+        dataModel.put("batchMaxRows", positiveOrDefault(request.getBatchMaxRows(), DEFAULT_BATCH_MAX_ROWS));
+        dataModel.put("batchMaxBytes", positiveOrDefault(request.getBatchMaxBytes(), DEFAULT_BATCH_MAX_BYTES));
+        dataModel.put("batchExecutor", request.isBatchExecutor());
+        // 未指定 fetchSize 时不写入映射文件，由驱动使用默认值
+        if (isValidFetchSize(request.getExportFetchSize())) {
+            dataModel.put("exportFetchSize", request.getExportFetchSize());
+        }
+        // 分表的总数为各分表 COUNT(*) 之和，不使用其他统计方式
+        dataModel.put("countStrategy", (request.getCountStrategy() != null && !tableInfo.isSharded()
+                ? request.getCountStrategy() : CountStrategy.EXACT).name());
+        dataModel.put("target", generationTarget(request).name());
+        dataModel.put("filterIndexMode", filterIndexMode(request).name());
+        dataModel.put("countCacheSeconds", positiveOrDefault(request.getCountCacheSeconds(), DEFAULT_COUNT_CACHE_SECONDS));
+        dataModel.put("entityCache", !tableInfo.isSharded() && request.getCacheTables() != null
+                && request.getCacheTables().stream().anyMatch(tableInfo.getTableName()::equalsIgnoreCase));
+        dataModel.put("cacheMaxSize", positiveOrDefault(request.getCacheMaxSize(), DEFAULT_CACHE_MAX_SIZE));
+        dataModel.put("cacheTtlSeconds", positiveOrDefault(request.getCacheTtlSeconds(), DEFAULT_CACHE_TTL_SECONDS));
+        dataModel.put("metrics", request.isMetrics());
+        dataModel.put("metricsHistograms", request.isMetrics() && request.isMetricsHistograms());
+        dataModel.put("readWriteSplit", request.isReadWriteSplit());
+        // Mapper XML 中的表名，分表时后缀由 ShardContext 在执行时给出
+        dataModel.put("sharded", tableInfo.isSharded());
+        dataModel.put("sqlTable", tableInfo.isSharded()
+                ? tableInfo.getTableName() + "_${@" + tableInfo.getPackageName() + ".shard.ShardContext@suffix("
+                + tableInfo.getShardSuffixWidth() + ")}"
+                : tableInfo.getTableName());
+        if (tableInfo.isSharded()) {
+            dataModel.put("shardCount", tableInfo.getShardCount());
+            dataModel.put("firstShardTable", tableInfo.shardTableName(0));
+            dataModel.put("lastShardTable", tableInfo.shardTableName(tableInfo.getShardCount() - 1));
+            dataModel.put("shardKey", shardKeyColumn(tableInfo, request));
+        }
+        if (request.isPerfTest() || request.isReadWriteSplit()) {
+            dataModel.put("h2Schema", PerformanceTestSupport.schemaStatements(tableInfo));
+        }
+        if (request.isPerfTest()) {
+            dataModel.put("perfRows", positiveOrDefault(request.getPerfRows(), DEFAULT_PERF_ROWS));
+            dataModel.put("perfValues", PerformanceTestSupport.syntheticValues(tableInfo));
+            dataModel.put("perfImports", PerformanceTestSupport.imports(tableInfo));
+        }
+        // 只有自增主键才回填生成的主键值
+        tableInfo.getPrimaryKeys().stream()
+                .filter(ColumnInfo::isAutoIncrement)
+                .findFirst()
+                .ifPresent(column -> dataModel.put("autoIncrementKey", column));
         return dataModel;
     }
-    
-    private Map<String, Object> createServiceDataModel(TableInfo tableInfo) {
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
-        return dataModel;
+
+    /**
+     * 游标分页的排序列：指定的排序列（若可用）加上主键列，保证排序唯一。
+     * 指定的列不存在、可为空或类型无法编码进游标时只按主键排序；主键类型无法编码时返回空列表，不生成游标分页。
+     */
+    private static List<ColumnInfo> cursorColumns(TableInfo tableInfo, String cursorColumn) {
+        List<ColumnInfo> columns = new ArrayList<>();
+        if (cursorColumn != null && !cursorColumn.trim().isEmpty()) {
+            for (ColumnInfo column : tableInfo.getColumns()) {
+                if (column.getColumnName().equalsIgnoreCase(cursorColumn.trim()) && !column.isPrimaryKey()
+                        && !column.isNullable() && CURSOR_TYPES.contains(column.getJavaType())) {
+                    columns.add(column);
+                    break;
+                }
+            }
+        }
+        for (ColumnInfo column : tableInfo.getPrimaryKeys()) {
+            if (!CURSOR_TYPES.contains(column.getJavaType())) {
+                return List.of();
+            }
+            columns.add(column);
+        }
+        return columns;
     }
-    
-    private Map<String, Object> createServiceImplDataModel(TableInfo tableInfo) {
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
-        return dataModel;
+
+    private static int positiveOrDefault(Integer value, int defaultValue) {
+        return value != null && value > 0 ? value : defaultValue;
     }
-    
-    private Map<String, Object> createControllerDataModel(TableInfo tableInfo) {
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
-        return dataModel;
+
+    /**
+     * 可以写入映射文件的 fetchSize：正数，或 MySQL 逐行流式读取使用的 Integer.MIN_VALUE；
+     * 其他负数H2、PostgreSQL等驱动会在 setFetchSize 时直接报错
+     */
+    private static boolean isValidFetchSize(Integer fetchSize) {
+        return fetchSize != null && (fetchSize > 0 || fetchSize == Integer.MIN_VALUE);
     }
-    
-    private Map<String, Object> createMapperXmlDataModel(TableInfo tableInfo) {
-        Map<String, Object> dataModel = new HashMap<>();
-        dataModel.put("packageName", tableInfo.getPackageName());
-        dataModel.put("entityName", tableInfo.getEntityName());
-        dataModel.put("entityVarName", tableInfo.getEntityVarName());
-        dataModel.put("tableName", tableInfo.getTableName());
-        dataModel.put("columns", tableInfo.getColumns());
-        dataModel.put("primaryKey", tableInfo.getPrimaryKey());
-        return dataModel;
+
+    /**
+     * 列的Java类型需要导入的类，排序去重
+     */
+    private static Set<String> javaImports(List<ColumnInfo> columns) {
+        Set<String> imports = new TreeSet<>();
+        for (ColumnInfo column : columns) {
+            if (column.getJavaImport() != null) {
+                imports.add(column.getJavaImport());
+            }
+        }
+        return imports;
+    }
+
+    /**
+     * 待生成的文件
+     *
+     * @param tableName 所属表名
+     * @param templateName 模板名称
+     * @param path 相对于输出目录的文件路径
+     * @param dataModel 数据模型（同一张表的文件共用，渲染时只读）
+     */
+    private record Artifact(String tableName, String templateName, String path, Map<String, Object> dataModel) {
+    }
+
+    /**
+     * 渲染结果，content与error二者只有一个不为空
+     */
+    private record RenderedArtifact(Artifact artifact, String content, Exception error) {
+    }
+
+    /**
+     * 渲染结果的输出目标（文件或zip）
+     */
+    @FunctionalInterface
+    private interface ArtifactSink {
+        void accept(String path, String content) throws IOException;
+    }
+
+    /**
+     * zip写出器，调用 writeTo 时渲染并写出zip内容
+     */
+    @FunctionalInterface
+    public interface ZipWriter {
+        void writeTo(OutputStream out) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RenderedConsumer {
+        void accept(RenderedArtifact rendered) throws IOException;
     }
 }
@@ -0,0 +1,351 @@
+package com.tongysh.generator.service;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.pool.HikariPool;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 目标数据库连接池注册表
+ * <p>
+ * 按 (dbUrl, 用户名, 数据库名) 为每个目标库维护一个小型连接池，
+ * 同一会话中的查库、查表、生成、下载等请求复用已建立的连接，不再每次重新握手。
+ * 长时间未使用的连接池会被后台线程关闭，连接池总数超过上限时淘汰最久未使用的连接池。
+ * 被淘汰的连接池先从注册表移除，等借出的连接全部归还后才真正关闭，不影响其他线程正在进行的元数据读取。
+ * 连接池在锁外创建，一个目标库连接缓慢或不可达时不会阻塞其他目标库的请求。
+ *
+ * @author tongysh
+ */
+@Slf4j
+@Component
+public class ConnectionPoolRegistry {
+
+    @Value("${generator.pool.max-pools:16}")
+    private int maxPools;
+
+    @Value("${generator.pool.max-size:4}")
+    private int maxPoolSize;
+
+    @Value("${generator.pool.idle-timeout-seconds:300}")
+    private long idleTimeoutSeconds;
+
+    @Value("${generator.pool.connection-timeout-ms:10000}")
+    private long connectionTimeoutMs;
+
+    /**
+     * 每个目标库对应一个连接池创建任务，同一目标的并发请求等待同一个任务，不同目标互不阻塞
+     */
+    private final Map<PoolKey, CompletableFuture<PoolEntry>> pools = new ConcurrentHashMap<>();
+
+    /**
+     * 已从注册表移除、仍有借出连接的连接池，连接全部归还后关闭
+     */
+    private final List<HikariDataSource> retiredPools = new CopyOnWriteArrayList<>();
+
+    private final AtomicInteger poolSequence = new AtomicInteger();
+
+    private ScheduledExecutorService evictor;
+
+    @PostConstruct
+    public void init() {
+        if (maxPools < 1) {
+            throw new IllegalStateException("generator.pool.max-pools 必须大于0，当前为 " + maxPools);
+        }
+        evictor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "db-pool-evictor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, idleTimeoutSeconds / 2);
+        evictor.scheduleWithFixedDelay(this::evictIdlePools, period, period, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (evictor != null) {
+            evictor.shutdownNow();
+        }
+        pools.forEach(this::closePool);
+        retiredPools.forEach(HikariDataSource::close);
+        retiredPools.clear();
+    }
+
+    /**
+     * 从目标库对应的连接池中获取连接，使用完毕后调用 close() 归还
+     *
+     * @param dbUrl 数据库连接URL（不包含数据库名）
+     * @param username 用户名
+     * @param password 密码
+     * @param databaseName 数据库名，为空时连接到服务器级别
+     * @return 数据库连接
+     */
+    public Connection getConnection(String dbUrl, String username, String password, String databaseName) throws SQLException {
+        PoolKey key = new PoolKey(dbUrl, username, databaseName);
+        for (int attempt = 0; ; attempt++) {
+            PoolEntry entry = acquirePool(key, password);
+            entry.lastAccessTime = System.currentTimeMillis();
+            try {
+                return entry.dataSource.getConnection();
+            } catch (SQLException e) {
+                // 取到连接池后、获取连接前连接池被淘汰关闭时，重新查找一次
+                if (attempt > 0 || !entry.dataSource.isClosed()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * 当前连接池数量（包括正在创建的连接池）
+     */
+    public int getPoolCount() {
+        return pools.size();
+    }
+
+    /**
+     * 查找或创建目标库的连接池
+     * <p>
+     * 连接池在锁外创建，创建期间只有同一目标的请求需要等待。
+     * 密码变化时先用新密码创建连接池，成功后才替换旧连接池；新密码连接失败只让本次请求失败，旧连接池继续使用。
+     */
+    private PoolEntry acquirePool(PoolKey key, String password) throws SQLException {
+        while (true) {
+            CompletableFuture<PoolEntry> future = pools.get(key);
+            if (future == null) {
+                CompletableFuture<PoolEntry> created = new CompletableFuture<>();
+                future = pools.putIfAbsent(key, created);
+                if (future == null) {
+                    return publishPool(key, password, created);
+                }
+            }
+
+            PoolEntry entry = await(future);
+            if (entry == null) {
+                // 其他请求创建失败（例如密码错误），由当前请求用自己的密码重新创建
+                continue;
+            }
+            if (Objects.equals(entry.password, password)) {
+                return entry;
+            }
+
+            PoolEntry replacement = createPool(key, password);
+            if (pools.replace(key, future, CompletableFuture.completedFuture(replacement))) {
+                log.info("密码变化，替换连接池: {}/{}", key.dbUrl(), key.databaseName());
+                retire(entry);
+                return replacement;
+            }
+            // 其他线程已替换或移除了连接池，放弃本次创建的连接池并重新查找
+            replacement.dataSource.close();
+        }
+    }
+
+    /**
+     * 创建连接池并发布到占位的创建任务上，创建失败时移除占位，让后续请求重新创建
+     */
+    private PoolEntry publishPool(PoolKey key, String password, CompletableFuture<PoolEntry> created) throws SQLException {
+        try {
+            evictOverflow(key);
+            PoolEntry entry = createPool(key, password);
+            created.complete(entry);
+            return entry;
+        } catch (Throwable e) {
+            pools.remove(key, created);
+            created.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * 等待连接池创建完成，创建失败时返回 null
+     */
+    private static PoolEntry await(CompletableFuture<PoolEntry> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("等待连接池创建时被中断", e);
+        }
+    }
+
+    /**
+     * 已创建完成的连接池，正在创建或创建失败时返回 null
+     */
+    private static PoolEntry completedEntry(CompletableFuture<PoolEntry> future) {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * 创建连接池，创建失败时抛出底层的连接异常
+     */
+    private PoolEntry createPool(PoolKey key, String password) throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("generator-pool-" + poolSequence.incrementAndGet());
+        config.setJdbcUrl(buildJdbcUrl(key.dbUrl(), key.databaseName()));
+        config.setUsername(key.username());
+        config.setPassword(password);
+        config.setMaximumPoolSize(maxPoolSize);
+        config.setMinimumIdle(0);
+        config.setIdleTimeout(TimeUnit.SECONDS.toMillis(idleTimeoutSeconds));
+        config.setConnectionTimeout(connectionTimeoutMs);
+        config.setReadOnly(true);
+
+        HikariDataSource dataSource;
+        try {
+            dataSource = new HikariDataSource(config);
+        } catch (HikariPool.PoolInitializationException e) {
+            if (e.getCause() instanceof SQLException sqlException) {
+                throw sqlException;
+            }
+            throw e;
+        }
+        log.info("创建连接池 {}，目标: {}/{}", config.getPoolName(), key.dbUrl(), key.databaseName());
+        return new PoolEntry(dataSource, password);
+    }
+
+    /**
+     * 关闭空闲超时的连接池，以及借出连接已全部归还的已淘汰连接池
+     */
+    private void evictIdlePools() {
+        retiredPools.removeIf(ConnectionPoolRegistry::closeIfUnused);
+        long deadline = System.currentTimeMillis() - TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        pools.forEach((key, future) -> {
+            PoolEntry entry = completedEntry(future);
+            if (entry != null && entry.lastAccessTime < deadline) {
+                log.info("连接池空闲超时，关闭: {}/{}", key.dbUrl(), key.databaseName());
+                closePool(key, future);
+            }
+        });
+    }
+
+    /**
+     * 连接池数量超过上限时淘汰最久未使用的连接池，正在创建的连接池不参与淘汰
+     */
+    private void evictOverflow(PoolKey newKey) {
+        while (pools.size() > maxPools) {
+            Map.Entry<PoolKey, CompletableFuture<PoolEntry>> eldest = null;
+            long eldestAccessTime = Long.MAX_VALUE;
+            for (Map.Entry<PoolKey, CompletableFuture<PoolEntry>> e : pools.entrySet()) {
+                PoolEntry entry = completedEntry(e.getValue());
+                if (!e.getKey().equals(newKey) && entry != null && entry.lastAccessTime < eldestAccessTime) {
+                    eldest = e;
+                    eldestAccessTime = entry.lastAccessTime;
+                }
+            }
+            if (eldest == null) {
+                return;
+            }
+            log.info("连接池数量达到上限 {}，关闭最久未使用的连接池: {}/{}",
+                    maxPools, eldest.getKey().dbUrl(), eldest.getKey().databaseName());
+            closePool(eldest.getKey(), eldest.getValue());
+        }
+    }
+
+    /**
+     * 从注册表移除连接池，没有借出的连接时立即关闭，否则等连接归还后由后台线程关闭
+     */
+    private void closePool(PoolKey key, CompletableFuture<PoolEntry> future) {
+        PoolEntry entry = completedEntry(future);
+        if (entry != null && pools.remove(key, future)) {
+            retire(entry);
+        }
+    }
+
+    private void retire(PoolEntry entry) {
+        if (!closeIfUnused(entry.dataSource)) {
+            retiredPools.add(entry.dataSource);
+        }
+    }
+
+    private static boolean closeIfUnused(HikariDataSource dataSource) {
+        if (dataSource.isClosed()) {
+            return true;
+        }
+        if (dataSource.getHikariPoolMXBean() != null && dataSource.getHikariPoolMXBean().getActiveConnections() > 0) {
+            return false;
+        }
+        dataSource.close();
+        return true;
+    }
+
+    /**
+     * 构建JDBC连接URL，补齐时区、编码等必要参数
+     *
+     * @param dbUrl 数据库连接URL（不包含数据库名）
+     * @param databaseName 数据库名，为空时不拼接
+     * @return 完整的JDBC连接URL
+     */
+    public static String buildJdbcUrl(String dbUrl, String databaseName) {
+        String url = dbUrl;
+        // 添加数据库名
+        if (databaseName != null && !databaseName.isEmpty()) {
+            if (!url.endsWith("/")) {
+                url += "/";
+            }
+            url += databaseName;
+        }
+
+        // 确保时区参数正确设置，避免拼接错误
+        if (!url.contains("serverTimezone=")) {
+            url = appendParam(url, "serverTimezone=Asia/Shanghai");
+        } else {
+            // 如果已有时区参数，确保它是正确的
+            url = url.replaceAll("serverTimezone=[^&]*", "serverTimezone=Asia/Shanghai");
+        }
+        // 确保其他必要参数也存在
+        if (!url.contains("useUnicode=true")) {
+            url = appendParam(url, "useUnicode=true");
+        }
+        if (!url.contains("characterEncoding=utf8")) {
+            url = appendParam(url, "characterEncoding=utf8");
+        }
+        if (!url.contains("useSSL=false")) {
+            url = appendParam(url, "useSSL=false");
+        }
+        return url;
+    }
+
+    private static String appendParam(String url, String param) {
+        return url + (url.contains("?") ? "&" : "?") + param;
+    }
+
+    /**
+     * 连接池标识
+     */
+    private record PoolKey(String dbUrl, String username, String databaseName) {
+    }
+
+    /**
+     * 连接池及其最近访问时间
+     */
+    private static class PoolEntry {
+        private final HikariDataSource dataSource;
+        private final String password;
+        private volatile long lastAccessTime;
+
+        private PoolEntry(HikariDataSource dataSource, String password) {
+            this.dataSource = dataSource;
+            this.password = password;
+            this.lastAccessTime = System.currentTimeMillis();
+        }
+    }
+}
@@ -2,11 +2,13 @@ package com.tongysh.generator.service;
 
 import com.tongysh.generator.dto.DbConnectionRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 数据库服务
@@ -17,133 +19,115 @@ import java.util.List;
 @Service
 public class DatabaseService {
 
+    @Autowired
+    private ConnectionPoolRegistry connectionPoolRegistry;
+
+    @Autowired
+    private MetadataCache metadataCache;
+
+    @Autowired
+    private GenerationMetrics generationMetrics;
+
     /**
      * 获取数据库列表
      */
     public List<String> getDatabases(DbConnectionRequest request) throws Exception {
-        List<String> databases = new ArrayList<>();
-        
-        String url = request.getDbUrl();
-        // 确保时区参数正确设置，避免拼接错误
-        if (!url.contains("serverTimezone=")) {
-            if (url.contains("?")) {
-                url += "&serverTimezone=Asia/Shanghai";
-            } else {
-                url += "?serverTimezone=Asia/Shanghai";
-            }
-        } else {
-            // 如果已有时区参数，确保它是正确的
-            url = url.replaceAll("serverTimezone=[^&]*", "serverTimezone=Asia/Shanghai");
-        }
-        // 确保其他必要参数也存在
-        if (!url.contains("useUnicode=true")) {
-            if (url.contains("?")) {
-                url += "&useUnicode=true";
-            } else {
-                url += "?useUnicode=true";
-            }
-        }
-        if (!url.contains("characterEncoding=utf8")) {
-            if (url.contains("?")) {
-                url += "&characterEncoding=utf8";
-            } else {
-                url += "?characterEncoding=utf8";
-            }
-        }
-        if (!url.contains("useSSL=false")) {
-            if (url.contains("?")) {
-                url += "&useSSL=false";
-            } else {
-                url += "?useSSL=false";
-            }
+        String key = MetadataCache.key(request.getDbUrl(), request.getDbUsername(), request.getDbPassword(), "", "databases");
+        return metadataCache.get(key, () -> List.copyOf(loadDatabases(request)));
+    }
+
+    /**
+     * 获取指定数据库的表列表
+     */
+    public List<String> getTables(DbConnectionRequest request) throws Exception {
+        String key = MetadataCache.key(request.getDbUrl(), request.getDbUsername(), request.getDbPassword(),
+                request.getDatabaseName(), "tables");
+        return metadataCache.get(key, () -> List.copyOf(loadTables(request)));
+    }
+
+    /**
+     * 失效指定连接的元数据缓存，未指定数据库名时失效该连接下的全部缓存
+     *
+     * @return 失效的缓存项数量
+     */
+    public int invalidateCache(DbConnectionRequest request) {
+        String databaseName = request.getDatabaseName();
+        if (databaseName == null || databaseName.trim().isEmpty()) {
+            return metadataCache.invalidate(MetadataCache.key(request.getDbUrl(), request.getDbUsername(), request.getDbPassword()));
         }
+        return metadataCache.invalidate(MetadataCache.key(request.getDbUrl(), request.getDbUsername(), request.getDbPassword(), databaseName));
+    }
+
+    /**
+     * 元数据缓存统计信息
+     */
+    public Map<String, Object> getCacheStats() {
+        return metadataCache.stats();
+    }
+
+    /**
+     * 从数据库读取数据库列表
+     */
+    private List<String> loadDatabases(DbConnectionRequest request) throws Exception {
+        List<String> databases = new ArrayList<>();
         
-        try (Connection conn = DriverManager.getConnection(
-                url,
-                request.getDbUsername(),
-                request.getDbPassword())) {
-            
-            DatabaseMetaData metaData = conn.getMetaData();
-            ResultSet rs = metaData.getCatalogs();
+        try (Connection conn = openConnection(request, null, "databases")) {
             
-            while (rs.next()) {
-                String dbName = rs.getString("TABLE_CAT");
-                // 过滤系统数据库
-                if (!dbName.equals("information_schema") 
-                    && !dbName.equals("mysql") 
-                    && !dbName.equals("performance_schema") 
-                    && !dbName.equals("sys")) {
-                    databases.add(dbName);
+            generationMetrics.record(GenerationMetrics.PHASE_METADATA, "databases", () -> {
+                DatabaseMetaData metaData = conn.getMetaData();
+                ResultSet rs = metaData.getCatalogs();
+
+                while (rs.next()) {
+                    String dbName = rs.getString("TABLE_CAT");
+                    // 过滤系统数据库
+                    if (!dbName.equals("information_schema")
+                        && !dbName.equals("mysql")
+                        && !dbName.equals("performance_schema")
+                        && !dbName.equals("sys")) {
+                        databases.add(dbName);
+                    }
                 }
-            }
-            rs.close();
+                rs.close();
+                return databases;
+            });
         }
         
         return databases;
     }
 
     /**
-     * 获取指定数据库的表列表
+     * 从数据库读取指定数据库的表列表
      */
-    public List<String> getTables(DbConnectionRequest request) throws Exception {
+    private List<String> loadTables(DbConnectionRequest request) throws Exception {
         List<String> tables = new ArrayList<>();
         
-        String url = request.getDbUrl();
-        // 添加数据库名
-        if (!url.endsWith("/")) {
-            url += "/";
-        }
-        url += request.getDatabaseName();
-        
-        // 确保时区参数正确设置，避免拼接错误
-        if (!url.contains("serverTimezone=")) {
-            if (url.contains("?")) {
-                url += "&serverTimezone=Asia/Shanghai";
-            } else {
-                url += "?serverTimezone=Asia/Shanghai";
-            }
-        } else {
-            // 如果已有时区参数，确保它是正确的
-            url = url.replaceAll("serverTimezone=[^&]*", "serverTimezone=Asia/Shanghai");
-        }
-        // 确保其他必要参数也存在
-        if (!url.contains("useUnicode=true")) {
-            if (url.contains("?")) {
-                url += "&useUnicode=true";
-            } else {
-                url += "?useUnicode=true";
-            }
-        }
-        if (!url.contains("characterEncoding=utf8")) {
-            if (url.contains("?")) {
-                url += "&characterEncoding=utf8";
-            } else {
-                url += "?characterEncoding=utf8";
-            }
-        }
-        if (!url.contains("useSSL=false")) {
-            if (url.contains("?")) {
-                url += "&useSSL=false";
-            } else {
-                url += "?useSSL=false";
-            }
-        }
-        
-        try (Connection conn = DriverManager.getConnection(
-                url,
-                request.getDbUsername(),
-                request.getDbPassword())) {
-            
-            DatabaseMetaData metaData = conn.getMetaData();
-            ResultSet rs = metaData.getTables(request.getDatabaseName(), null, "%", new String[]{"TABLE"});
+        try (Connection conn = openConnection(request, request.getDatabaseName(), "tables")) {
             
-            while (rs.next()) {
-                String tableName = rs.getString("TABLE_NAME");
-                tables.add(tableName);
-            }
-            rs.close();
+            generationMetrics.record(GenerationMetrics.PHASE_METADATA, "tables", () -> {
+                DatabaseMetaData metaData = conn.getMetaData();
+                ResultSet rs = metaData.getTables(request.getDatabaseName(), null, "%", new String[]{"TABLE"});
+
+                while (rs.next()) {
+                    String tableName = rs.getString("TABLE_NAME");
+                    tables.add(tableName);
+                }
+                rs.close();
+                return tables;
+            });
         }
         
         return tables;
     }
+
+    /**
+     * 从连接池获取目标库连接，记录连接耗时
+     */
+    private Connection openConnection(DbConnectionRequest request, String databaseName, String endpoint) throws SQLException {
+        return generationMetrics.record(GenerationMetrics.PHASE_CONNECT, endpoint,
+                () -> connectionPoolRegistry.getConnection(
+                        request.getDbUrl(),
+                        request.getDbUsername(),
+                        request.getDbPassword(),
+                        databaseName));
+    }
 }
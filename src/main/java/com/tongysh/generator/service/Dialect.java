@@ -0,0 +1,36 @@
+package com.tongysh.generator.service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+
+/**
+ * 目标数据库方言
+ *
+ * @author tongysh
+ */
+public enum Dialect {
+
+    MYSQL,
+
+    POSTGRESQL,
+
+    H2;
+
+    /**
+     * 根据数据库产品名识别方言，无法识别时按MySQL处理
+     */
+    public static Dialect of(DatabaseMetaData metaData) throws SQLException {
+        String productName = metaData.getDatabaseProductName();
+        if (productName == null) {
+            return MYSQL;
+        }
+        String name = productName.toLowerCase();
+        if (name.contains("postgresql")) {
+            return POSTGRESQL;
+        }
+        if (name.equals("h2")) {
+            return H2;
+        }
+        return MYSQL;
+    }
+}
@@ -0,0 +1,45 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.GeneratorRequest;
+import lombok.Getter;
+
+/**
+ * 一次生成过程的上下文，在各阶段之间传递
+ *
+ * @author tongysh
+ */
+@Getter
+public class GenerationContext {
+
+    /**
+     * 发起生成的接口，用作指标标签
+     */
+    private final String endpoint;
+
+    /**
+     * 生成请求参数（包含各项生成选项）
+     */
+    private final GeneratorRequest request;
+
+    /**
+     * 进度监听器
+     */
+    private final GenerationListener listener;
+
+    public GenerationContext(String endpoint, GeneratorRequest request) {
+        this(endpoint, request, GenerationListener.NONE);
+    }
+
+    public GenerationContext(String endpoint, GeneratorRequest request, GenerationListener listener) {
+        this.endpoint = endpoint;
+        this.request = request;
+        this.listener = listener;
+    }
+
+    /**
+     * 生成过程是否已被取消
+     */
+    public boolean isCancelled() {
+        return listener.isCancelled();
+    }
+}
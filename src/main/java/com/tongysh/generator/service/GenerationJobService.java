@@ -0,0 +1,411 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.GeneratorRequest;
+import com.tongysh.generator.dto.JobStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 异步生成任务服务
+ * <p>
+ * 提交任务后立即返回任务ID，由固定数量的工作线程在后台生成zip包并写入临时文件，
+ * 生成进度通过SSE推送给订阅者，完成后可随时下载。
+ * 等待队列有上限，队列满时拒绝提交；已结束的任务超过保留时间后连同zip文件一起清理。
+ *
+ * @author tongysh
+ */
+@Slf4j
+@Service
+public class GenerationJobService {
+
+    private static final String ENDPOINT = "jobs";
+
+    private static final String EVENT_NAME = "progress";
+
+    @Value("${generator.jobs.workers:2}")
+    private int workers;
+
+    @Value("${generator.jobs.queue-capacity:20}")
+    private int queueCapacity;
+
+    @Value("${generator.jobs.retention-minutes:30}")
+    private long retentionMinutes;
+
+    @Autowired
+    private CodeGeneratorService codeGeneratorService;
+
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    private ThreadPoolExecutor executor;
+
+    private ScheduledExecutorService cleaner;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger sequence = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+                    Thread thread = new Thread(r, "generation-job-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        cleaner = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "generation-job-cleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        cleaner.scheduleWithFixedDelay(this::removeExpiredJobs, 1, 1, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        cleaner.shutdownNow();
+        jobs.values().forEach(Job::deleteFile);
+    }
+
+    /**
+     * 提交生成任务
+     *
+     * @param request 生成请求参数（单表生成时只需指定表名）
+     * @return 任务状态
+     * @throws IllegalStateException 等待队列已满
+     */
+    public JobStatus submit(GeneratorRequest request) {
+        Job job = new Job(UUID.randomUUID().toString().replace("-", ""), request);
+        jobs.put(job.jobId, job);
+        try {
+            job.future = executor.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.jobId);
+            throw new IllegalStateException("任务队列已满，请稍后重试");
+        }
+        log.info("已提交生成任务 {}，排队任务数: {}", job.jobId, executor.getQueue().size());
+        return job.snapshot();
+    }
+
+    /**
+     * 查询任务状态，任务不存在时返回null
+     */
+    public JobStatus getStatus(String jobId) {
+        Job job = jobs.get(jobId);
+        return job == null ? null : job.snapshot();
+    }
+
+    /**
+     * 订阅任务进度，订阅后立即推送一次当前状态，任务结束时推送最终状态并关闭连接
+     *
+     * @param jobId 任务ID
+     * @return SSE连接，任务不存在时返回null
+     */
+    public SseEmitter subscribe(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(TimeUnit.MINUTES.toMillis(retentionMinutes));
+        emitter.onCompletion(() -> job.emitters.remove(emitter));
+        emitter.onTimeout(() -> job.emitters.remove(emitter));
+        emitter.onError(e -> job.emitters.remove(emitter));
+        job.emitters.add(emitter);
+
+        JobStatus status = job.snapshot();
+        send(job, emitter, status);
+        if (status.getState().isFinished()) {
+            emitter.complete();
+        }
+        return emitter;
+    }
+
+    /**
+     * 获取已完成任务的zip文件，任务不存在或未完成时返回null
+     */
+    public Path getResultFile(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        synchronized (job) {
+            return job.state == JobStatus.State.COMPLETED ? job.file : null;
+        }
+    }
+
+    /**
+     * 获取任务的下载文件名
+     */
+    public String getFileName(String jobId) {
+        Job job = jobs.get(jobId);
+        String outputDir = job == null ? null : job.request.getOutputDir();
+        if (outputDir == null || outputDir.trim().isEmpty()) {
+            outputDir = "generated-code";
+        }
+        return outputDir + ".zip";
+    }
+
+    /**
+     * 取消任务。排队中的任务直接取消，运行中的任务在下一个检查点中止
+     *
+     * @param jobId 任务ID
+     * @return 任务状态，任务不存在时返回null
+     */
+    public JobStatus cancel(String jobId) {
+        Job job = jobs.get(jobId);
+        if (job == null) {
+            return null;
+        }
+        boolean queued;
+        synchronized (job) {
+            if (job.state.isFinished()) {
+                return job.snapshot();
+            }
+            job.cancelled = true;
+            queued = job.state == JobStatus.State.QUEUED;
+        }
+        if (job.future != null) {
+            job.future.cancel(true);
+        }
+        if (queued) {
+            // 排队中的任务不会再执行，直接结束
+            executor.remove((Runnable) job.future);
+            job.finish(JobStatus.State.CANCELLED, "任务已取消");
+        }
+        log.info("已取消生成任务 {}", jobId);
+        return job.snapshot();
+    }
+
+    /**
+     * 执行任务：解析表结构，渲染并写入临时zip文件
+     */
+    private void run(Job job) {
+        if (!job.start()) {
+            return;
+        }
+        Path file = null;
+        try {
+            GeneratorRequest request = job.request;
+            if ((request.getTableNames() == null || request.getTableNames().isEmpty())
+                    && (request.getTablePattern() == null || request.getTablePattern().trim().isEmpty())) {
+                request.setTableNames(List.of(request.getTableName().trim()));
+            }
+
+            GenerationContext context = new GenerationContext(ENDPOINT, request, job);
+            CodeGeneratorService.ZipWriter zipWriter = codeGeneratorService.prepareBatchZip(request, context);
+            file = Files.createTempFile("generator-job-", ".zip");
+            try (OutputStream out = Files.newOutputStream(file)) {
+                zipWriter.writeTo(out);
+            }
+            job.complete(file);
+        } catch (Exception e) {
+            deleteQuietly(file);
+            if (job.isCancelled()) {
+                job.finish(JobStatus.State.CANCELLED, "任务已取消");
+            } else {
+                log.error("生成任务 {} 失败", job.jobId, e);
+                job.finish(JobStatus.State.FAILED, "生成失败: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 清理超过保留时间的已结束任务
+     */
+    private void removeExpiredJobs() {
+        long deadline = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(retentionMinutes);
+        jobs.values().removeIf(job -> {
+            synchronized (job) {
+                if (!job.state.isFinished() || job.finishedAt >= deadline) {
+                    return false;
+                }
+            }
+            job.deleteFile();
+            log.info("已清理过期生成任务 {}", job.jobId);
+            return true;
+        });
+    }
+
+    /**
+     * 向所有订阅者推送任务状态，任务结束时关闭连接
+     */
+    private void publish(Job job) {
+        JobStatus status = job.snapshot();
+        for (SseEmitter emitter : job.emitters) {
+            send(job, emitter, status);
+            if (status.getState().isFinished()) {
+                emitter.complete();
+            }
+        }
+    }
+
+    private void send(Job job, SseEmitter emitter, JobStatus status) {
+        try {
+            emitter.send(SseEmitter.event().name(EVENT_NAME).data(status));
+        } catch (IOException | IllegalStateException e) {
+            // 客户端已断开
+            job.emitters.remove(emitter);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("删除临时文件失败: {}", file, e);
+        }
+    }
+
+    /**
+     * 任务，同时作为生成过程的进度监听器
+     */
+    private class Job implements GenerationListener {
+
+        private final String jobId;
+
+        private final GeneratorRequest request;
+
+        private final long submittedAt = System.currentTimeMillis();
+
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+
+        private volatile Future<?> future;
+
+        private volatile boolean cancelled;
+
+        private JobStatus.State state = JobStatus.State.QUEUED;
+
+        private int totalTables;
+
+        private int completedTables;
+
+        private int failedTables;
+
+        private String phase;
+
+        private String message;
+
+        private long finishedAt;
+
+        private Path file;
+
+        Job(String jobId, GeneratorRequest request) {
+            this.jobId = jobId;
+            this.request = request;
+        }
+
+        @Override
+        public void onTablesResolved(int totalTables) {
+            synchronized (this) {
+                this.totalTables = totalTables;
+            }
+            publish(this);
+        }
+
+        @Override
+        public void onPhase(String phase) {
+            synchronized (this) {
+                this.phase = phase;
+            }
+            publish(this);
+        }
+
+        @Override
+        public void onTableCompleted(String tableName, boolean success) {
+            synchronized (this) {
+                completedTables++;
+                if (!success) {
+                    failedTables++;
+                }
+            }
+            publish(this);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * 开始执行，已取消时返回false
+         */
+        boolean start() {
+            synchronized (this) {
+                if (state != JobStatus.State.QUEUED) {
+                    return false;
+                }
+                state = JobStatus.State.RUNNING;
+            }
+            publish(this);
+            return true;
+        }
+
+        void complete(Path file) {
+            String summary;
+            synchronized (this) {
+                this.file = file;
+                summary = failedTables == 0 ? "生成成功" : "部分表生成失败，详见 generation-report.txt";
+            }
+            finish(JobStatus.State.COMPLETED, summary);
+        }
+
+        void finish(JobStatus.State state, String message) {
+            synchronized (this) {
+                if (this.state.isFinished()) {
+                    return;
+                }
+                this.state = state;
+                this.message = message;
+                this.finishedAt = System.currentTimeMillis();
+            }
+            publish(this);
+        }
+
+        void deleteFile() {
+            Path toDelete;
+            synchronized (this) {
+                toDelete = file;
+                file = null;
+            }
+            deleteQuietly(toDelete);
+        }
+
+        synchronized JobStatus snapshot() {
+            JobStatus status = new JobStatus();
+            status.setJobId(jobId);
+            status.setState(state);
+            status.setTotalTables(totalTables);
+            status.setCompletedTables(completedTables);
+            status.setFailedTables(failedTables);
+            status.setPhase(phase);
+            status.setMessage(message);
+            status.setSubmittedAt(submittedAt);
+            status.setFinishedAt(finishedAt);
+            return status;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.tongysh.generator.service;
+
+/**
+ * 生成进度监听器（异步生成任务用于发布进度）
+ *
+ * @author tongysh
+ */
+public interface GenerationListener {
+
+    /**
+     * 不监听进度
+     */
+    GenerationListener NONE = new GenerationListener() {
+    };
+
+    /**
+     * 确定了需要生成的表
+     *
+     * @param totalTables 表总数
+     */
+    default void onTablesResolved(int totalTables) {
+    }
+
+    /**
+     * 进入新阶段
+     *
+     * @param phase 阶段名称，见 {@link GenerationMetrics} 中的 PHASE_* 常量
+     */
+    default void onPhase(String phase) {
+    }
+
+    /**
+     * 一张表处理完成（无论成功与否）
+     *
+     * @param tableName 表名
+     * @param success 是否成功
+     */
+    default void onTableCompleted(String tableName, boolean success) {
+    }
+
+    /**
+     * 是否已取消，取消后生成过程会尽快中止
+     */
+    default boolean isCancelled() {
+        return false;
+    }
+}
@@ -0,0 +1,139 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.GenerationStats;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 生成清单
+ * <p>
+ * 在输出目录中记录每个生成文件的内容哈希（SHA-256）。重新生成时内容没有变化的文件不再写入，
+ * 文件时间戳保持不变，IDE索引和下游构建只需处理真正变化的文件。
+ * 清单非线程安全，一次生成过程只在一个线程中使用。
+ *
+ * @author tongysh
+ */
+public class GenerationManifest {
+
+    /**
+     * 清单文件名
+     */
+    public static final String FILE_NAME = ".generator-manifest";
+
+    private final Path outputDir;
+
+    /**
+     * 文件路径（相对于输出目录）到内容哈希的映射，按路径排序便于对比
+     */
+    private final Map<String, String> hashes = new TreeMap<>();
+
+    private int added;
+
+    private int changed;
+
+    private int unchanged;
+
+    private GenerationManifest(Path outputDir) {
+        this.outputDir = outputDir;
+    }
+
+    /**
+     * 加载输出目录中的清单，不存在时返回空清单
+     *
+     * @param outputPath 输出目录
+     * @return 清单
+     */
+    public static GenerationManifest load(String outputPath) throws IOException {
+        GenerationManifest manifest = new GenerationManifest(Paths.get(outputPath));
+        Path file = manifest.outputDir.resolve(FILE_NAME);
+        if (Files.exists(file)) {
+            for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                int index = line.lastIndexOf('=');
+                if (index > 0 && !line.startsWith("#")) {
+                    manifest.hashes.put(line.substring(0, index), line.substring(index + 1));
+                }
+            }
+        }
+        return manifest;
+    }
+
+    /**
+     * 写入文件，内容未变化时跳过
+     *
+     * @param path 相对于输出目录的文件路径
+     * @param content 文件内容
+     * @return 实际写入的字节数，跳过时为0
+     */
+    public int write(String path, String content) throws IOException {
+        byte[] bytes = content.getBytes(StandardCharsets.UTF_8);
+        String hash = sha256(bytes);
+        Path file = outputDir.resolve(path);
+
+        if (!Files.exists(file)) {
+            added++;
+        } else if (isUnchanged(file, path, hash, bytes)) {
+            unchanged++;
+            hashes.put(path, hash);
+            return 0;
+        } else {
+            changed++;
+        }
+
+        Files.createDirectories(file.getParent());
+        Files.write(file, bytes);
+        hashes.put(path, hash);
+        return bytes.length;
+    }
+
+    /**
+     * 判断已有文件内容是否与新内容一致。
+     * 清单哈希一致且文件大小一致时直接认为未变化；清单中没有记录（如首次启用清单）时读取文件比较。
+     */
+    private boolean isUnchanged(Path file, String path, String hash, byte[] bytes) throws IOException {
+        if (hash.equals(hashes.get(path))) {
+            return Files.size(file) == bytes.length;
+        }
+        return Files.size(file) == bytes.length && Arrays.equals(Files.readAllBytes(file), bytes);
+    }
+
+    /**
+     * 保存清单
+     */
+    public void save() throws IOException {
+        Files.createDirectories(outputDir);
+        try (BufferedWriter writer = Files.newBufferedWriter(outputDir.resolve(FILE_NAME), StandardCharsets.UTF_8)) {
+            writer.write("# crud-generator 生成清单，请勿手动修改");
+            writer.newLine();
+            for (Map.Entry<String, String> entry : hashes.entrySet()) {
+                writer.write(entry.getKey() + "=" + entry.getValue());
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * 本次生成的统计
+     */
+    public GenerationStats getStats() {
+        return new GenerationStats(added, changed, unchanged);
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
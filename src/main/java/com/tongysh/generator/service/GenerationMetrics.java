@@ -0,0 +1,121 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.TableGenerationResult;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 代码生成指标
+ * <p>
+ * generator.phase：各阶段耗时，按 phase（connect/metadata/render/write/zip）、endpoint、template 打标签，
+ * 失败的阶段同样记录，outcome 为 success/failure，exception 为异常类名（成功时为 none）；
+ * generator.bytes.written：写出的字节数（写文件为实际写入的字节，zip为压缩后的字节）；
+ * generator.tables.processed：处理的表数，按 outcome（success/failure）区分。
+ * 通过 /actuator/metrics 查看。
+ *
+ * @author tongysh
+ */
+@Component
+public class GenerationMetrics {
+
+    public static final String PHASE_CONNECT = "connect";
+    public static final String PHASE_METADATA = "metadata";
+    public static final String PHASE_RENDER = "render";
+    public static final String PHASE_WRITE = "write";
+    public static final String PHASE_ZIP = "zip";
+
+    private static final String NO_TEMPLATE = "none";
+
+    private static final String NO_EXCEPTION = "none";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * 执行一个阶段并记录耗时，阶段抛出异常时同样记录（outcome=failure），异常原样抛出
+     *
+     * @param phase 阶段
+     * @param endpoint 调用入口
+     * @param action 阶段的执行内容
+     * @return 阶段的执行结果
+     */
+    public <T, E extends Exception> T record(String phase, String endpoint, ThrowingSupplier<T, E> action) throws E {
+        return record(phase, endpoint, NO_TEMPLATE, action);
+    }
+
+    /**
+     * 执行一个阶段并按模板记录耗时，阶段抛出异常时同样记录（outcome=failure），异常原样抛出
+     *
+     * @param phase 阶段
+     * @param endpoint 调用入口
+     * @param template 模板名
+     * @param action 阶段的执行内容
+     * @return 阶段的执行结果
+     */
+    public <T, E extends Exception> T record(String phase, String endpoint, String template,
+                                             ThrowingSupplier<T, E> action) throws E {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        Throwable error = null;
+        try {
+            return action.get();
+        } catch (Throwable e) {
+            error = e;
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("generator.phase")
+                    .description("代码生成各阶段耗时")
+                    .tag("phase", phase)
+                    .tag("endpoint", endpoint)
+                    .tag("template", template)
+                    .tag("outcome", error == null ? "success" : "failure")
+                    .tag("exception", error == null ? NO_EXCEPTION : error.getClass().getSimpleName())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * 记录写出的字节数
+     *
+     * @param target 输出目标：file 或 zip
+     */
+    public void bytesWritten(String endpoint, String target, long bytes) {
+        Counter.builder("generator.bytes.written")
+                .description("写出的字节数")
+                .baseUnit("bytes")
+                .tag("endpoint", endpoint)
+                .tag("target", target)
+                .register(meterRegistry)
+                .increment(bytes);
+    }
+
+    /**
+     * 记录处理的表数
+     */
+    public void tablesProcessed(String endpoint, List<TableGenerationResult> results) {
+        long succeeded = results.stream().filter(TableGenerationResult::isSuccess).count();
+        tablesCounter(endpoint, "success").increment(succeeded);
+        tablesCounter(endpoint, "failure").increment(results.size() - succeeded);
+    }
+
+    private Counter tablesCounter(String endpoint, String outcome) {
+        return Counter.builder("generator.tables.processed")
+                .description("处理的表数")
+                .tag("endpoint", endpoint)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * 可以抛出受检异常的阶段执行内容
+     */
+    @FunctionalInterface
+    public interface ThrowingSupplier<T, E extends Exception> {
+        T get() throws E;
+    }
+}
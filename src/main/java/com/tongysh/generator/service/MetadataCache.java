@@ -0,0 +1,194 @@
+package com.tongysh.generator.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 表结构元数据缓存
+ * <p>
+ * 缓存数据库列表、表列表以及解析后的表信息，按连接（dbUrl、用户名、密码、数据库名）隔离，缓存键中的凭据为摘要。
+ * 缓存项超过有效期后失效，缓存项数量超过上限时淘汰最久未访问的项。
+ * 表结构变更后可以通过失效接口主动清除。
+ *
+ * @author tongysh
+ */
+@Slf4j
+@Component
+public class MetadataCache {
+
+    @Value("${generator.metadata-cache.ttl-seconds:300}")
+    private long ttlSeconds;
+
+    @Value("${generator.metadata-cache.max-entries:2000}")
+    private int maxEntries;
+
+    /**
+     * 按访问顺序排列，便于淘汰最久未访问的项
+     */
+    private final LinkedHashMap<String, CacheEntry> entries = new LinkedHashMap<>(64, 0.75f, true);
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * 获取缓存值，未命中或已过期时调用加载器加载并放入缓存
+     *
+     * @param key 缓存键，由 {@link #key} 构建
+     * @param loader 加载器
+     * @return 缓存值
+     */
+    public <T> T get(String key, Loader<T> loader) throws Exception {
+        T value = getIfPresent(key);
+        if (value != null) {
+            return value;
+        }
+        // 在锁外加载，避免慢查询阻塞其他连接的缓存访问
+        value = loader.load();
+        put(key, value);
+        return value;
+    }
+
+    /**
+     * 获取缓存值，未命中或已过期时返回null
+     *
+     * @param key 缓存键
+     * @return 缓存值
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getIfPresent(String key) {
+        long now = System.currentTimeMillis();
+        synchronized (entries) {
+            CacheEntry entry = entries.get(key);
+            if (entry != null && entry.expireTime > now) {
+                hits.increment();
+                return (T) entry.value;
+            }
+            if (entry != null) {
+                entries.remove(key);
+                evictions.increment();
+            }
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * 放入缓存值
+     *
+     * @param key 缓存键
+     * @param value 缓存值
+     */
+    public void put(String key, Object value) {
+        long expireTime = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(ttlSeconds);
+        synchronized (entries) {
+            entries.put(key, new CacheEntry(value, expireTime));
+            Iterator<Map.Entry<String, CacheEntry>> iterator = entries.entrySet().iterator();
+            while (entries.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+    }
+
+    /**
+     * 失效指定前缀的缓存项
+     *
+     * @param prefix 缓存键前缀，由 {@link #key} 构建
+     * @return 失效的缓存项数量
+     */
+    public int invalidate(String prefix) {
+        int count = 0;
+        synchronized (entries) {
+            Iterator<String> iterator = entries.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().startsWith(prefix)) {
+                    iterator.remove();
+                    count++;
+                }
+            }
+        }
+        log.info("已失效 {} 个元数据缓存项", count);
+        return count;
+    }
+
+    /**
+     * 清空全部缓存
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    /**
+     * 缓存统计信息
+     */
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("ttlSeconds", ttlSeconds);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("evictions", evictions.sum());
+        stats.put("hitRate", total == 0 ? 0.0 : (double) hitCount / total);
+        return stats;
+    }
+
+    /**
+     * 构建缓存键：连接URL、用户名和密码的SHA-256摘要，以及其余各部分，以 | 分隔。
+     * 缓存键会长期保存在内存中，不包含明文密码。
+     * 只传入前几部分时得到的是前缀，可用于按连接或按数据库批量失效。
+     */
+    public static String key(String dbUrl, String username, String password, String... parts) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(dbUrl == null ? "" : dbUrl).append('|');
+        sb.append(credentialsDigest(username, password)).append('|');
+        for (String part : parts) {
+            sb.append(part == null ? "" : part).append('|');
+        }
+        return sb.toString();
+    }
+
+    private static String credentialsDigest(String username, String password) {
+        String credentials = (username == null ? "" : username) + '\0' + (password == null ? "" : password);
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256")
+                    .digest(credentials.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 缓存值加载器
+     */
+    @FunctionalInterface
+    public interface Loader<T> {
+        T load() throws Exception;
+    }
+
+    private record CacheEntry(Object value, long expireTime) {
+    }
+}
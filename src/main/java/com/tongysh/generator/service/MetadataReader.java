@@ -0,0 +1,357 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.ColumnInfo;
+import com.tongysh.generator.dto.TableInfo;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * 表结构读取器
+ * <p>
+ * MySQL（含MariaDB）通过一条 information_schema.COLUMNS 查询读取一张或多张表的列、可空、默认值、自增和注释，
+ * 再通过一条 STATISTICS 查询读取索引和主键（INDEX_NAME = 'PRIMARY'），批量生成时无论多少张表都只需要两次往返。
+ * 其他数据库退回到通用的 {@link DatabaseMetaData} 接口逐表读取。
+ * <p>
+ * 读取结果只包含数据库中的原始信息，Java类型、字段名等由调用方补充（见 {@link TypeMappingRegistry}）。
+ *
+ * @author tongysh
+ */
+@Slf4j
+@Component
+public class MetadataReader {
+
+    /**
+     * IN 列表中的表名数量上限，超过时改为查询整个库再按表名过滤
+     */
+    static final int MAX_IN_LIST = 1000;
+
+    private static final String MYSQL_COLUMNS_SQL =
+            "SELECT c.TABLE_NAME, c.COLUMN_NAME, c.DATA_TYPE, c.COLUMN_TYPE, c.IS_NULLABLE, c.COLUMN_DEFAULT,"
+                    + " c.EXTRA, c.COLUMN_COMMENT, c.CHARACTER_MAXIMUM_LENGTH, c.NUMERIC_PRECISION, c.NUMERIC_SCALE"
+                    + " FROM information_schema.COLUMNS c"
+                    + " WHERE c.TABLE_SCHEMA = ?";
+
+    private static final String PRIMARY_KEY_INDEX = "PRIMARY";
+
+    private static final String MYSQL_INDEXES_SQL =
+            "SELECT TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX, COLUMN_NAME, INDEX_TYPE"
+                    + " FROM information_schema.STATISTICS"
+                    + " WHERE TABLE_SCHEMA = ?";
+
+    /**
+     * 读取多张表的结构
+     *
+     * @param conn 目标库连接
+     * @param databaseName 数据库名
+     * @param tableNames 表名
+     * @return 传入的表名到表信息的映射，数据库中不存在的表不包含在结果中，表信息中的表名为数据库中的实际表名
+     */
+    public Map<String, TableInfo> readTables(Connection conn, String databaseName,
+                                             Collection<String> tableNames) throws SQLException {
+        if (tableNames.isEmpty()) {
+            return Map.of();
+        }
+        if (isMySql(conn.getMetaData())) {
+            return readFromInformationSchema(conn, databaseName, tableNames);
+        }
+        return readFromMetaData(conn.getMetaData(), conn.getCatalog(), tableNames);
+    }
+
+    private static boolean isMySql(DatabaseMetaData metaData) throws SQLException {
+        String productName = metaData.getDatabaseProductName();
+        return productName != null
+                && (productName.equalsIgnoreCase("MySQL") || productName.toLowerCase().contains("mariadb"));
+    }
+
+    /**
+     * 通过两条 information_schema 查询读取所有表的列、索引与主键。
+     * TABLE_NAME 直接与传入的表名比较，以便使用 information_schema 的表名索引，
+     * 是否区分大小写由服务器的 lower_case_table_names 决定，与服务器解析表名的规则一致；
+     * 查询结果按实际表名收集，最后映射回传入的表名
+     */
+    private Map<String, TableInfo> readFromInformationSchema(Connection conn, String databaseName,
+                                                             Collection<String> tableNames) throws SQLException {
+        Set<String> wanted = new LinkedHashSet<>(tableNames);
+        // 查询整个库时在结果中过滤表名，大小写规则交由 actualTableName 处理
+        Set<String> wantedIgnoreCase = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        wantedIgnoreCase.addAll(tableNames);
+        String sql = withTableFilter(MYSQL_COLUMNS_SQL, "c.TABLE_NAME", wanted)
+                + " ORDER BY c.TABLE_NAME, c.ORDINAL_POSITION";
+
+        Map<String, List<ColumnInfo>> columnsByTable = new LinkedHashMap<>();
+        try (PreparedStatement ps = prepareWithTables(conn, sql, databaseName, wanted)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString("TABLE_NAME");
+                    if (!wantedIgnoreCase.contains(tableName)) {
+                        continue;
+                    }
+                    String fullType = rs.getString("COLUMN_TYPE");
+                    String columnType = rs.getString("DATA_TYPE").toUpperCase();
+                    if (fullType != null && fullType.toLowerCase().contains("unsigned")) {
+                        columnType += " UNSIGNED";
+                    }
+                    String extra = rs.getString("EXTRA");
+
+                    ColumnInfo column = new ColumnInfo();
+                    column.setColumnName(rs.getString("COLUMN_NAME"));
+                    column.setColumnType(columnType);
+                    column.setFullColumnType(fullType);
+                    column.setComment(rs.getString("COLUMN_COMMENT") != null ? rs.getString("COLUMN_COMMENT") : "");
+                    column.setNullable("YES".equalsIgnoreCase(rs.getString("IS_NULLABLE")));
+                    column.setDefaultValue(rs.getString("COLUMN_DEFAULT"));
+                    column.setAutoIncrement(extra != null && extra.toLowerCase().contains("auto_increment"));
+                    long length = rs.getLong("CHARACTER_MAXIMUM_LENGTH");
+                    if (rs.wasNull()) {
+                        length = rs.getLong("NUMERIC_PRECISION");
+                    }
+                    column.setColumnSize(rs.wasNull() ? null : length);
+                    int scale = rs.getInt("NUMERIC_SCALE");
+                    column.setDecimalDigits(rs.wasNull() ? null : scale);
+                    columnsByTable.computeIfAbsent(tableName, k -> new ArrayList<>()).add(column);
+                }
+            }
+        }
+
+        // 表名 -> 索引名 -> 按顺序排列的索引列，主键为名为 PRIMARY 的索引
+        Map<String, Map<String, List<String>>> indexesByTable = new HashMap<>();
+        Set<String> fulltextIndexes = new HashSet<>();
+        String indexSql = withTableFilter(MYSQL_INDEXES_SQL, "TABLE_NAME", wanted)
+                + " ORDER BY TABLE_NAME, INDEX_NAME, SEQ_IN_INDEX";
+        try (PreparedStatement ps = prepareWithTables(conn, indexSql, databaseName, wanted)) {
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String tableName = rs.getString("TABLE_NAME");
+                    if (!wantedIgnoreCase.contains(tableName)) {
+                        continue;
+                    }
+                    String indexName = rs.getString("INDEX_NAME");
+                    indexesByTable.computeIfAbsent(tableName, k -> new LinkedHashMap<>())
+                            .computeIfAbsent(indexName, k -> new ArrayList<>())
+                            .add(rs.getString("COLUMN_NAME"));
+                    if ("FULLTEXT".equalsIgnoreCase(rs.getString("INDEX_TYPE"))) {
+                        fulltextIndexes.add(tableName + "." + indexName);
+                    }
+                }
+            }
+        }
+
+        Map<String, TableInfo> tableInfos = new LinkedHashMap<>();
+        for (String requestedName : tableNames) {
+            String tableName = actualTableName(columnsByTable.keySet(), requestedName);
+            if (tableName == null || tableInfos.containsKey(requestedName)) {
+                continue;
+            }
+            List<ColumnInfo> columns = columnsByTable.get(tableName);
+            Map<String, List<String>> indexes = indexesByTable.getOrDefault(tableName, Map.of());
+            indexes.forEach((indexName, indexColumns) -> markIndexed(columns, indexColumns,
+                    fulltextIndexes.contains(tableName + "." + indexName)));
+            List<ColumnInfo> primaryKeys = markPrimaryKeys(columns, indexes.getOrDefault(PRIMARY_KEY_INDEX, List.of()));
+            tableInfos.put(requestedName, newTableInfo(tableName, columns, primaryKeys));
+        }
+        log.debug("通过 information_schema 读取了 {} 张表的结构", tableInfos.size());
+        return tableInfos;
+    }
+
+    /**
+     * 传入的表名对应的实际表名：优先大小写完全一致的表（区分大小写的库中可能同时存在），否则取不区分大小写匹配的表
+     *
+     * @return 实际表名，不存在时返回null
+     */
+    static String actualTableName(Collection<String> actualNames, String requestedName) {
+        if (actualNames.contains(requestedName)) {
+            return requestedName;
+        }
+        for (String actualName : actualNames) {
+            if (actualName.equalsIgnoreCase(requestedName)) {
+                return actualName;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 追加表名条件：表名不超过 {@link #MAX_IN_LIST} 个时使用 IN 列表，否则查询整个库
+     */
+    private static String withTableFilter(String sql, String tableColumn, Set<String> wanted) {
+        if (wanted.size() > MAX_IN_LIST) {
+            return sql;
+        }
+        StringBuilder sb = new StringBuilder(sql).append(" AND ").append(tableColumn).append(" IN (");
+        for (int i = 0; i < wanted.size(); i++) {
+            sb.append(i == 0 ? "?" : ", ?");
+        }
+        return sb.append(')').toString();
+    }
+
+    private static PreparedStatement prepareWithTables(Connection conn, String sql, String databaseName,
+                                                       Set<String> wanted) throws SQLException {
+        PreparedStatement ps = conn.prepareStatement(sql);
+        try {
+            int index = 1;
+            ps.setString(index++, databaseName);
+            if (wanted.size() <= MAX_IN_LIST) {
+                for (String tableName : wanted) {
+                    ps.setString(index++, tableName);
+                }
+            }
+            return ps;
+        } catch (SQLException e) {
+            ps.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 标记索引列：索引的第一列可以单独使用索引过滤；只有单列全文索引才能用于该列的 MATCH ... AGAINST
+     */
+    private static void markIndexed(List<ColumnInfo> columns, List<String> indexColumns, boolean fulltext) {
+        for (ColumnInfo column : columns) {
+            if (!column.getColumnName().equalsIgnoreCase(indexColumns.get(0))) {
+                continue;
+            }
+            if (!fulltext) {
+                column.setIndexed(true);
+            } else if (indexColumns.size() == 1) {
+                column.setFulltextIndexed(true);
+            }
+        }
+    }
+
+    /**
+     * 按主键索引的列顺序标记主键列
+     *
+     * @return 按主键顺序排列的主键列
+     */
+    private static List<ColumnInfo> markPrimaryKeys(List<ColumnInfo> columns, List<String> keyColumns) {
+        List<ColumnInfo> primaryKeys = new ArrayList<>();
+        for (String keyColumn : keyColumns) {
+            for (ColumnInfo column : columns) {
+                if (column.getColumnName().equalsIgnoreCase(keyColumn)) {
+                    column.setPrimaryKey(true);
+                    primaryKeys.add(column);
+                    break;
+                }
+            }
+        }
+        return primaryKeys;
+    }
+
+    /**
+     * 把表名转义为 {@link DatabaseMetaData#getColumns} 的匹配模式，避免表名中的 _ 和 % 被当作通配符
+     *
+     * @param escape {@link DatabaseMetaData#getSearchStringEscape()}，为空时原样返回
+     */
+    static String searchPattern(String tableName, String escape) {
+        if (escape == null || escape.isEmpty()) {
+            return tableName;
+        }
+        StringBuilder sb = new StringBuilder(tableName.length() + 8);
+        for (int i = 0; i < tableName.length(); i++) {
+            char c = tableName.charAt(i);
+            if (c == '_' || c == '%' || tableName.startsWith(escape, i)) {
+                sb.append(escape);
+            }
+            sb.append(c);
+        }
+        return sb.toString();
+    }
+
+    /**
+     * 通过 {@link DatabaseMetaData} 逐表读取列与主键
+     *
+     * @param catalog 当前连接的目录（数据库），避免读到同一服务器上其他库中的同名表
+     */
+    private Map<String, TableInfo> readFromMetaData(DatabaseMetaData metaData, String catalog,
+                                                    Collection<String> tableNames) throws SQLException {
+        String escape = metaData.getSearchStringEscape();
+        Map<String, TableInfo> tableInfos = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            // 主键列及其在主键中的顺序
+            Map<String, Integer> keySeq = new LinkedHashMap<>();
+            try (ResultSet pkRs = metaData.getPrimaryKeys(catalog, null, tableName)) {
+                while (pkRs.next()) {
+                    keySeq.put(pkRs.getString("COLUMN_NAME"), pkRs.getInt("KEY_SEQ"));
+                }
+            }
+
+            List<ColumnInfo> columns = new ArrayList<>();
+            TreeMap<Integer, ColumnInfo> keys = new TreeMap<>();
+            try (ResultSet rs = metaData.getColumns(catalog, null, searchPattern(tableName, escape), null)) {
+                while (rs.next()) {
+                    String columnName = rs.getString("COLUMN_NAME");
+                    String remarks = rs.getString("REMARKS");
+
+                    ColumnInfo column = new ColumnInfo();
+                    column.setColumnName(columnName);
+                    column.setColumnType(rs.getString("TYPE_NAME"));
+                    column.setSqlTypeCode(rs.getInt("DATA_TYPE"));
+                    column.setFullColumnType(rs.getString("TYPE_NAME"));
+                    column.setComment(remarks != null ? remarks : "");
+                    column.setNullable(rs.getInt("NULLABLE") != DatabaseMetaData.columnNoNulls);
+                    column.setDefaultValue(rs.getString("COLUMN_DEF"));
+                    column.setAutoIncrement("YES".equalsIgnoreCase(rs.getString("IS_AUTOINCREMENT")));
+                    int size = rs.getInt("COLUMN_SIZE");
+                    column.setColumnSize(rs.wasNull() ? null : (long) size);
+                    int digits = rs.getInt("DECIMAL_DIGITS");
+                    column.setDecimalDigits(rs.wasNull() ? null : digits);
+                    column.setPrimaryKey(keySeq.containsKey(columnName));
+                    if (column.isPrimaryKey()) {
+                        keys.put(keySeq.get(columnName), column);
+                    }
+                    columns.add(column);
+                }
+            }
+
+            // 索引名 -> 按顺序排列的索引列（不含统计行）
+            Map<String, TreeMap<Integer, String>> indexes = new LinkedHashMap<>();
+            try (ResultSet indexRs = metaData.getIndexInfo(catalog, null, tableName, false, true)) {
+                while (indexRs.next()) {
+                    String indexName = indexRs.getString("INDEX_NAME");
+                    String columnName = indexRs.getString("COLUMN_NAME");
+                    if (indexName == null || columnName == null) {
+                        continue;
+                    }
+                    indexes.computeIfAbsent(indexName, k -> new TreeMap<>())
+                            .put((int) indexRs.getShort("ORDINAL_POSITION"), columnName);
+                }
+            }
+            indexes.values().forEach(indexColumns -> markIndexed(columns, new ArrayList<>(indexColumns.values()), false));
+
+            if (!columns.isEmpty()) {
+                tableInfos.put(tableName, newTableInfo(tableName, columns, new ArrayList<>(keys.values())));
+            }
+        }
+        return tableInfos;
+    }
+
+    private static TableInfo newTableInfo(String tableName, List<ColumnInfo> columns, List<ColumnInfo> primaryKeys) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setTableName(tableName);
+        tableInfo.setColumns(columns);
+        tableInfo.setPrimaryKeys(primaryKeys);
+        tableInfo.setPrimaryKey(primaryKeys.isEmpty() ? null : primaryKeys.get(0));
+        if (!primaryKeys.isEmpty()) {
+            // 主键的第一列总是有索引
+            primaryKeys.get(0).setIndexed(true);
+        }
+        return tableInfo;
+    }
+}
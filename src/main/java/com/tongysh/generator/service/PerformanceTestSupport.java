@@ -0,0 +1,240 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.ColumnInfo;
+import com.tongysh.generator.dto.TableInfo;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 生成性能测试所需的数据
+ * <p>
+ * 根据解析出的表结构生成内嵌H2（MySQL模式）的建表语句，并按列类型生成造数表达式。
+ * 建表语句按Java类型选择H2类型，与数据库原始类型无关，保证造出的数据一定能写入；
+ * 普通索引按单列重建，全文索引H2不支持，不会重建。
+ *
+ * @author tongysh
+ */
+final class PerformanceTestSupport {
+
+    /**
+     * 字符串列的默认造数长度（列长度未知时）
+     */
+    private static final int DEFAULT_TEXT_LENGTH = 16;
+
+    /**
+     * 普通列的最大造数长度
+     */
+    private static final int MAX_TEXT_LENGTH = 64;
+
+    /**
+     * 大字段的造数长度，体现大字段对读写的影响
+     */
+    private static final int LARGE_OBJECT_LENGTH = 1024;
+
+    /**
+     * H2 VARCHAR 的最大长度，超过时建为 CLOB
+     */
+    private static final long MAX_VARCHAR_LENGTH = 1_000_000_000L;
+
+    private PerformanceTestSupport() {
+    }
+
+    /**
+     * H2建表语句：先删除同名表，再建表和单列索引，分表时每张分表都建
+     */
+    static List<String> schemaStatements(TableInfo tableInfo) {
+        List<String> statements = new ArrayList<>();
+        if (tableInfo.isSharded()) {
+            for (int shard = 0; shard < tableInfo.getShardCount(); shard++) {
+                addTableStatements(statements, tableInfo, tableInfo.shardTableName(shard));
+            }
+        } else {
+            addTableStatements(statements, tableInfo, tableInfo.getTableName());
+        }
+        return statements;
+    }
+
+    private static void addTableStatements(List<String> statements, TableInfo tableInfo, String tableName) {
+        statements.add("DROP TABLE IF EXISTS " + tableName);
+
+        StringBuilder sb = new StringBuilder("CREATE TABLE ").append(tableName).append(" (");
+        for (ColumnInfo column : tableInfo.getColumns()) {
+            sb.append(column.getColumnName()).append(' ').append(h2Type(column));
+            // 无法造数的列建为可空，保证造数能够写入
+            if (column.isPrimaryKey() || (!column.isNullable()
+                    && (column.isAutoIncrement() || syntheticValue(column) != null))) {
+                sb.append(" NOT NULL");
+            }
+            if (column.isAutoIncrement()) {
+                sb.append(" AUTO_INCREMENT");
+            }
+            sb.append(", ");
+        }
+        sb.append("PRIMARY KEY (");
+        sb.append(String.join(", ", tableInfo.getPrimaryKeys().stream().map(ColumnInfo::getColumnName).toList()));
+        sb.append("))");
+        statements.add(sb.toString());
+
+        for (ColumnInfo column : tableInfo.getColumns()) {
+            if (column.isIndexed() && !column.isPrimaryKey() && !column.isLargeObject()) {
+                statements.add("CREATE INDEX idx_perf_" + tableName + "_" + column.getColumnName()
+                        + " ON " + tableName + " (" + column.getColumnName() + ")");
+            }
+        }
+    }
+
+    /**
+     * 插入列（自增列除外）的造数表达式，以字段名为键。
+     * 表达式中 i 为行序号（int，从0开始），text(i, length) 由生成的测试类提供；
+     * 无法造数的类型不在结果中（可为空的列保持null）
+     */
+    static Map<String, String> syntheticValues(TableInfo tableInfo) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (ColumnInfo column : tableInfo.getColumns()) {
+            if (column.isAutoIncrement()) {
+                continue;
+            }
+            String value = syntheticValue(column);
+            if (value != null) {
+                values.put(column.getJavaFieldName(), value);
+            }
+        }
+        return values;
+    }
+
+    /**
+     * 测试类需要的导入：列类型，加上造数表达式用到的时间类
+     */
+    static Set<String> imports(TableInfo tableInfo) {
+        Set<String> imports = new TreeSet<>();
+        for (ColumnInfo column : tableInfo.getColumns()) {
+            if (column.getJavaImport() != null) {
+                imports.add(column.getJavaImport());
+            }
+            if (column.getJavaType().startsWith("Offset")) {
+                imports.add("java.time.ZoneOffset");
+            }
+            if (column.getJavaType().equals("OffsetTime")) {
+                imports.add("java.time.LocalTime");
+            }
+        }
+        return imports;
+    }
+
+    private static String syntheticValue(ColumnInfo column) {
+        switch (column.getJavaType()) {
+            case "String":
+                return "text(i, " + textLength(column) + ")";
+            case "Integer":
+                return "i";
+            case "Long":
+                return "(long) i";
+            case "Short":
+                return column.isPrimaryKey() ? "(short) i" : "(short) (i % 10000)";
+            case "Byte":
+                return column.isPrimaryKey() ? "(byte) i" : "(byte) (i % 100)";
+            case "BigDecimal": {
+                int precision = column.getColumnSize() != null && column.getColumnSize() > 0
+                        ? (int) Math.min(column.getColumnSize(), 9) : 9;
+                int scale = column.getDecimalDigits() != null ? Math.min(column.getDecimalDigits(), precision) : 0;
+                return "BigDecimal.valueOf(i % " + pow10(precision) + "L, " + scale + ")";
+            }
+            case "BigInteger":
+                return "BigInteger.valueOf(i)";
+            case "Float":
+                return "i * 0.5f";
+            case "Double":
+                return "i * 0.5";
+            case "Boolean":
+                return "i % 2 == 0";
+            case "LocalDate":
+                return "LocalDate.of(2020, 1, 1).plusDays(i % 3650)";
+            case "LocalDateTime":
+                return "LocalDateTime.of(2020, 1, 1, 0, 0).plusSeconds(i)";
+            case "LocalTime":
+                return "LocalTime.ofSecondOfDay(i % 86400)";
+            case "OffsetDateTime":
+                return "OffsetDateTime.of(2020, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC).plusSeconds(i)";
+            case "OffsetTime":
+                return "OffsetTime.of(LocalTime.ofSecondOfDay(i % 86400), ZoneOffset.UTC)";
+            case "UUID":
+                return "new UUID(0L, i)";
+            case "byte[]":
+                return "new byte[" + textLength(column) + "]";
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * 字符串、二进制列的造数长度：不超过列长度，大字段使用较长的固定长度
+     */
+    private static int textLength(ColumnInfo column) {
+        if (column.isLargeObject()) {
+            return LARGE_OBJECT_LENGTH;
+        }
+        if (column.getColumnSize() == null || column.getColumnSize() <= 0) {
+            return DEFAULT_TEXT_LENGTH;
+        }
+        return (int) Math.min(column.getColumnSize(), MAX_TEXT_LENGTH);
+    }
+
+    private static String h2Type(ColumnInfo column) {
+        Long size = column.getColumnSize() != null && column.getColumnSize() > 0 ? column.getColumnSize() : null;
+        switch (column.getJavaType()) {
+            case "String":
+                return column.isLargeObject() || (size != null && size > MAX_VARCHAR_LENGTH)
+                        ? "CLOB" : "VARCHAR(" + (size != null ? size : 255) + ")";
+            case "Integer":
+                return "INT";
+            case "Long":
+                return "BIGINT";
+            case "Short":
+                return "SMALLINT";
+            case "Byte":
+                return "TINYINT";
+            case "Boolean":
+                return "BOOLEAN";
+            case "BigDecimal": {
+                int precision = size != null ? (int) Math.min(size, 100) : 19;
+                int scale = column.getDecimalDigits() != null ? Math.min(column.getDecimalDigits(), precision) : 0;
+                return "DECIMAL(" + precision + ", " + scale + ")";
+            }
+            case "BigInteger":
+                return "DECIMAL(65, 0)";
+            case "Float":
+                return "REAL";
+            case "Double":
+                return "DOUBLE PRECISION";
+            case "LocalDate":
+                return "DATE";
+            case "LocalDateTime":
+                return "TIMESTAMP";
+            case "LocalTime":
+                return "TIME";
+            case "OffsetDateTime":
+                return "TIMESTAMP WITH TIME ZONE";
+            case "OffsetTime":
+                return "TIME WITH TIME ZONE";
+            case "UUID":
+                return "UUID";
+            case "byte[]":
+                return column.isLargeObject() ? "BLOB" : "VARBINARY(" + (size != null ? size : 255) + ")";
+            default:
+                return "VARCHAR(255)";
+        }
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+}
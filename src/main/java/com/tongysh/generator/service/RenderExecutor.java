@@ -0,0 +1,96 @@
+package com.tongysh.generator.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 模板渲染线程池
+ * <p>
+ * 所有生成请求共用，同时执行的渲染任务数不超过并行度（默认CPU核数）。
+ * 运行在支持虚拟线程的JDK（21+）上时使用虚拟线程，否则使用固定大小的平台线程池。
+ *
+ * @author tongysh
+ */
+@Slf4j
+@Component
+public class RenderExecutor {
+
+    @Value("${generator.render.parallelism:0}")
+    private int parallelism;
+
+    private ExecutorService executor;
+
+    /**
+     * 虚拟线程不限数量，用信号量限制同时渲染的任务数
+     */
+    private Semaphore permits;
+
+    @PostConstruct
+    public void init() {
+        if (parallelism <= 0) {
+            parallelism = Runtime.getRuntime().availableProcessors();
+        }
+        permits = new Semaphore(parallelism);
+
+        ExecutorService virtualExecutor = newVirtualThreadExecutor();
+        if (virtualExecutor != null) {
+            executor = virtualExecutor;
+            log.info("模板渲染使用虚拟线程，并行度: {}", parallelism);
+        } else {
+            AtomicInteger sequence = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(parallelism, r -> {
+                Thread thread = new Thread(r, "template-render-" + sequence.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+            log.info("模板渲染使用平台线程池，并行度: {}", parallelism);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交渲染任务
+     */
+    public <T> Future<T> submit(Callable<T> task) {
+        return executor.submit(() -> {
+            permits.acquire();
+            try {
+                return task.call();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    /**
+     * 并行度
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * 通过反射创建虚拟线程执行器，JDK不支持时返回null
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
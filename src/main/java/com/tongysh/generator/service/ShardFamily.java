@@ -0,0 +1,81 @@
+package com.tongysh.generator.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 分表族：按数字后缀拆分的一组物理表（如 order_0 ~ order_63），生成为一张逻辑表
+ * <p>
+ * 同一前缀的表至少两张、后缀恰好为 0 ~ n-1 时识别为分表族。后缀可以补零到相同宽度（如 order_00 ~ order_63）；
+ * 与前缀同名的表存在时不识别，避免与该表的生成代码冲突。
+ *
+ * @param logicalName 逻辑表名（去掉后缀的前缀）
+ * @param firstTable 第一张分表的表名，读取它的表结构作为逻辑表的结构
+ * @param shardCount 分表数量
+ * @param suffixWidth 后缀补零的宽度，不补零时为0
+ * @author tongysh
+ */
+record ShardFamily(String logicalName, String firstTable, int shardCount, int suffixWidth) {
+
+    private static final Pattern SHARD_TABLE = Pattern.compile("(.+)_(\\d{1,6})");
+
+    /**
+     * 识别表名中的分表族
+     *
+     * @return 逻辑表名到分表族的映射
+     */
+    static Map<String, ShardFamily> detect(List<String> tableNames) {
+        Set<String> names = new HashSet<>();
+        tableNames.forEach(tableName -> names.add(tableName.toLowerCase()));
+        Map<String, Map<String, String>> suffixesByPrefix = new LinkedHashMap<>();
+        for (String tableName : tableNames) {
+            Matcher matcher = SHARD_TABLE.matcher(tableName);
+            if (matcher.matches()) {
+                suffixesByPrefix.computeIfAbsent(matcher.group(1), prefix -> new HashMap<>())
+                        .put(matcher.group(2), tableName);
+            }
+        }
+
+        Map<String, ShardFamily> families = new LinkedHashMap<>();
+        suffixesByPrefix.forEach((prefix, tables) -> {
+            if (tables.size() < 2 || names.contains(prefix.toLowerCase())) {
+                return;
+            }
+            boolean padded = tables.keySet().stream().anyMatch(suffix -> suffix.length() > 1 && suffix.startsWith("0"));
+            int width = padded ? tables.keySet().iterator().next().length() : 0;
+            for (int shard = 0; shard < tables.size(); shard++) {
+                String suffix = padded ? String.format("%0" + width + "d", shard) : String.valueOf(shard);
+                if (!tables.containsKey(suffix)) {
+                    return;
+                }
+            }
+            String firstTable = tables.get(padded ? String.format("%0" + width + "d", 0) : "0");
+            families.put(prefix, new ShardFamily(prefix, firstTable, tables.size(), width));
+        });
+        return families;
+    }
+
+    /**
+     * 把分表族的物理表替换为逻辑表名（在第一张分表出现的位置），其余表名不变
+     */
+    static List<String> collapse(List<String> tableNames, Map<String, ShardFamily> families) {
+        Set<String> collapsed = new LinkedHashSet<>();
+        for (String tableName : tableNames) {
+            Matcher matcher = SHARD_TABLE.matcher(tableName);
+            if (matcher.matches() && families.containsKey(matcher.group(1))) {
+                collapsed.add(matcher.group(1));
+            } else {
+                collapsed.add(tableName);
+            }
+        }
+        return new ArrayList<>(collapsed);
+    }
+}
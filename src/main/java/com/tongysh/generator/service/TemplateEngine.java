@@ -0,0 +1,130 @@
+package com.tongysh.generator.service;
+
+import freemarker.cache.FileTemplateLoader;
+import freemarker.cache.StrongCacheStorage;
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateExceptionHandler;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.File;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 模板引擎
+ * <p>
+ * 全局共享一个FreeMarker {@link Configuration}，启动时预先解析所有内置模板，
+ * 生成代码时直接复用已解析的 {@link Template}，避免每个文件都重新加载和解析模板。
+ * Configuration 与 Template 在配置完成后都是线程安全的，可以被并发请求共享。
+ * <p>
+ * 开启开发模式（generator.template.dev-mode=true）后改为从磁盘目录加载模板，
+ * 模板文件修改后会在下次生成时自动重新加载，便于调试模板。
+ *
+ * @author tongysh
+ */
+@Slf4j
+@Component
+public class TemplateEngine {
+
+    /**
+     * 内置模板列表
+     */
+    public static final List<String> TEMPLATE_NAMES = List.of(
+            "entity.ftl",
+            "mapper.ftl",
+            "mapper-xml.ftl",
+            "service.ftl",
+            "service-impl.ftl",
+            "controller.ftl",
+            "config/virtual-thread-config.ftl",
+            "config/metrics-config.ftl",
+            "config/mapper-metrics-interceptor.ftl",
+            "config/read-write-routing-config.ftl",
+            "config/application-rw-local.ftl",
+            "config/h2-schema.ftl",
+            "shard/shard-context.ftl",
+            "shard/service-impl.ftl",
+            "reactive/repository.ftl",
+            "reactive/service.ftl",
+            "reactive/service-impl.ftl",
+            "reactive/controller.ftl",
+            "test/perf-test.ftl"
+    );
+
+    @Value("${generator.template.dev-mode:false}")
+    private boolean devMode;
+
+    @Value("${generator.template.dev-path:src/main/resources/templates}")
+    private String devPath;
+
+    private Configuration configuration;
+
+    @PostConstruct
+    public void init() throws Exception {
+        Configuration cfg = new Configuration(Configuration.VERSION_2_3_33);
+        cfg.setDefaultEncoding(StandardCharsets.UTF_8.name());
+        cfg.setTemplateExceptionHandler(TemplateExceptionHandler.RETHROW_HANDLER);
+        cfg.setLogTemplateExceptions(false);
+
+        File devDir = devMode ? new File(devPath) : null;
+        if (devDir != null && devDir.isDirectory()) {
+            // 开发模式：从磁盘加载，每次获取模板时检查文件是否更新
+            cfg.setTemplateLoader(new FileTemplateLoader(devDir));
+            cfg.setTemplateUpdateDelayMilliseconds(0);
+            log.info("模板引擎已启用开发模式，模板目录: {}", devDir.getAbsolutePath());
+        } else {
+            if (devDir != null) {
+                log.warn("模板目录不存在: {}，开发模式不生效", devDir.getAbsolutePath());
+            }
+            // 生产模式：类路径中的模板不会变化，永久缓存且不再检查更新
+            cfg.setClassForTemplateLoading(this.getClass(), "/templates");
+            cfg.setCacheStorage(new StrongCacheStorage());
+            cfg.setTemplateUpdateDelayMilliseconds(Long.MAX_VALUE);
+        }
+        this.configuration = cfg;
+
+        // 预先解析所有模板，放入缓存
+        for (String templateName : TEMPLATE_NAMES) {
+            cfg.getTemplate(templateName);
+        }
+        log.info("已预加载 {} 个代码模板", TEMPLATE_NAMES.size());
+    }
+
+    /**
+     * 获取模板（命中缓存时不会重新解析）
+     */
+    public Template getTemplate(String templateName) throws Exception {
+        return configuration.getTemplate(templateName);
+    }
+
+    /**
+     * 渲染模板到输出流
+     *
+     * @param templateName 模板名称
+     * @param dataModel 数据模型
+     * @param writer 输出
+     */
+    public void render(String templateName, Map<String, Object> dataModel, Writer writer) throws Exception {
+        getTemplate(templateName).process(dataModel, writer);
+    }
+
+    /**
+     * 渲染模板到字符串
+     *
+     * @param templateName 模板名称
+     * @param dataModel 数据模型
+     * @return 渲染结果
+     */
+    public String renderToString(String templateName, Map<String, Object> dataModel) throws Exception {
+        StringWriter stringWriter = new StringWriter();
+        render(templateName, dataModel, stringWriter);
+        return stringWriter.toString();
+    }
+}
@@ -0,0 +1,328 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.ColumnInfo;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.JDBCType;
+import java.sql.Types;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SQL类型映射表
+ * <p>
+ * 启动时按方言（MySQL、PostgreSQL、H2）构建“类型名 → Java类型/JDBC类型”的映射表，
+ * 另有一张按 {@link Types} 类型码的通用映射表，查找都是一次哈希查找。查找顺序：
+ * <ol>
+ *     <li>用户覆盖（generator.type-mapping.overrides），先按完整类型（如 tinyint(1)）再按类型名</li>
+ *     <li>方言映射表，先按完整类型再按类型名</li>
+ *     <li>JDBC类型码</li>
+ *     <li>都找不到时映射为 Object / OTHER</li>
+ * </ol>
+ *
+ * @author tongysh
+ */
+@Slf4j
+@Component
+public class TypeMappingRegistry {
+
+    /**
+     * 无法识别的类型
+     */
+    public static final TypeMapping UNKNOWN = new TypeMapping("Object", null, "OTHER");
+
+    /**
+     * 用户覆盖，格式：类型名=Java类型:JDBC类型，多项以逗号分隔，
+     * 如 json=String:LONGVARCHAR,tinyint(1)=Integer:TINYINT。Java类型可以写全限定名
+     */
+    @Value("${generator.type-mapping.overrides:}")
+    private String overrides;
+
+    private final Map<Dialect, Map<String, TypeMapping>> dialectMappings = new EnumMap<>(Dialect.class);
+
+    private final Map<Integer, TypeMapping> jdbcCodeMappings = new HashMap<>();
+
+    private final Map<String, TypeMapping> overrideMappings = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        dialectMappings.put(Dialect.MYSQL, mysqlMappings());
+        dialectMappings.put(Dialect.POSTGRESQL, postgresqlMappings());
+        dialectMappings.put(Dialect.H2, h2Mappings());
+        initJdbcCodeMappings();
+        parseOverrides();
+    }
+
+    /**
+     * 映射列类型
+     *
+     * @param dialect 方言
+     * @param column 列信息（使用 columnType、fullColumnType、sqlTypeCode）
+     * @return 类型映射，不会为null
+     */
+    public TypeMapping resolve(Dialect dialect, ColumnInfo column) {
+        String fullType = normalize(column.getFullColumnType());
+        String typeName = normalize(column.getColumnType());
+
+        TypeMapping mapping = lookup(overrideMappings, fullType, typeName);
+        if (mapping == null) {
+            mapping = lookup(dialectMappings.get(dialect), fullType, typeName);
+        }
+        if (mapping == null && column.getSqlTypeCode() != null) {
+            mapping = jdbcCodeMappings.get(column.getSqlTypeCode());
+        }
+        return mapping != null ? mapping : UNKNOWN;
+    }
+
+    /**
+     * 按类型名映射
+     *
+     * @param dialect 方言
+     * @param typeName 类型名，可带长度（如 tinyint(1)）
+     * @return 类型映射，不会为null
+     */
+    public TypeMapping resolve(Dialect dialect, String typeName) {
+        ColumnInfo column = new ColumnInfo();
+        column.setColumnType(typeName);
+        column.setFullColumnType(typeName);
+        return resolve(dialect, column);
+    }
+
+    private static TypeMapping lookup(Map<String, TypeMapping> mappings, String fullType, String typeName) {
+        TypeMapping mapping = fullType != null ? mappings.get(fullType) : null;
+        if (mapping == null && typeName != null) {
+            mapping = mappings.get(typeName);
+            if (mapping == null) {
+                // 类型名本身带长度时（如 DatabaseMetaData 返回的 TYPE_NAME 较少见的写法）去掉长度再查
+                int paren = typeName.indexOf('(');
+                if (paren > 0) {
+                    mapping = mappings.get(typeName.substring(0, paren).trim());
+                }
+            }
+        }
+        return mapping;
+    }
+
+    /**
+     * 统一为小写，去掉 zerofill 和多余空白
+     */
+    private static String normalize(String type) {
+        if (type == null || type.isEmpty()) {
+            return null;
+        }
+        String normalized = type.toLowerCase().replace(" zerofill", "").trim();
+        return normalized.replaceAll("\\s+", " ");
+    }
+
+    private static Map<String, TypeMapping> mysqlMappings() {
+        Map<String, TypeMapping> m = new HashMap<>();
+        // tinyint(1) 约定为布尔值，与 Connector/J 的 tinyInt1isBit 默认行为一致
+        m.put("tinyint(1)", of("Boolean", "BIT"));
+        m.put("bit(1)", of("Boolean", "BIT"));
+        // 只有 bit(1) 是布尔值，其他宽度的位字段由 Connector/J 读为 byte[]（information_schema 中不带宽度的 BIT 显示为 bit(1)）
+        m.put("bit", of("byte[]", "BINARY"));
+        m.put("bool", of("Boolean", "BIT"));
+        m.put("boolean", of("Boolean", "BIT"));
+        m.put("tinyint", of("Byte", "TINYINT"));
+        m.put("tinyint unsigned", of("Short", "SMALLINT"));
+        m.put("smallint", of("Short", "SMALLINT"));
+        m.put("smallint unsigned", of("Integer", "INTEGER"));
+        m.put("mediumint", of("Integer", "INTEGER"));
+        m.put("mediumint unsigned", of("Integer", "INTEGER"));
+        m.put("int", of("Integer", "INTEGER"));
+        m.put("integer", of("Integer", "INTEGER"));
+        m.put("int unsigned", of("Long", "BIGINT"));
+        m.put("integer unsigned", of("Long", "BIGINT"));
+        m.put("bigint", of("Long", "BIGINT"));
+        m.put("bigint unsigned", of("java.math.BigInteger", "BIGINT"));
+        m.put("float", of("Float", "REAL"));
+        m.put("float unsigned", of("Float", "REAL"));
+        m.put("double", of("Double", "DOUBLE"));
+        m.put("double unsigned", of("Double", "DOUBLE"));
+        m.put("decimal", of("java.math.BigDecimal", "DECIMAL"));
+        m.put("decimal unsigned", of("java.math.BigDecimal", "DECIMAL"));
+        m.put("numeric", of("java.math.BigDecimal", "DECIMAL"));
+        m.put("char", of("String", "CHAR"));
+        m.put("varchar", of("String", "VARCHAR"));
+        m.put("tinytext", of("String", "VARCHAR"));
+        m.put("text", of("String", "LONGVARCHAR"));
+        m.put("mediumtext", of("String", "LONGVARCHAR"));
+        m.put("longtext", of("String", "LONGVARCHAR"));
+        m.put("json", of("String", "LONGVARCHAR"));
+        m.put("enum", of("String", "CHAR"));
+        m.put("set", of("String", "CHAR"));
+        m.put("date", of("java.time.LocalDate", "DATE"));
+        m.put("datetime", of("java.time.LocalDateTime", "TIMESTAMP"));
+        m.put("timestamp", of("java.time.LocalDateTime", "TIMESTAMP"));
+        m.put("time", of("java.time.LocalTime", "TIME"));
+        m.put("year", of("Integer", "INTEGER"));
+        m.put("binary", of("byte[]", "BINARY"));
+        m.put("varbinary", of("byte[]", "VARBINARY"));
+        m.put("tinyblob", of("byte[]", "VARBINARY"));
+        m.put("blob", of("byte[]", "LONGVARBINARY"));
+        m.put("mediumblob", of("byte[]", "LONGVARBINARY"));
+        m.put("longblob", of("byte[]", "LONGVARBINARY"));
+        return m;
+    }
+
+    private static Map<String, TypeMapping> postgresqlMappings() {
+        Map<String, TypeMapping> m = new HashMap<>();
+        m.put("bool", of("Boolean", "BOOLEAN"));
+        m.put("boolean", of("Boolean", "BOOLEAN"));
+        m.put("int2", of("Short", "SMALLINT"));
+        m.put("smallint", of("Short", "SMALLINT"));
+        m.put("smallserial", of("Short", "SMALLINT"));
+        m.put("int4", of("Integer", "INTEGER"));
+        m.put("int", of("Integer", "INTEGER"));
+        m.put("integer", of("Integer", "INTEGER"));
+        m.put("serial", of("Integer", "INTEGER"));
+        m.put("int8", of("Long", "BIGINT"));
+        m.put("bigint", of("Long", "BIGINT"));
+        m.put("bigserial", of("Long", "BIGINT"));
+        m.put("float4", of("Float", "REAL"));
+        m.put("real", of("Float", "REAL"));
+        m.put("float8", of("Double", "DOUBLE"));
+        m.put("double precision", of("Double", "DOUBLE"));
+        m.put("numeric", of("java.math.BigDecimal", "NUMERIC"));
+        m.put("decimal", of("java.math.BigDecimal", "NUMERIC"));
+        m.put("money", of("java.math.BigDecimal", "NUMERIC"));
+        m.put("bpchar", of("String", "CHAR"));
+        m.put("char", of("String", "CHAR"));
+        m.put("character", of("String", "CHAR"));
+        m.put("varchar", of("String", "VARCHAR"));
+        m.put("character varying", of("String", "VARCHAR"));
+        m.put("text", of("String", "VARCHAR"));
+        m.put("json", of("String", "OTHER"));
+        m.put("jsonb", of("String", "OTHER"));
+        m.put("uuid", of("java.util.UUID", "OTHER"));
+        m.put("date", of("java.time.LocalDate", "DATE"));
+        m.put("time", of("java.time.LocalTime", "TIME"));
+        m.put("time without time zone", of("java.time.LocalTime", "TIME"));
+        m.put("timetz", of("java.time.OffsetTime", "TIME_WITH_TIMEZONE"));
+        m.put("time with time zone", of("java.time.OffsetTime", "TIME_WITH_TIMEZONE"));
+        m.put("timestamp", of("java.time.LocalDateTime", "TIMESTAMP"));
+        m.put("timestamp without time zone", of("java.time.LocalDateTime", "TIMESTAMP"));
+        m.put("timestamptz", of("java.time.OffsetDateTime", "TIMESTAMP_WITH_TIMEZONE"));
+        m.put("timestamp with time zone", of("java.time.OffsetDateTime", "TIMESTAMP_WITH_TIMEZONE"));
+        m.put("bytea", of("byte[]", "BINARY"));
+        return m;
+    }
+
+    private static Map<String, TypeMapping> h2Mappings() {
+        Map<String, TypeMapping> m = new HashMap<>();
+        m.put("boolean", of("Boolean", "BOOLEAN"));
+        m.put("tinyint", of("Byte", "TINYINT"));
+        m.put("smallint", of("Short", "SMALLINT"));
+        m.put("int", of("Integer", "INTEGER"));
+        m.put("integer", of("Integer", "INTEGER"));
+        m.put("bigint", of("Long", "BIGINT"));
+        m.put("real", of("Float", "REAL"));
+        m.put("float", of("Double", "DOUBLE"));
+        m.put("double", of("Double", "DOUBLE"));
+        m.put("double precision", of("Double", "DOUBLE"));
+        m.put("decimal", of("java.math.BigDecimal", "DECIMAL"));
+        m.put("numeric", of("java.math.BigDecimal", "NUMERIC"));
+        m.put("char", of("String", "CHAR"));
+        m.put("character", of("String", "CHAR"));
+        m.put("varchar", of("String", "VARCHAR"));
+        m.put("character varying", of("String", "VARCHAR"));
+        m.put("varchar_ignorecase", of("String", "VARCHAR"));
+        m.put("clob", of("String", "CLOB"));
+        m.put("character large object", of("String", "CLOB"));
+        m.put("json", of("String", "VARCHAR"));
+        m.put("uuid", of("java.util.UUID", "OTHER"));
+        m.put("date", of("java.time.LocalDate", "DATE"));
+        m.put("time", of("java.time.LocalTime", "TIME"));
+        m.put("time with time zone", of("java.time.OffsetTime", "TIME_WITH_TIMEZONE"));
+        m.put("timestamp", of("java.time.LocalDateTime", "TIMESTAMP"));
+        m.put("timestamp with time zone", of("java.time.OffsetDateTime", "TIMESTAMP_WITH_TIMEZONE"));
+        m.put("binary", of("byte[]", "BINARY"));
+        m.put("varbinary", of("byte[]", "VARBINARY"));
+        m.put("binary varying", of("byte[]", "VARBINARY"));
+        m.put("blob", of("byte[]", "BLOB"));
+        m.put("binary large object", of("byte[]", "BLOB"));
+        return m;
+    }
+
+    private void initJdbcCodeMappings() {
+        putCode(Types.BIT, "Boolean");
+        putCode(Types.BOOLEAN, "Boolean");
+        putCode(Types.TINYINT, "Byte");
+        putCode(Types.SMALLINT, "Short");
+        putCode(Types.INTEGER, "Integer");
+        putCode(Types.BIGINT, "Long");
+        putCode(Types.REAL, "Float");
+        putCode(Types.FLOAT, "Double");
+        putCode(Types.DOUBLE, "Double");
+        putCode(Types.NUMERIC, "java.math.BigDecimal");
+        putCode(Types.DECIMAL, "java.math.BigDecimal");
+        putCode(Types.CHAR, "String");
+        putCode(Types.NCHAR, "String");
+        putCode(Types.VARCHAR, "String");
+        putCode(Types.NVARCHAR, "String");
+        putCode(Types.LONGVARCHAR, "String");
+        putCode(Types.LONGNVARCHAR, "String");
+        putCode(Types.CLOB, "String");
+        putCode(Types.NCLOB, "String");
+        putCode(Types.DATE, "java.time.LocalDate");
+        putCode(Types.TIME, "java.time.LocalTime");
+        putCode(Types.TIMESTAMP, "java.time.LocalDateTime");
+        putCode(Types.TIME_WITH_TIMEZONE, "java.time.OffsetTime");
+        putCode(Types.TIMESTAMP_WITH_TIMEZONE, "java.time.OffsetDateTime");
+        putCode(Types.BINARY, "byte[]");
+        putCode(Types.VARBINARY, "byte[]");
+        putCode(Types.LONGVARBINARY, "byte[]");
+        putCode(Types.BLOB, "byte[]");
+    }
+
+    private void putCode(int code, String javaType) {
+        jdbcCodeMappings.put(code, of(javaType, JDBCType.valueOf(code).getName()));
+    }
+
+    /**
+     * 解析用户覆盖配置
+     */
+    private void parseOverrides() {
+        if (overrides == null || overrides.trim().isEmpty()) {
+            return;
+        }
+        for (String item : overrides.split(",")) {
+            int eq = item.indexOf('=');
+            int colon = item.lastIndexOf(':');
+            if (eq <= 0 || colon <= eq) {
+                log.warn("忽略格式错误的类型映射覆盖: {}", item);
+                continue;
+            }
+            String typeName = normalize(item.substring(0, eq));
+            String javaType = item.substring(eq + 1, colon).trim();
+            String jdbcType = item.substring(colon + 1).trim().toUpperCase();
+            overrideMappings.put(typeName, of(javaType, jdbcType));
+        }
+        log.info("已加载 {} 项类型映射覆盖", overrideMappings.size());
+    }
+
+    /**
+     * 构建类型映射，Java类型为全限定名时拆分出需要导入的类
+     */
+    private static TypeMapping of(String javaType, String jdbcType) {
+        int dot = javaType.lastIndexOf('.');
+        if (dot < 0 || javaType.startsWith("java.lang.")) {
+            return new TypeMapping(javaType.substring(dot + 1), null, jdbcType);
+        }
+        return new TypeMapping(javaType.substring(dot + 1), javaType, jdbcType);
+    }
+
+    /**
+     * 类型映射
+     *
+     * @param javaType Java类型的简单名（如 LocalDateTime、byte[]）
+     * @param javaImport 需要导入的类，java.lang 中的类型与基本类型数组为null
+     * @param jdbcType MyBatis jdbcType
+     */
+    public record TypeMapping(String javaType, String javaImport, String jdbcType) {
+    }
+}
@@ -443,66 +443,101 @@ async function downloadGeneratedCode() {
     hideResult();
 
     try {
-        const response = await fetch('/api/generator/generate-download', {
+        // 提交异步生成任务，立即返回任务ID
+        const response = await fetch('/api/generator/jobs', {
             method: 'POST',
             headers: {
                 'Content-Type': 'application/json'
             },
             body: JSON.stringify(formData)
         });
+        const result = await response.json();
 
-        if (response.ok) {
-            // 获取响应数据并创建下载
-            const blob = await response.blob();
-            const contentDisposition = response.headers.get('Content-Disposition');
-            let filename = 'generated-code.zip';
-            
-            // 从响应头中提取文件名
-            if (contentDisposition) {
-                const filenameMatch = contentDisposition.match(/filename\*?=(?:"([^\"]+)"|([^;\s]+))/i);
-                if (filenameMatch && (filenameMatch[1] || filenameMatch[2])) {
-                    filename = decodeURIComponent(filenameMatch[1] || filenameMatch[2]);
-                }
-            }
-            
-            // 创建下载链接
-            const url = window.URL.createObjectURL(blob);
+        if (!result.success) {
+            finishGeneration();
+            showResult(false, result.message || '生成失败');
+            return;
+        }
+
+        watchJob(result.data.jobId);
+    } catch (error) {
+        finishGeneration();
+        showResult(false, '无法连接到服务器，请检查后端服务是否正常运行');
+    }
+}
+
+/**
+ * 通过SSE订阅生成任务进度，完成后下载zip包
+ */
+function watchJob(jobId) {
+    const source = new EventSource(`/api/generator/jobs/${jobId}/events`);
+
+    source.addEventListener('progress', function(event) {
+        const status = JSON.parse(event.data);
+        updateLoadingText(formatJobProgress(status));
+
+        if (status.state === 'COMPLETED') {
+            source.close();
+            finishGeneration();
+
+            // 通过链接下载已生成的zip包
             const link = document.createElement('a');
-            link.href = url;
-            link.download = filename;
+            link.href = `/api/generator/jobs/${jobId}/download`;
             document.body.appendChild(link);
             link.click();
-            
-            // 清理
-            window.URL.revokeObjectURL(url);
             document.body.removeChild(link);
-            
-            hideLoading();
-            setButtonState(elements.generateBtn, false, '🚀 开始生成代码');
-            
-            // 显示成功消息
-            showResult(true, `代码生成成功！文件已下载: ${filename}`);
-        } else {
-            // 尝试获取错误信息
-            const errorText = await response.text();
-            let errorMessage = '生成失败';
-            
-            try {
-                const errorJson = JSON.parse(errorText);
-                errorMessage = errorJson.message || errorJson.msg || errorText;
-            } catch (e) {
-                errorMessage = errorText || '生成失败';
-            }
-            
-            hideLoading();
-            setButtonState(elements.generateBtn, false, '🚀 开始生成代码');
-            showResult(false, errorMessage);
+
+            showResult(status.failedTables === 0, `代码生成完成：${status.message}`);
+        } else if (status.state === 'FAILED' || status.state === 'CANCELLED') {
+            source.close();
+            finishGeneration();
+            showResult(false, status.message || '生成失败');
         }
-    } catch (error) {
-        hideLoading();
-        setButtonState(elements.generateBtn, false, '🚀 开始生成代码');
-        showResult(false, '无法连接到服务器，请检查后端服务是否正常运行');
+    });
+
+    source.onerror = function() {
+        // 连接中断时（如任务已过期）停止重连
+        if (source.readyState === EventSource.CLOSED) {
+            return;
+        }
+        source.close();
+        finishGeneration();
+        showResult(false, '与服务器的连接已断开，请稍后重试');
+    };
+}
+
+/**
+ * 格式化任务进度
+ */
+function formatJobProgress(status) {
+    const phaseNames = {
+        metadata: '读取表结构',
+        render: '渲染代码'
+    };
+    if (status.state === 'QUEUED') {
+        return '任务排队中，请稍候...';
+    }
+    const phase = phaseNames[status.phase] || '准备中';
+    if (status.totalTables > 0) {
+        return `${phase}：已完成 ${status.completedTables} / ${status.totalTables} 张表`;
     }
+    return `${phase}，请稍候...`;
+}
+
+/**
+ * 更新加载提示文字
+ */
+function updateLoadingText(text) {
+    elements.loading.querySelector('p').textContent = text;
+}
+
+/**
+ * 结束生成，恢复按钮和加载状态
+ */
+function finishGeneration() {
+    hideLoading();
+    updateLoadingText('正在处理，请稍候...');
+    setButtonState(elements.generateBtn, false, '🚀 开始生成代码');
 }
 
 /**
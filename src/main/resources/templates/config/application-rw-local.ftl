@@ -0,0 +1,10 @@
+# 读写分离本地验证（spring.profiles.active=rw-local）：主从库为两个内嵌H2数据库（MySQL模式），
+# 启动时都执行 db/h2 下的建表脚本，从库不会同步主库的数据
+app.datasource.primary.jdbc-url=jdbc:h2:mem:primary;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1
+app.datasource.primary.driver-class-name=org.h2.Driver
+app.datasource.primary.username=sa
+app.datasource.primary.password=
+app.datasource.replica.jdbc-url=jdbc:h2:mem:replica;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1
+app.datasource.replica.driver-class-name=org.h2.Driver
+app.datasource.replica.username=sa
+app.datasource.replica.password=
@@ -0,0 +1,4 @@
+-- ${tableName} 的H2建表脚本（MySQL模式），根据表结构生成，用于本地验证
+<#list h2Schema as statement>
+${statement};
+</#list>
@@ -0,0 +1,71 @@
+package ${packageName}.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.ExceptionUtil;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * Mapper语句计时插件
+ * <p>
+ * 记录每条Mapper语句的执行耗时，计时器名为 crud.mapper，标签 mapper（Mapper接口名）、method（方法名）、
+ * exception（异常类名，成功时为 none）。与 Service 方法的 crud.service 对照，可以区分耗时在数据库还是在业务代码中。
+ * 批量执行器（ExecutorType.BATCH）中的语句在 flushStatements 时才发送到数据库，这里记录的只是加入批次的耗时；
+ * 游标查询（导出）边读边处理，不计时。
+ *
+ * @author tongysh
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class})
+})
+public class MapperMetricsInterceptor implements Interceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    public MapperMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement statement = (MappedStatement) invocation.getArgs()[0];
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return invocation.proceed();
+        } catch (Throwable e) {
+            exception = ExceptionUtil.unwrapThrowable(e).getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(timer(statement.getId(), exception));
+        }
+    }
+
+    /**
+     * 按语句ID（Mapper接口全名.方法名）取得计时器
+     */
+    private Timer timer(String statementId, String exception) {
+        int methodStart = statementId.lastIndexOf('.');
+        String mapper = statementId.substring(statementId.lastIndexOf('.', methodStart - 1) + 1, Math.max(methodStart, 0));
+        return Timer.builder("crud.mapper")
+                .description("Mapper语句的执行耗时")
+                .tags("mapper", mapper, "method", statementId.substring(methodStart + 1), "exception", exception)
+<#if metricsHistograms>
+                .publishPercentileHistogram()
+</#if>
+                .register(meterRegistry);
+    }
+}
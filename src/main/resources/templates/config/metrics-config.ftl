@@ -0,0 +1,36 @@
+package ${packageName}.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 指标配置（需要 spring-boot-starter-actuator 和 spring-boot-starter-aop）
+ * <p>
+ * 注册 TimedAspect 使 Service 方法上的 @Timed 生效，计时器名为 crud.service，标签 table、operation 区分表和操作<#if metricsHistograms>，
+ * 同时发布直方图，可以在监控中按表、操作查看耗时分位数</#if>。
+ * 注册 MapperMetricsInterceptor 记录每条Mapper语句的耗时（crud.mapper），MyBatis 自动配置会加载容器中的插件。
+ * 接口级别的耗时由 Spring Boot 自动记录（http.server.requests）。
+ *
+ * @author tongysh
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    /**
+     * 多个包各有一个 MetricsConfig 时只注册一个插件，避免语句被重复计时
+     */
+    @Bean
+    @ConditionalOnMissingBean(name = "mapperMetricsInterceptor")
+    public MapperMetricsInterceptor mapperMetricsInterceptor(MeterRegistry meterRegistry) {
+        return new MapperMetricsInterceptor(meterRegistry);
+    }
+}
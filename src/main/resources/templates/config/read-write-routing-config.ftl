@@ -0,0 +1,112 @@
+package ${packageName}.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.init.DataSourceInitializer;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 读写分离数据源配置
+ * <p>
+ * 主库（app.datasource.primary.*）和从库（app.datasource.replica.*）各一个连接池，配置项与 Hikari 连接池相同
+ * （jdbc-url、username、password、maximum-pool-size 等）。
+ * 只读事务（@Transactional(readOnly = true)）路由到从库，其他语句路由到主库。
+ * 只读方法在读写事务中调用时加入外层事务，仍然使用主库，事务内可以读到自己的写入；
+ * 不在事务中执行的查询使用主库。并发统计总数的线程不在调用方的事务中，生成的代码为它开启单独的只读事务，路由到从库。
+ * 路由数据源外层由 LazyConnectionDataSourceProxy 包装，事务开始后第一次执行语句时才获取连接，此时已经能判断事务是否只读。
+ * <p>
+ * 本地验证：启用 rw-local 配置（spring.profiles.active=rw-local），主从库为两个内嵌H2数据库，
+ * 启动时都执行 db/h2 下的建表脚本。从库不会同步主库的数据，写入后只读查询查不到即说明路由生效。
+ *
+ * @author tongysh
+ */
+@Configuration
+public class ReadWriteRoutingConfig {
+
+    public static final String PRIMARY = "primary";
+
+    public static final String REPLICA = "replica";
+
+    @Bean
+    @ConfigurationProperties("app.datasource.primary")
+    public HikariDataSource primaryDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(PRIMARY);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(REPLICA);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * MyBatis 和事务管理器使用的数据源
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource) {
+        ReadWriteRoutingDataSource routingDataSource = new ReadWriteRoutingDataSource();
+        routingDataSource.setTargetDataSources(Map.<Object, Object>of(PRIMARY, primaryDataSource, REPLICA, replicaDataSource));
+        routingDataSource.setDefaultTargetDataSource(primaryDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    /**
+     * 按当前事务是否只读选择主库或从库
+     */
+    static class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+        @Override
+        protected Object determineCurrentLookupKey() {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+        }
+    }
+
+    /**
+     * 本地验证：主从库启动时都执行 db/h2 下的建表脚本
+     */
+    @Configuration
+    @Profile("rw-local")
+    static class LocalSchemaConfig {
+
+        @Bean
+        public DataSourceInitializer primarySchemaInitializer(@Qualifier("primaryDataSource") DataSource dataSource)
+                throws IOException {
+            return schemaInitializer(dataSource);
+        }
+
+        @Bean
+        public DataSourceInitializer replicaSchemaInitializer(@Qualifier("replicaDataSource") DataSource dataSource)
+                throws IOException {
+            return schemaInitializer(dataSource);
+        }
+
+        private static DataSourceInitializer schemaInitializer(DataSource dataSource) throws IOException {
+            Resource[] scripts = new PathMatchingResourcePatternResolver().getResources("classpath*:db/h2/*.sql");
+            DataSourceInitializer initializer = new DataSourceInitializer();
+            initializer.setDataSource(dataSource);
+            initializer.setDatabasePopulator(new ResourceDatabasePopulator(scripts));
+            return initializer;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package ${packageName}.config;
+
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import java.util.concurrent.Executors;
+
+/**
+ * 虚拟线程配置（需要 JDK 21）
+ * <p>
+ * Tomcat 请求处理和应用异步任务都改为每个任务一个虚拟线程，阻塞在数据库IO上的请求不再占用平台线程。
+ * 并发数改由数据库连接池限制，需要按数据库的承受能力设置连接池大小（spring.datasource.hikari.maximum-pool-size）。
+ * Spring Boot 3.2 及以上版本也可以直接配置 spring.threads.virtual.enabled=true 代替本类。
+ *
+ * @author tongysh
+ */
+@Configuration
+public class VirtualThreadConfig {
+
+    /**
+     * Tomcat 使用虚拟线程处理请求
+     */
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * 应用异步任务（@Async、并发统计总数等）使用虚拟线程执行
+     */
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor() {
+        return new TaskExecutorAdapter(Executors.newVirtualThreadPerTaskExecutor());
+    }
+}
@@ -1,9 +1,21 @@
+<#assign idType = compositeKey?then(entityName, primaryKey.javaType)>
 package ${packageName}.controller;
 
 import ${packageName}.entity.${entityName};
 import ${packageName}.service.I${entityName}Service;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.web.bind.annotation.*;
+import tools.jackson.databind.json.JsonMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
 import java.util.List;
 import java.util.Map;
 
@@ -19,12 +31,39 @@ public class ${entityName}Controller {
     @Autowired
     private I${entityName}Service ${entityVarName}Service;
 
+    @Autowired
+    private JsonMapper jsonMapper;
+
     /**
      * 根据ID查询
      */
-    @GetMapping("/{${primaryKey.javaFieldName}}")
-    public ${entityName} getById(@PathVariable ${primaryKey.javaType} ${primaryKey.javaFieldName}) {
-        return ${entityVarName}Service.getById(${primaryKey.javaFieldName});
+    @GetMapping("/<#list primaryKeys as pk>{${pk.javaFieldName}}<#sep>/</#sep></#list>")
+    public ${entityName} getById(<#list primaryKeys as pk>@PathVariable ${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>) {
+        return ${entityVarName}Service.getById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
+    }
+
+    /**
+     * 根据多个ID查询
+     */
+    @PostMapping("/ids")
+    public List<${entityName}> getByIds(@RequestBody List<${idType}> ids) {
+        return ${entityVarName}Service.getByIds(ids);
+    }
+
+    /**
+     * 判断ID是否存在
+     */
+    @GetMapping("/exists/<#list primaryKeys as pk>{${pk.javaFieldName}}<#sep>/</#sep></#list>")
+    public boolean existsById(<#list primaryKeys as pk>@PathVariable ${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>) {
+        return ${entityVarName}Service.existsById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
+    }
+
+    /**
+     * 统计多个ID中存在的记录数
+     */
+    @PostMapping("/ids/count")
+    public int countByIds(@RequestBody List<${idType}> ids) {
+        return ${entityVarName}Service.countByIds(ids);
     }
 
     /**
@@ -35,6 +74,16 @@ public class ${entityName}Controller {
         return ${entityVarName}Service.getByPage(params);
     }
 
+<#if cursorColumns?has_content>
+    /**
+     * 游标分页条件查询
+     */
+    @PostMapping("/cursor")
+    public Map<String, Object> getByCursor(@RequestBody Map<String, Object> params) {
+        return ${entityVarName}Service.getByCursor(params);
+    }
+
+</#if>
     /**
      * 条件查询所有记录（不分页）
      */
@@ -43,6 +92,38 @@ public class ${entityName}Controller {
         return ${entityVarName}Service.getAll(params);
     }
 
+    /**
+     * 条件流式导出所有记录，format为ndjson（默认）或csv，边查询边写出，内存占用与记录数无关
+     */
+    @PostMapping("/export")
+    public void export(@RequestBody Map<String, Object> params,
+                       @RequestParam(defaultValue = "ndjson") String format,
+                       HttpServletResponse response) throws IOException {
+        boolean csv = "csv".equalsIgnoreCase(format);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"${tableName}." + (csv ? "csv" : "ndjson") + "\"");
+
+        Writer writer = response.getWriter();
+        if (csv) {
+            writer.write("<#list columns as column>${column.columnName}<#sep>,</#sep></#list>\n");
+        }
+        try {
+            ${entityVarName}Service.exportAll(params, row -> {
+                try {
+                    writer.write(csv ? toCsvLine(row) : jsonMapper.writeValueAsString(row));
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
     /**
      * 创建
      */
@@ -51,6 +132,22 @@ public class ${entityName}Controller {
         return ${entityVarName}Service.create(${entityVarName});
     }
 
+    /**
+     * 批量创建
+     */
+    @PostMapping("/batch")
+    public int createBatch(@RequestBody List<${entityName}> list) {
+        return ${entityVarName}Service.createBatch(list);
+    }
+
+    /**
+     * 批量创建或更新
+     */
+    @PutMapping("/batch")
+    public int upsertBatch(@RequestBody List<${entityName}> list) {
+        return ${entityVarName}Service.upsertBatch(list);
+    }
+
     /**
      * 根据ID更新
      */
@@ -58,20 +155,59 @@ public class ${entityName}Controller {
     public int update(@RequestBody ${entityName} ${entityVarName}) {
         return ${entityVarName}Service.updateById(${entityVarName});
     }
+<#if nonKeyColumns?has_content>
+
+    /**
+     * 根据ID批量更新，为null的字段不更新
+     */
+    @PatchMapping("/batch")
+    public int updateBatch(@RequestBody List<${entityName}> list) {
+        return ${entityVarName}Service.updateBatchById(list);
+    }
+</#if>
 
     /**
      * 根据ID删除
      */
-    @DeleteMapping("/{${primaryKey.javaFieldName}}")
-    public int deleteById(@PathVariable ${primaryKey.javaType} ${primaryKey.javaFieldName}) {
-        return ${entityVarName}Service.deleteById(${primaryKey.javaFieldName});
+    @DeleteMapping("/<#list primaryKeys as pk>{${pk.javaFieldName}}<#sep>/</#sep></#list>")
+    public int deleteById(<#list primaryKeys as pk>@PathVariable ${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>) {
+        return ${entityVarName}Service.deleteById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
     }
 
     /**
      * 批量删除
      */
     @DeleteMapping("/batch")
-    public int deleteBatch(@RequestBody List<${primaryKey.javaType}> ids) {
+    public int deleteBatch(@RequestBody List<${idType}> ids) {
         return ${entityVarName}Service.deleteBatchByIds(ids);
     }
+
+    /**
+     * 一条记录转为CSV行
+     */
+    private static String toCsvLine(${entityName} row) {
+        StringBuilder sb = new StringBuilder();
+<#list columns as column>
+        appendCsvValue(sb, row.get${column.javaFieldName?cap_first}());
+<#sep>
+        sb.append(',');
+</#sep>
+</#list>
+        return sb.toString();
+    }
+
+    /**
+     * 追加CSV字段值，包含逗号、引号或换行时加引号转义，二进制值使用Base64编码
+     */
+    private static void appendCsvValue(StringBuilder sb, Object value) {
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof byte[] ? Base64.getEncoder().encodeToString((byte[]) value) : value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            sb.append('"').append(text.replace("\"", "\"\"")).append('"');
+        } else {
+            sb.append(text);
+        }
+    }
 }
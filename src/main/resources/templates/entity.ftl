@@ -1,7 +1,15 @@
 package ${packageName}.entity;
 
 import lombok.Data;
+<#if target == "REACTIVE">
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+</#if>
 import java.io.Serializable;
+<#list imports as javaImport>
+import ${javaImport};
+</#list>
 
 /**
  * ${tableName} 实体类
@@ -9,6 +17,9 @@ import java.io.Serializable;
  * @author tongysh
  */
 @Data
+<#if target == "REACTIVE">
+@Table("${tableName}")
+</#if>
 public class ${entityName} implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -17,6 +28,12 @@ public class ${entityName} implements Serializable {
     /**
      * ${column.comment!''}
      */
+<#if target == "REACTIVE">
+    <#if column.primaryKey>
+    @Id
+    </#if>
+    @Column("${column.columnName}")
+</#if>
     private ${column.javaType} ${column.javaFieldName};
 
 </#list>
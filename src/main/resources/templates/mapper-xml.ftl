@@ -13,61 +13,148 @@
 </#list>
     </resultMap>
 
+    <!-- 列表查询的结果映射（不含大字段） -->
+    <resultMap id="ListResultMap" type="${packageName}.entity.${entityName}">
+<#list listColumns as column>
+        <#if column.primaryKey>
+        <id column="${column.columnName}" jdbcType="${column.jdbcType}" property="${column.javaFieldName}" />
+        <#else>
+        <result column="${column.columnName}" jdbcType="${column.jdbcType}" property="${column.javaFieldName}" />
+        </#if>
+</#list>
+    </resultMap>
+
     <!-- 基础字段列 -->
     <sql id="Base_Column_List">
         <#list columns as column>${column.columnName}<#if column_has_next>, </#if></#list>
     </sql>
 
+    <!-- 列表查询的默认字段列（不含大字段） -->
+    <sql id="List_Column_List">
+        <#list listColumns as column>${column.columnName}<#if column_has_next>, </#if></#list>
+    </sql>
+
+    <!-- 列表查询的字段：selectColumns 由Service根据 fields 参数校验生成，未指定时查询默认字段列 -->
+    <sql id="Select_List_Columns">
+        <choose>
+            <when test="selectColumns != null and !selectColumns.isEmpty()">
+                <foreach collection="selectColumns" item="column" separator=", ">${r"${column}"}</foreach>
+            </when>
+            <otherwise>
+                <include refid="List_Column_List" />
+            </otherwise>
+        </choose>
+    </sql>
+
+    <!-- 条件查询的过滤条件 -->
+    <sql id="Filter_Conditions">
+<#list columns as column>
+    <#assign unindexed = filterIndexMode != "ALL" && column.javaType != "byte[]"
+            && !column.indexed && !(column.javaType == "String" && column.fulltextIndexed)>
+    <#if unindexed && filterIndexMode == "INDEXED">
+        <#-- 无索引的列不生成过滤条件 -->
+    <#else>
+        <#if unindexed>
+        <!-- ${column.columnName} 没有索引，按此列过滤可能全表扫描 -->
+        </#if>
+        <#if column.javaType == "String">
+        <if test="${column.javaFieldName} != null and ${column.javaFieldName} != ''">
+            <#if filterIndexMode != "ALL" && column.fulltextIndexed>
+            AND MATCH (${column.columnName}) AGAINST (${r"#{"}${column.javaFieldName}${r"}"})
+            <#elseif filterIndexMode != "ALL" && column.indexed>
+            AND ${column.columnName} LIKE CONCAT(${r"#{"}${column.javaFieldName}${r"}"}, '%')
+            <#else>
+            AND ${column.columnName} LIKE CONCAT('%', ${r"#{"}${column.javaFieldName}${r"}"}, '%')
+            </#if>
+        </if>
+        <#elseif column.javaType == "Integer" || column.javaType == "Long" || column.javaType == "Short" || column.javaType == "Byte">
+        <if test="${column.javaFieldName} != null">
+            AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
+        </if>
+        <#elseif column.javaType == "BigDecimal" || column.javaType == "BigInteger" || column.javaType == "Float" || column.javaType == "Double">
+        <if test="${column.javaFieldName} != null">
+            AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
+        </if>
+        <if test="${column.javaFieldName}Min != null">
+            AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Min${r"}"}
+        </if>
+        <if test="${column.javaFieldName}Max != null">
+            AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}Max${r"}"}
+        </if>
+        <#elseif column.javaType == "LocalDateTime" || column.javaType == "LocalDate" || column.javaType == "LocalTime" || column.javaType == "OffsetDateTime" || column.javaType == "OffsetTime">
+        <if test="${column.javaFieldName}Start != null">
+            AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Start${r"}"}
+        </if>
+        <if test="${column.javaFieldName}End != null">
+            AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}End${r"}"}
+        </if>
+        <#elseif column.javaType == "byte[]">
+        <#-- 二进制列不参与条件查询 -->
+        <#elseif column.javaType == "Boolean">
+        <if test="${column.javaFieldName} != null">
+            AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
+        </if>
+        <#else>
+        <if test="${column.javaFieldName} != null">
+            AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
+        </if>
+        </#if>
+    </#if>
+</#list>
+    </sql>
+
+    <!-- 多个ID的匹配条件 -->
+    <sql id="Id_Conditions">
+<#if compositeKey>
+        <foreach collection="ids" item="id" open="(" separator=") OR (" close=")">
+            <#list primaryKeys as pk>${pk.columnName} = ${r"#{id."}${pk.javaFieldName}${r"}"}<#sep> AND </#sep></#list>
+        </foreach>
+<#else>
+        ${primaryKey.columnName} IN
+        <foreach collection="ids" item="id" open="(" separator="," close=")">
+            ${r"#{id}"}
+        </foreach>
+</#if>
+    </sql>
+
     <!-- 根据ID查询 -->
     <select id="selectById" resultMap="BaseResultMap">
         SELECT
         <include refid="Base_Column_List" />
-        FROM ${tableName}
-        WHERE ${primaryKey.columnName} = ${r"#{"}${primaryKey.javaFieldName}${r"}"}
+        FROM ${sqlTable}
+        WHERE <#list primaryKeys as pk>${pk.columnName} = ${r"#{"}${pk.javaFieldName}${r"}"}<#sep> AND </#sep></#list>
     </select>
 
-    <!-- 分页条件查询 -->
-    <select id="selectByPage" resultMap="BaseResultMap" parameterType="map">
+    <!-- 根据多个ID查询 -->
+    <select id="selectByIds" resultMap="BaseResultMap">
         SELECT
         <include refid="Base_Column_List" />
-        FROM ${tableName}
+        FROM ${sqlTable}
+        WHERE <include refid="Id_Conditions" />
+    </select>
+
+    <!-- 判断ID是否存在 -->
+    <select id="existsById" resultType="boolean">
+        SELECT EXISTS (
+            SELECT 1 FROM ${sqlTable}
+            WHERE <#list primaryKeys as pk>${pk.columnName} = ${r"#{"}${pk.javaFieldName}${r"}"}<#sep> AND </#sep></#list>
+        )
+    </select>
+
+    <!-- 统计多个ID中存在的记录数 -->
+    <select id="countByIds" resultType="int">
+        SELECT COUNT(*)
+        FROM ${sqlTable}
+        WHERE <include refid="Id_Conditions" />
+    </select>
+
+    <!-- 分页条件查询 -->
+    <select id="selectByPage" resultMap="ListResultMap" parameterType="map">
+        SELECT
+        <include refid="Select_List_Columns" />
+        FROM ${sqlTable}
         <where>
-<#list columns as column>
-            <#if column.javaType == "String">
-            <if test="${column.javaFieldName} != null and ${column.javaFieldName} != ''">
-                AND ${column.columnName} LIKE CONCAT('%', ${r"#{"}${column.javaFieldName}${r"}"}, '%')
-            </if>
-            <#elseif column.javaType == "Integer" || column.javaType == "Long">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <#elseif column.javaType == "java.math.BigDecimal" || column.javaType == "Float" || column.javaType == "Double">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <if test="${column.javaFieldName}Min != null">
-                AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Min${r"}"}
-            </if>
-            <if test="${column.javaFieldName}Max != null">
-                AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}Max${r"}"}
-            </if>
-            <#elseif column.javaType == "java.util.Date">
-            <if test="${column.javaFieldName}Start != null">
-                AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Start${r"}"}
-            </if>
-            <if test="${column.javaFieldName}End != null">
-                AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}End${r"}"}
-            </if>
-            <#elseif column.javaType == "Boolean">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <#else>
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            </#if>
-</#list>
+            <include refid="Filter_Conditions" />
         </where>
         <if test="orderBy != null and orderBy != ''">
             ORDER BY ${r"${orderBy}"}
@@ -77,48 +164,43 @@
         </if>
     </select>
 
+<#if cursorColumns?has_content>
+    <!-- 游标分页查询：从上一页最后一条记录之后开始查找，不扫描前面的记录 -->
+    <select id="selectByCursor" resultMap="ListResultMap" parameterType="map">
+        SELECT
+        <include refid="Select_List_Columns" />
+        FROM ${sqlTable}
+        <where>
+            <include refid="Filter_Conditions" />
+            <if test="cursorValues != null">
+                AND (<#list cursorColumns as column><#if column?index gt 0> OR </#if>(<#list cursorColumns[0..<column?index] as prev>${prev.columnName} = ${r"#{cursorValues."}${prev.javaFieldName}${r"}"} AND </#list>${column.columnName} &gt; ${r"#{cursorValues."}${column.javaFieldName}${r"}"})</#list>)
+            </if>
+        </where>
+        ORDER BY <#list cursorColumns as column>${column.columnName}<#sep>, </#sep></#list>
+        LIMIT ${r"#{limit}"}
+    </select>
+
+</#if>
     <!-- 条件查询所有记录（不分页） -->
-    <select id="selectAll" resultMap="BaseResultMap" parameterType="map">
+    <select id="selectAll" resultMap="ListResultMap" parameterType="map">
+        SELECT
+        <include refid="Select_List_Columns" />
+        FROM ${sqlTable}
+        <where>
+            <include refid="Filter_Conditions" />
+        </where>
+        <if test="orderBy != null and orderBy != ''">
+            ORDER BY ${r"${orderBy}"}
+        </if>
+    </select>
+
+    <!-- 条件查询所有记录（流式读取，用于导出） -->
+    <select id="selectAllCursor" resultMap="BaseResultMap" parameterType="map" resultSetType="FORWARD_ONLY"<#if exportFetchSize??> fetchSize="${exportFetchSize?c}"</#if>>
         SELECT
         <include refid="Base_Column_List" />
-        FROM ${tableName}
+        FROM ${sqlTable}
         <where>
-<#list columns as column>
-            <#if column.javaType == "String">
-            <if test="${column.javaFieldName} != null and ${column.javaFieldName} != ''">
-                AND ${column.columnName} LIKE CONCAT('%', ${r"#{"}${column.javaFieldName}${r"}"}, '%')
-            </if>
-            <#elseif column.javaType == "Integer" || column.javaType == "Long">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <#elseif column.javaType == "java.math.BigDecimal" || column.javaType == "Float" || column.javaType == "Double">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <if test="${column.javaFieldName}Min != null">
-                AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Min${r"}"}
-            </if>
-            <if test="${column.javaFieldName}Max != null">
-                AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}Max${r"}"}
-            </if>
-            <#elseif column.javaType == "java.util.Date">
-            <if test="${column.javaFieldName}Start != null">
-                AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Start${r"}"}
-            </if>
-            <if test="${column.javaFieldName}End != null">
-                AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}End${r"}"}
-            </if>
-            <#elseif column.javaType == "Boolean">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <#else>
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            </#if>
-</#list>
+            <include refid="Filter_Conditions" />
         </where>
         <if test="orderBy != null and orderBy != ''">
             ORDER BY ${r"${orderBy}"}
@@ -128,50 +210,24 @@
     <!-- 条件查询总数 -->
     <select id="countByCondition" resultType="int" parameterType="map">
         SELECT COUNT(*)
-        FROM ${tableName}
+        FROM ${sqlTable}
         <where>
-<#list columns as column>
-            <#if column.javaType == "String">
-            <if test="${column.javaFieldName} != null and ${column.javaFieldName} != ''">
-                AND ${column.columnName} LIKE CONCAT('%', ${r"#{"}${column.javaFieldName}${r"}"}, '%')
-            </if>
-            <#elseif column.javaType == "Integer" || column.javaType == "Long">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <#elseif column.javaType == "java.math.BigDecimal" || column.javaType == "Float" || column.javaType == "Double">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <if test="${column.javaFieldName}Min != null">
-                AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Min${r"}"}
-            </if>
-            <if test="${column.javaFieldName}Max != null">
-                AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}Max${r"}"}
-            </if>
-            <#elseif column.javaType == "java.util.Date">
-            <if test="${column.javaFieldName}Start != null">
-                AND ${column.columnName} &gt;= ${r"#{"}${column.javaFieldName}Start${r"}"}
-            </if>
-            <if test="${column.javaFieldName}End != null">
-                AND ${column.columnName} &lt;= ${r"#{"}${column.javaFieldName}End${r"}"}
-            </if>
-            <#elseif column.javaType == "Boolean">
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            <#else>
-            <if test="${column.javaFieldName} != null">
-                AND ${column.columnName} = ${r"#{"}${column.javaFieldName}${r"}"}
-            </if>
-            </#if>
-</#list>
+            <include refid="Filter_Conditions" />
         </where>
     </select>
+<#if countStrategy == "ESTIMATED">
+
+    <!-- 估算总行数 -->
+    <select id="estimateCount" resultType="java.lang.Long">
+        SELECT TABLE_ROWS
+        FROM information_schema.TABLES
+        WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = '${tableName}'
+    </select>
+</#if>
 
     <!-- 插入数据 -->
-    <insert id="insert" parameterType="${packageName}.entity.${entityName}"<#if primaryKey.javaType == "Long" || primaryKey.javaType == "Integer"> useGeneratedKeys="true" keyProperty="${primaryKey.javaFieldName}"</#if>>
-        INSERT INTO ${tableName}
+    <insert id="insert" parameterType="${packageName}.entity.${entityName}"<#if autoIncrementKey??> useGeneratedKeys="true" keyProperty="${autoIncrementKey.javaFieldName}"</#if>>
+        INSERT INTO ${sqlTable}
         <trim prefix="(" suffix=")" suffixOverrides=",">
 <#list columns as column>
             <if test="${column.javaFieldName} != null">
@@ -188,9 +244,47 @@
         </trim>
     </insert>
 
+    <!-- 批量插入（多行VALUES），为空的字段使用列默认值 -->
+    <insert id="insertBatch"<#if autoIncrementKey??> useGeneratedKeys="true" keyProperty="list.${autoIncrementKey.javaFieldName}"</#if>>
+        INSERT INTO ${sqlTable}
+        (<#list insertColumns as column>${column.columnName}<#sep>, </#sep></#list>)
+        VALUES
+        <foreach collection="list" item="item" separator=",">
+            (<#list insertColumns as column><choose><when test="item.${column.javaFieldName} != null">${r"#{item."}${column.javaFieldName}, jdbcType=${column.jdbcType}${r"}"}</when><otherwise>DEFAULT</otherwise></choose><#sep>, </#sep></#list>)
+        </foreach>
+    </insert>
+
+    <!-- 批量插入或更新（主键或唯一键冲突时更新其余字段）
+         同一批次的行必须有相同的非空字段（由Service按非空字段分组），列清单按第一行生成：
+         为null的字段不写入，插入时取列默认值，冲突时保持原值，与 updateById 一致。
+         只有新插入的行会回填自增主键。
+         VALUES(col) 兼容 MySQL 5.7/8.x 和 MariaDB，MySQL 8.0.20 起弃用但仍可使用（只产生警告）；
+         只面向 MySQL 8.0.19 及以上版本时可以改为行别名：VALUES (...) AS new ON DUPLICATE KEY UPDATE col = new.col -->
+    <insert id="upsertBatch"<#if autoIncrementKey??> useGeneratedKeys="true" keyProperty="list.${autoIncrementKey.javaFieldName}"</#if>>
+        INSERT INTO ${sqlTable}
+        (<trim suffixOverrides=",">
+<#list columns as column>
+            <if test="list[0].${column.javaFieldName} != null">${column.columnName},</if>
+</#list>
+        </trim>)
+        VALUES
+        <foreach collection="list" item="item" separator=",">
+            (<trim suffixOverrides=",">
+<#list columns as column>
+                <if test="list[0].${column.javaFieldName} != null">${r"#{item."}${column.javaFieldName}, jdbcType=${column.jdbcType}${r"}"},</if>
+</#list>
+            </trim>)
+        </foreach>
+        ON DUPLICATE KEY UPDATE
+<#list columns?filter(column -> !column.primaryKey) as column>
+        <if test="list[0].${column.javaFieldName} != null">${column.columnName} = VALUES(${column.columnName}),</if>
+</#list>
+        ${primaryKey.columnName} = ${primaryKey.columnName}
+    </insert>
+
     <!-- 根据ID更新 -->
     <update id="updateById" parameterType="${packageName}.entity.${entityName}">
-        UPDATE ${tableName}
+        UPDATE ${sqlTable}
         <set>
 <#list columns as column>
     <#if !column.primaryKey>
@@ -200,22 +294,47 @@
     </#if>
 </#list>
         </set>
-        WHERE ${primaryKey.columnName} = ${r"#{"}${primaryKey.javaFieldName}${r"}"}
+        WHERE <#list primaryKeys as pk>${pk.columnName} = ${r"#{"}${pk.javaFieldName}${r"}"}<#sep> AND </#sep></#list>
     </update>
 
     <!-- 根据ID删除 -->
     <delete id="deleteById">
-        DELETE FROM ${tableName}
-        WHERE ${primaryKey.columnName} = ${r"#{"}${primaryKey.javaFieldName}${r"}"}
+        DELETE FROM ${sqlTable}
+        WHERE <#list primaryKeys as pk>${pk.columnName} = ${r"#{"}${pk.javaFieldName}${r"}"}<#sep> AND </#sep></#list>
     </delete>
+<#if nonKeyColumns?has_content>
 
-    <!-- 批量删除 -->
-    <delete id="deleteBatchByIds">
-        DELETE FROM ${tableName}
+    <!-- 根据ID批量更新：每列一个CASE表达式，实体中为null的字段保持原值。
+         每行在每个CASE中各有一个WHEN分支，数据库逐个分支匹配，开销随行数平方增长，Service按较小的批次调用 -->
+    <update id="updateBatchById">
+        UPDATE ${sqlTable}
+        <set>
+<#list nonKeyColumns as column>
+            ${column.columnName} = CASE
+            <foreach collection="list" item="item">
+                WHEN <#list primaryKeys as pk>${pk.columnName} = ${r"#{item."}${pk.javaFieldName}${r"}"}<#sep> AND </#sep></#list> THEN <choose><when test="item.${column.javaFieldName} != null">${r"#{item."}${column.javaFieldName}, jdbcType=${column.jdbcType}${r"}"}</when><otherwise>${column.columnName}</otherwise></choose>
+            </foreach>
+                ELSE ${column.columnName} END,
+</#list>
+        </set>
+<#if compositeKey>
+        WHERE
+        <foreach collection="list" item="item" open="(" separator=") OR (" close=")">
+            <#list primaryKeys as pk>${pk.columnName} = ${r"#{item."}${pk.javaFieldName}${r"}"}<#sep> AND </#sep></#list>
+        </foreach>
+<#else>
         WHERE ${primaryKey.columnName} IN
-        <foreach collection="ids" item="id" open="(" separator="," close=")">
-            ${r"#{id}"}
+        <foreach collection="list" item="item" open="(" separator="," close=")">
+            ${r"#{item."}${primaryKey.javaFieldName}${r"}"}
         </foreach>
+</#if>
+    </update>
+</#if>
+
+    <!-- 批量删除 -->
+    <delete id="deleteBatchByIds">
+        DELETE FROM ${sqlTable}
+        WHERE <include refid="Id_Conditions" />
     </delete>
 
 </mapper>
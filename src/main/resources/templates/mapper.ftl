@@ -1,8 +1,13 @@
+<#assign idType = compositeKey?then(entityName, primaryKey.javaType)>
 package ${packageName}.mapper;
 
 import ${packageName}.entity.${entityName};
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
 import java.util.List;
 import java.util.Map;
 
@@ -17,40 +22,92 @@ public interface ${entityName}Mapper {
     /**
      * 根据ID查询
      */
-    ${entityName} selectById(@Param("${primaryKey.javaFieldName}") ${primaryKey.javaType} ${primaryKey.javaFieldName});
+    ${entityName} selectById(<#list primaryKeys as pk>@Param("${pk.javaFieldName}") ${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>);
 
     /**
-     * 分页条件查询
+     * 根据多个ID查询，调用方负责控制每次的ID个数<#if compositeKey>（ids中每个元素只需填写主键字段）</#if>
+     */
+    List<${entityName}> selectByIds(@Param("ids") List<${idType}> ids);
+
+    /**
+     * 判断ID是否存在
+     */
+    boolean existsById(<#list primaryKeys as pk>@Param("${pk.javaFieldName}") ${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>);
+
+    /**
+     * 统计多个ID中存在的记录数，调用方负责控制每次的ID个数
+     */
+    int countByIds(@Param("ids") List<${idType}> ids);
+
+    /**
+     * 分页条件查询（params中selectColumns为查询的列名，由调用方校验；未指定时不查询大字段）
      */
     List<${entityName}> selectByPage(Map<String, Object> params);
 
+<#if cursorColumns?has_content>
     /**
-     * 条件查询所有记录（不分页）
+     * 游标分页查询（params中cursorValues为上一页最后一条记录的排序列值，limit为查询条数，selectColumns同分页查询）
+     */
+    List<${entityName}> selectByCursor(Map<String, Object> params);
+
+</#if>
+    /**
+     * 条件查询所有记录（不分页，selectColumns同分页查询）
      */
     List<${entityName}> selectAll(Map<String, Object> params);
 
+    /**
+     * 条件查询所有记录，逐行流式读取（需要在事务中遍历，遍历完成后关闭）
+     */
+    Cursor<${entityName}> selectAllCursor(Map<String, Object> params);
+
     /**
      * 条件查询总数
      */
     int countByCondition(Map<String, Object> params);
+<#if countStrategy == "ESTIMATED">
+
+    /**
+     * 从 information_schema.TABLES 读取估算行数（InnoDB为采样统计值，可能有较大偏差）
+     */
+    Long estimateCount();
+</#if>
 
     /**
      * 插入数据
      */
     int insert(${entityName} entity);
 
+    /**
+     * 批量插入（多行VALUES），调用方负责控制每批的行数<#if autoIncrementKey??>，自增主键回填到实体中</#if>
+     */
+    int insertBatch(@Param("list") List<${entityName}> list);
+
+    /**
+     * 批量插入或更新（ON DUPLICATE KEY UPDATE），调用方负责控制每批的行数，
+     * 同一批的行必须有相同的非空字段：为null的字段插入时取列默认值，冲突时保持原值<#if autoIncrementKey??>；新插入行的自增主键回填到实体中</#if>
+     */
+    int upsertBatch(@Param("list") List<${entityName}> list);
+
     /**
      * 根据ID更新
      */
     int updateById(${entityName} entity);
+<#if nonKeyColumns?has_content>
+
+    /**
+     * 根据ID批量更新（每列一个CASE表达式，为null的字段不更新），调用方负责控制每批的行数
+     */
+    int updateBatchById(@Param("list") List<${entityName}> list);
+</#if>
 
     /**
      * 根据ID删除
      */
-    int deleteById(@Param("${primaryKey.javaFieldName}") ${primaryKey.javaType} ${primaryKey.javaFieldName});
+    int deleteById(<#list primaryKeys as pk>@Param("${pk.javaFieldName}") ${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>);
 
     /**
-     * 批量删除
+     * 批量删除<#if compositeKey>（ids中每个元素只需填写主键字段）</#if>
      */
-    int deleteBatchByIds(@Param("ids") List<${primaryKey.javaType}> ids);
+    int deleteBatchByIds(@Param("ids") List<${idType}> ids);
 }
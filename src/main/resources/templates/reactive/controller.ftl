@@ -0,0 +1,139 @@
+package ${packageName}.controller;
+
+import ${packageName}.entity.${entityName};
+import ${packageName}.service.I${entityName}Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ${entityName} Controller（WebFlux）
+ * 
+ * @author tongysh
+ */
+@RestController
+@RequestMapping("/api/${entityVarName}")
+public class ${entityName}Controller {
+
+    @Autowired
+    private I${entityName}Service ${entityVarName}Service;
+
+    /**
+     * 根据ID查询
+     */
+    @GetMapping("/{${primaryKey.javaFieldName}}")
+    public Mono<${entityName}> getById(@PathVariable ${primaryKey.javaType} ${primaryKey.javaFieldName}) {
+        return ${entityVarName}Service.getById(${primaryKey.javaFieldName});
+    }
+
+    /**
+     * 根据多个ID查询
+     */
+    @PostMapping("/ids")
+    public Flux<${entityName}> getByIds(@RequestBody List<${primaryKey.javaType}> ids) {
+        return ${entityVarName}Service.getByIds(ids);
+    }
+
+    /**
+     * 判断ID是否存在
+     */
+    @GetMapping("/exists/{${primaryKey.javaFieldName}}")
+    public Mono<Boolean> existsById(@PathVariable ${primaryKey.javaType} ${primaryKey.javaFieldName}) {
+        return ${entityVarName}Service.existsById(${primaryKey.javaFieldName});
+    }
+
+    /**
+     * 统计多个ID中存在的记录数
+     */
+    @PostMapping("/ids/count")
+    public Mono<Long> countByIds(@RequestBody List<${primaryKey.javaType}> ids) {
+        return ${entityVarName}Service.countByIds(ids);
+    }
+
+    /**
+     * 分页条件查询
+     */
+    @PostMapping("/page")
+    public Mono<Map<String, Object>> getByPage(@RequestBody Map<String, Object> params) {
+        return ${entityVarName}Service.getByPage(params);
+    }
+
+    /**
+     * 条件查询所有记录（不分页）
+     */
+    @PostMapping("/all")
+    public Flux<${entityName}> getAll(@RequestBody Map<String, Object> params) {
+        return ${entityVarName}Service.getAll(params);
+    }
+
+    /**
+     * 条件流式导出所有记录（NDJSON），按客户端的读取速度逐条查询和写出
+     */
+    @PostMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<${entityName}> export(@RequestBody Map<String, Object> params) {
+        return ${entityVarName}Service.exportAll(params);
+    }
+
+    /**
+     * 创建
+     */
+    @PostMapping
+    public Mono<Integer> create(@RequestBody ${entityName} ${entityVarName}) {
+        return ${entityVarName}Service.create(${entityVarName});
+    }
+
+    /**
+     * 批量创建
+     */
+    @PostMapping("/batch")
+    public Mono<Integer> createBatch(@RequestBody List<${entityName}> list) {
+        return ${entityVarName}Service.createBatch(list);
+    }
+
+    /**
+     * 批量创建或更新
+     */
+    @PutMapping("/batch")
+    public Mono<Integer> upsertBatch(@RequestBody List<${entityName}> list) {
+        return ${entityVarName}Service.upsertBatch(list);
+    }
+
+    /**
+     * 根据ID更新
+     */
+    @PutMapping
+    public Mono<Integer> update(@RequestBody ${entityName} ${entityVarName}) {
+        return ${entityVarName}Service.updateById(${entityVarName});
+    }
+
+    /**
+     * 根据ID批量更新，为null的字段不更新
+     */
+    @PatchMapping("/batch")
+    public Mono<Integer> updateBatch(@RequestBody List<${entityName}> list) {
+        return ${entityVarName}Service.updateBatchById(list);
+    }
+
+    /**
+     * 根据ID删除
+     */
+    @DeleteMapping("/{${primaryKey.javaFieldName}}")
+    public Mono<Integer> deleteById(@PathVariable ${primaryKey.javaType} ${primaryKey.javaFieldName}) {
+        return ${entityVarName}Service.deleteById(${primaryKey.javaFieldName});
+    }
+
+    /**
+     * 批量删除
+     */
+    @DeleteMapping("/batch")
+    public Mono<Integer> deleteBatch(@RequestBody List<${primaryKey.javaType}> ids) {
+        return ${entityVarName}Service.deleteBatchByIds(ids);
+    }
+}
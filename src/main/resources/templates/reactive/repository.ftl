@@ -0,0 +1,15 @@
+package ${packageName}.repository;
+
+import ${packageName}.entity.${entityName};
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
+
+/**
+ * ${entityName} Repository（R2DBC），按ID的读取由此完成，条件查询和写入见Service实现类
+ * 
+ * @author tongysh
+ */
+public interface ${entityName}Repository extends R2dbcRepository<${entityName}, ${primaryKey.javaType}> {
+}
@@ -0,0 +1,406 @@
+<#assign pkField = primaryKey.javaFieldName>
+<#assign pkType = primaryKey.javaType>
+<#assign updateColumns = columns?filter(column -> !column.primaryKey)>
+package ${packageName}.service.impl;
+
+import ${packageName}.entity.${entityName};
+import ${packageName}.repository.${entityName}Repository;
+import ${packageName}.service.I${entityName}Service;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.relational.core.query.Criteria;
+import org.springframework.data.relational.core.query.Query;
+import org.springframework.data.relational.core.query.Update;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+<#list imports as javaImport>
+import ${javaImport};
+</#list>
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * ${entityName} Service实现类（R2DBC）
+ * 
+ * @author tongysh
+ */
+@Service
+public class ${entityName}ServiceImpl implements I${entityName}Service {
+
+    /**
+     * 按ID批量查询、统计和删除时每条语句的最大ID个数
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    /**
+     * 列表查询默认的列（不含大字段）
+     */
+    private static final List<String> LIST_COLUMNS = List.of(<#list listColumns as column>"${column.columnName}"<#sep>, </#sep></#list>);
+
+    /**
+     * 列表查询可以通过 fields 参数指定的字段及对应的列名（不含大字段）
+     */
+    private static final Map<String, String> LIST_FIELDS = Map.ofEntries(
+<#list listColumns as column>
+            Map.entry("${column.javaFieldName}", "${column.columnName}")<#sep>,</#sep>
+</#list>
+    );
+
+    /**
+     * 可以排序的列名及对应的字段
+     */
+    private static final Map<String, String> SORT_FIELDS = Map.ofEntries(
+<#list columns as column>
+            Map.entry("${column.columnName}", "${column.javaFieldName}")<#sep>,</#sep>
+</#list>
+    );
+
+    /**
+     * 批量创建或更新的SQL（主键或唯一键已存在时更新其余字段，为null的字段保持原值）
+     */
+    private static final String UPSERT_SQL = "INSERT INTO ${tableName} (<#list columns as column>${column.columnName}<#sep>, </#sep></#list>)"
+            + " VALUES (<#list columns as column>:${column.javaFieldName}<#sep>, </#sep></#list>)"
+            + " ON DUPLICATE KEY UPDATE <#if updateColumns?has_content><#list updateColumns as column>${column.columnName} = COALESCE(VALUES(${column.columnName}), ${column.columnName})<#sep>, </#sep></#list><#else>${primaryKey.columnName} = ${primaryKey.columnName}</#if>";
+
+    @Autowired
+    private ${entityName}Repository ${entityVarName}Repository;
+
+    @Autowired
+    private R2dbcEntityTemplate r2dbcEntityTemplate;
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    /**
+     * 根据ID查询
+     */
+    @Override
+    public Mono<${entityName}> getById(${pkType} ${pkField}) {
+        return ${entityVarName}Repository.findById(${pkField});
+    }
+
+    /**
+     * 根据多个ID查询，不保证返回顺序
+     */
+    @Override
+    public Flux<${entityName}> getByIds(List<${pkType}> ids) {
+        return Flux.fromIterable(distinctChunks(ids))
+                .concatMap(chunk -> ${entityVarName}Repository.findAllById(chunk));
+    }
+
+    /**
+     * 判断ID是否存在
+     */
+    @Override
+    public Mono<Boolean> existsById(${pkType} ${pkField}) {
+        return ${entityVarName}Repository.existsById(${pkField});
+    }
+
+    /**
+     * 统计多个ID中存在的记录数（重复的ID只计一次）
+     */
+    @Override
+    public Mono<Long> countByIds(List<${pkType}> ids) {
+        return Flux.fromIterable(distinctChunks(ids))
+                .concatMap(chunk -> r2dbcEntityTemplate.count(
+                        Query.query(Criteria.where("${pkField}").in(chunk)), ${entityName}.class))
+                .reduce(0L, Long::sum);
+    }
+
+    /**
+     * 分页条件查询
+     */
+    @Override
+    public Mono<Map<String, Object>> getByPage(Map<String, Object> params) {
+        // 计算分页参数
+        int page = params.get("page") != null ? (Integer) params.get("page") : 1;
+        int pageSize = params.get("pageSize") != null ? (Integer) params.get("pageSize") : 10;
+        int offset = (page - 1) * pageSize;
+
+        Criteria criteria = filterCriteria(params);
+        Query query = Query.query(criteria)
+                .columns(selectColumns(params))
+                .sort(sort(params.get("orderBy")))
+                .offset(offset)
+<#if countStrategy == "HAS_NEXT">
+                .limit(pageSize + 1);
+
+        // 多查一条记录判断是否有下一页，不统计总数
+        return r2dbcEntityTemplate.select(query, ${entityName}.class)
+                .collectList()
+                .map(list -> {
+                    boolean hasNext = list.size() > pageSize;
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("list", hasNext ? list.subList(0, pageSize) : list);
+                    result.put("page", page);
+                    result.put("pageSize", pageSize);
+                    result.put("hasNext", hasNext);
+                    return result;
+                });
+<#else>
+                .limit(pageSize);
+
+        // 查询数据与统计总数并发执行
+        return Mono.zip(r2dbcEntityTemplate.select(query, ${entityName}.class).collectList(),
+                        r2dbcEntityTemplate.count(Query.query(criteria), ${entityName}.class))
+                .map(tuple -> {
+                    long total = tuple.getT2();
+                    Map<String, Object> result = new HashMap<>();
+                    result.put("list", tuple.getT1());
+                    result.put("total", total);
+                    result.put("page", page);
+                    result.put("pageSize", pageSize);
+                    result.put("totalPages", (total + pageSize - 1) / pageSize);
+                    return result;
+                });
+</#if>
+    }
+
+    /**
+     * 条件查询所有记录（不分页）
+     */
+    @Override
+    public Flux<${entityName}> getAll(Map<String, Object> params) {
+        Query query = Query.query(filterCriteria(params))
+                .columns(selectColumns(params))
+                .sort(sort(params.get("orderBy")));
+        return r2dbcEntityTemplate.select(query, ${entityName}.class);
+    }
+
+    /**
+     * 条件查询所有记录的完整字段，结果随订阅方的请求逐批读取，不在内存中保留
+     */
+    @Override
+    public Flux<${entityName}> exportAll(Map<String, Object> params) {
+        Query query = Query.query(filterCriteria(params))
+                .sort(sort(params.get("orderBy")));
+        return r2dbcEntityTemplate.select(query, ${entityName}.class);
+    }
+
+    /**
+     * 创建
+     */
+    @Override
+    public Mono<Integer> create(${entityName} ${entityVarName}) {
+        return r2dbcEntityTemplate.insert(${entityVarName}).thenReturn(1);
+    }
+
+    /**
+     * 批量创建
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Integer> createBatch(List<${entityName}> list) {
+        return Flux.fromIterable(list)
+                .concatMap(row -> r2dbcEntityTemplate.insert(row))
+                .count()
+                .map(Long::intValue);
+    }
+
+    /**
+     * 批量创建或更新
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Integer> upsertBatch(List<${entityName}> list) {
+        return Flux.fromIterable(list)
+                .concatMap(row -> bindRow(databaseClient.sql(UPSERT_SQL), row).fetch().rowsUpdated())
+                .reduce(0L, Long::sum)
+                .map(Long::intValue);
+    }
+
+    /**
+     * 根据ID更新，为null的字段不更新
+     */
+    @Override
+    public Mono<Integer> updateById(${entityName} ${entityVarName}) {
+        Update update = null;
+<#list updateColumns as column>
+        if (${entityVarName}.get${column.javaFieldName?cap_first}() != null) {
+            update = update == null
+                    ? Update.update("${column.javaFieldName}", ${entityVarName}.get${column.javaFieldName?cap_first}())
+                    : update.set("${column.javaFieldName}", ${entityVarName}.get${column.javaFieldName?cap_first}());
+        }
+</#list>
+        if (update == null) {
+            return Mono.just(0);
+        }
+        return r2dbcEntityTemplate.update(${entityName}.class)
+                .matching(Query.query(Criteria.where("${pkField}").is(${entityVarName}.get${pkField?cap_first}())))
+                .apply(update)
+                .map(Long::intValue);
+    }
+
+    /**
+     * 根据ID批量更新，在一个事务中逐行执行
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Integer> updateBatchById(List<${entityName}> list) {
+        return Flux.fromIterable(list)
+                .concatMap(this::updateById)
+                .reduce(0, Integer::sum);
+    }
+
+    /**
+     * 根据ID删除
+     */
+    @Override
+    public Mono<Integer> deleteById(${pkType} ${pkField}) {
+        return r2dbcEntityTemplate.delete(Query.query(Criteria.where("${pkField}").is(${pkField})), ${entityName}.class)
+                .map(Long::intValue);
+    }
+
+    /**
+     * 批量删除
+     */
+    @Override
+    @Transactional(rollbackFor = Exception.class)
+    public Mono<Integer> deleteBatchByIds(List<${pkType}> ids) {
+        return Flux.fromIterable(distinctChunks(ids))
+                .concatMap(chunk -> r2dbcEntityTemplate.delete(
+                        Query.query(Criteria.where("${pkField}").in(chunk)), ${entityName}.class))
+                .reduce(0L, Long::sum)
+                .map(Long::intValue);
+    }
+
+    /**
+     * 根据params生成过滤条件，规则与MyBatis版本的 Filter_Conditions 一致。
+     * Criteria 不支持 MATCH ... AGAINST，只有全文索引的列按无索引处理
+     */
+    private static Criteria filterCriteria(Map<String, Object> params) {
+        Criteria criteria = Criteria.empty();
+        Object value;
+<#list columns as column>
+    <#assign unindexed = filterIndexMode != "ALL" && column.javaType != "byte[]" && !column.indexed>
+    <#if column.javaType == "byte[]" || (unindexed && filterIndexMode == "INDEXED")>
+        <#-- 二进制列和 INDEXED 模式下无索引的列不生成过滤条件 -->
+    <#elseif column.javaType == "String">
+        <#if unindexed>
+        // ${column.columnName} 没有索引，按此列过滤可能全表扫描
+        </#if>
+        value = params.get("${column.javaFieldName}");
+        if (value != null && !"".equals(value)) {
+        <#if filterIndexMode != "ALL" && column.indexed>
+            criteria = criteria.and("${column.javaFieldName}").like(value + "%");
+        <#else>
+            criteria = criteria.and("${column.javaFieldName}").like("%" + value + "%");
+        </#if>
+        }
+    <#else>
+        <#if unindexed>
+        // ${column.columnName} 没有索引，按此列过滤可能全表扫描
+        </#if>
+        <#if column.javaType == "BigDecimal" || column.javaType == "BigInteger" || column.javaType == "Float" || column.javaType == "Double">
+        value = params.get("${column.javaFieldName}");
+        if (value != null) {
+            criteria = criteria.and("${column.javaFieldName}").is(value);
+        }
+        value = params.get("${column.javaFieldName}Min");
+        if (value != null) {
+            criteria = criteria.and("${column.javaFieldName}").greaterThanOrEquals(value);
+        }
+        value = params.get("${column.javaFieldName}Max");
+        if (value != null) {
+            criteria = criteria.and("${column.javaFieldName}").lessThanOrEquals(value);
+        }
+        <#elseif column.javaType == "LocalDateTime" || column.javaType == "LocalDate" || column.javaType == "LocalTime" || column.javaType == "OffsetDateTime" || column.javaType == "OffsetTime">
+        value = params.get("${column.javaFieldName}Start");
+        if (value != null) {
+            criteria = criteria.and("${column.javaFieldName}").greaterThanOrEquals(value);
+        }
+        value = params.get("${column.javaFieldName}End");
+        if (value != null) {
+            criteria = criteria.and("${column.javaFieldName}").lessThanOrEquals(value);
+        }
+        <#else>
+        value = params.get("${column.javaFieldName}");
+        if (value != null) {
+            criteria = criteria.and("${column.javaFieldName}").is(value);
+        }
+        </#if>
+    </#if>
+</#list>
+        return criteria;
+    }
+
+    /**
+     * 解析排序参数（如 "create_time desc, id"），只允许按表中的列排序
+     *
+     * @throws IllegalArgumentException 包含不存在的列或无法识别的排序方向
+     */
+    private static Sort sort(Object orderBy) {
+        if (orderBy == null || orderBy.toString().trim().isEmpty()) {
+            return Sort.unsorted();
+        }
+        List<Sort.Order> orders = new ArrayList<>();
+        for (String item : orderBy.toString().split(",")) {
+            String[] parts = item.trim().split("\\s+");
+            String field = SORT_FIELDS.get(parts[0]);
+            boolean desc = parts.length == 2 && parts[1].equalsIgnoreCase("desc");
+            if (field == null || parts.length > 2 || (parts.length == 2 && !desc && !parts[1].equalsIgnoreCase("asc"))) {
+                throw new IllegalArgumentException("不支持的排序: " + item);
+            }
+            orders.add(desc ? Sort.Order.desc(field) : Sort.Order.asc(field));
+        }
+        return Sort.by(orders);
+    }
+
+    /**
+     * 校验 fields 参数（字段名列表或逗号分隔的字符串）并转换为列名，未指定时返回默认的列表字段
+     *
+     * @throws IllegalArgumentException fields 中包含不存在或不能在列表中查询的字段
+     */
+    private static List<String> selectColumns(Map<String, Object> params) {
+        Object fields = params.get("fields");
+        if (fields == null || "".equals(fields)) {
+            return LIST_COLUMNS;
+        }
+        Collection<?> names = fields instanceof Collection<?> collection
+                ? collection : Arrays.asList(fields.toString().split(","));
+        List<String> columns = new ArrayList<>();
+        for (Object name : names) {
+            String column = name == null ? null : LIST_FIELDS.get(name.toString().trim());
+            if (column == null) {
+                throw new IllegalArgumentException("不支持查询的字段: " + name);
+            }
+            columns.add(column);
+        }
+        return columns.isEmpty() ? LIST_COLUMNS : columns;
+    }
+
+    /**
+     * ID去重、去掉null后按 ID_CHUNK_SIZE 分块
+     */
+    private static List<List<${pkType}>> distinctChunks(List<${pkType}> ids) {
+        List<${pkType}> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+        List<List<${pkType}>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += ID_CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + ID_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 绑定一行的所有字段，null值需要指定类型
+     */
+    private static DatabaseClient.GenericExecuteSpec bindRow(DatabaseClient.GenericExecuteSpec spec, ${entityName} row) {
+<#list columns as column>
+        spec = row.get${column.javaFieldName?cap_first}() != null
+                ? spec.bind("${column.javaFieldName}", row.get${column.javaFieldName?cap_first}())
+                : spec.bindNull("${column.javaFieldName}", ${column.javaType}.class);
+</#list>
+        return spec;
+    }
+}
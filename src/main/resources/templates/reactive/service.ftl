@@ -0,0 +1,89 @@
+package ${packageName}.service;
+
+import ${packageName}.entity.${entityName};
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ${entityName} Service接口（响应式）
+ * 
+ * @author tongysh
+ */
+public interface I${entityName}Service {
+
+    /**
+     * 根据ID查询
+     */
+    Mono<${entityName}> getById(${primaryKey.javaType} ${primaryKey.javaFieldName});
+
+    /**
+     * 根据多个ID查询，ID个数较多时自动分块，不存在的ID没有对应记录
+     */
+    Flux<${entityName}> getByIds(List<${primaryKey.javaType}> ids);
+
+    /**
+     * 判断ID是否存在
+     */
+    Mono<Boolean> existsById(${primaryKey.javaType} ${primaryKey.javaFieldName});
+
+    /**
+     * 统计多个ID中存在的记录数
+     */
+    Mono<Long> countByIds(List<${primaryKey.javaType}> ids);
+
+    /**
+     * 分页条件查询，<#if countStrategy == "HAS_NEXT">返回list、page、pageSize和hasNext（不统计总数）<#else>返回list、total、page、pageSize和totalPages（查询数据与统计总数并发执行）</#if>。
+     * params中fields可以指定查询的字段（字段名列表或逗号分隔），未指定时查询大字段以外的所有字段
+     */
+    Mono<Map<String, Object>> getByPage(Map<String, Object> params);
+
+    /**
+     * 条件查询所有记录（不分页），同样支持fields
+     */
+    Flux<${entityName}> getAll(Map<String, Object> params);
+
+    /**
+     * 条件查询所有记录的完整字段，按订阅方的消费速度逐条读取（用于导出）
+     */
+    Flux<${entityName}> exportAll(Map<String, Object> params);
+
+    /**
+     * 创建<#if autoIncrementKey??>，自增主键回填到实体中</#if>
+     */
+    Mono<Integer> create(${entityName} ${entityVarName});
+
+    /**
+     * 批量创建，在一个事务中逐行插入
+     */
+    Mono<Integer> createBatch(List<${entityName}> list);
+
+    /**
+     * 批量创建或更新（主键或唯一键已存在时更新其余字段），在一个事务中逐行执行
+     */
+    Mono<Integer> upsertBatch(List<${entityName}> list);
+
+    /**
+     * 根据ID更新，为null的字段不更新
+     */
+    Mono<Integer> updateById(${entityName} ${entityVarName});
+
+    /**
+     * 根据ID批量更新，为null的字段不更新
+     */
+    Mono<Integer> updateBatchById(List<${entityName}> list);
+
+    /**
+     * 根据ID删除
+     */
+    Mono<Integer> deleteById(${primaryKey.javaType} ${primaryKey.javaFieldName});
+
+    /**
+     * 批量删除
+     */
+    Mono<Integer> deleteBatchByIds(List<${primaryKey.javaType}> ids);
+}
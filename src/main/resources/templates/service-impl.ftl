@@ -1,13 +1,148 @@
+<#assign idType = compositeKey?then(entityName, primaryKey.javaType)>
+<#-- 游标中的字符串值还原为列的Java类型 -->
+<#function parseCursorValue column expr>
+    <#local qualifiedType = column.javaImport!column.javaType>
+    <#switch column.javaType>
+        <#case "String">
+            <#return expr>
+        <#case "BigDecimal">
+        <#case "BigInteger">
+            <#return "new " + qualifiedType + "(" + expr + ")">
+        <#case "UUID">
+            <#return qualifiedType + ".fromString(" + expr + ")">
+        <#case "LocalDate">
+        <#case "LocalDateTime">
+        <#case "LocalTime">
+        <#case "OffsetDateTime">
+        <#case "OffsetTime">
+            <#return qualifiedType + ".parse(" + expr + ")">
+        <#default>
+            <#return column.javaType + ".valueOf(" + expr + ")">
+    </#switch>
+</#function>
+<#-- 实体缓存的键：单主键为主键值，联合主键为各主键值组成的List -->
+<#assign cacheKeyType = compositeKey?then("List<Object>", primaryKey.javaType)>
+<#function cacheKeyOf values>
+    <#if compositeKey>
+        <#return "Arrays.<Object>asList(" + values?join(", ") + ")">
+    </#if>
+    <#return values[0]>
+</#function>
+<#assign idCacheKey = cacheKeyOf(primaryKeys?map(pk -> pk.javaFieldName))>
+<#-- 按ID批量更新（CASE形式）时每行额外的SQL文本：每个非主键列一个 WHEN 主键条件 THEN 值 分支，以及 WHERE 中的主键条件 -->
+<#assign keyConditionBytes = 0>
+<#list primaryKeys as pk>
+    <#assign keyConditionBytes += pk.columnName?length + 9>
+</#list>
+<#assign caseRowBytes = keyConditionBytes + 8>
+<#list nonKeyColumns as column>
+    <#assign caseRowBytes += 32 + keyConditionBytes + column.columnName?length>
+</#list>
+<#-- 开启指标时为Service方法生成计时注解，按表名和操作打标签；开启直方图时发布耗时分位数直方图 -->
+<#macro timed operation>
+<#if metrics>
+    @Timed(value = "crud.service", extraTags = {"table", "${tableName}", "operation", "${operation}"}<#if metricsHistograms>, histogram = true</#if>)
+</#if>
+</#macro>
+<#-- 开启读写分离时查询方法在只读事务中执行，路由到从库 -->
+<#macro readOnly>
+<#if readWriteSplit>
+    @Transactional(readOnly = true)
+</#if>
+</#macro>
 package ${packageName}.service.impl;
 
 import ${packageName}.entity.${entityName};
 import ${packageName}.mapper.${entityName}Mapper;
 import ${packageName}.service.I${entityName}Service;
+<#if entityCache>
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+</#if>
+<#if metrics>
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+</#if>
+<#if entityCache || metrics>
+import io.micrometer.core.instrument.MeterRegistry;
+</#if>
+<#if metrics>
+import io.micrometer.core.instrument.Metrics;
+</#if>
+<#if entityCache>
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+</#if>
+<#if entityCache || metrics>
+import jakarta.annotation.PostConstruct;
+</#if>
+import org.apache.ibatis.cursor.Cursor;
+<#if batchExecutor>
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.mybatis.spring.SqlSessionTemplate;
+</#if>
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+<#if countStrategy == "PARALLEL" && readWriteSplit>
+import org.springframework.transaction.PlatformTransactionManager;
+</#if>
+import org.springframework.transaction.annotation.Transactional;
+<#if entityCache>
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+</#if>
+<#if countStrategy == "PARALLEL" && readWriteSplit>
+import org.springframework.transaction.support.TransactionTemplate;
+</#if>
+import java.io.IOException;
+import java.io.UncheckedIOException;
+<#if entityCache>
+import java.time.Duration;
+</#if>
+<#if cursorColumns?has_content>
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+</#if>
+import java.util.ArrayList;
+import java.util.Arrays;
+<#if !batchExecutor>
+import java.util.BitSet;
+</#if>
+import java.util.Collection;
+<#if entityCache>
+import java.util.Collections;
+</#if>
 import java.util.HashMap;
+<#if entityCache || !batchExecutor>
+import java.util.LinkedHashMap;
+</#if>
+import java.util.LinkedHashSet;
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+<#if countStrategy == "ESTIMATED" || countStrategy == "CACHED">
+import java.util.TreeMap;
+</#if>
+<#if countStrategy == "PARALLEL">
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+</#if>
+<#if countStrategy == "CACHED">
+import java.util.concurrent.ConcurrentHashMap;
+</#if>
+<#if countStrategy == "PARALLEL">
+import java.util.concurrent.Executor;
+</#if>
+<#if batchExecutor>
+import java.util.function.BiConsumer;
+</#if>
+import java.util.function.Consumer;
 
 /**
  * ${entityName} Service实现类
@@ -17,32 +152,422 @@ import java.util.Map;
 @Service
 public class ${entityName}ServiceImpl implements I${entityName}Service {
 
+    /**
+     * 按ID批量查询、统计时每条语句的最大ID个数
+     */
+    private static final int ID_CHUNK_SIZE = 1000;
+
+    /**
+     * 批量写入每条语句的最大行数
+     */
+    private static final int BATCH_MAX_ROWS = ${batchMaxRows?c};
+<#if !batchExecutor>
+
+    /**
+     * 批量写入每条语句的最大字节数（应小于数据库的 max_allowed_packet）
+     */
+    private static final long BATCH_MAX_BYTES = ${batchMaxBytes?c}L;
+
+    /**
+     * 单条预处理语句的参数个数上限
+     */
+    private static final int MAX_PLACEHOLDERS = 65535;
+
+    /**
+     * 每行中定长字段、分隔符等的估算字节数
+     */
+    private static final long FIXED_ROW_BYTES = ${(8 + columns?size * 24)?c}L;
+<#if nonKeyColumns?has_content>
+
+    /**
+     * 按ID批量更新每条语句的最大行数。每行在每个非主键列的CASE中各有一个WHEN分支，
+     * 数据库逐个分支匹配，开销随行数平方增长，批次比插入小得多
+     */
+    private static final int UPDATE_BATCH_MAX_ROWS = Math.min(BATCH_MAX_ROWS, 50);
+
+    /**
+     * 按ID批量更新时每行在行数据之外的SQL文本字节数（CASE分支和WHERE条件）
+     */
+    private static final long CASE_ROW_BYTES = ${caseRowBytes?c}L;
+</#if>
+</#if>
+<#if countStrategy == "ESTIMATED" || countStrategy == "CACHED">
+
+    /**
+     * 分页、排序参数，不属于过滤条件
+     */
+    private static final Set<String> PAGING_KEYS = Set.of("page", "pageSize", "offset", "limit", "orderBy",
+            "fields", "selectColumns");
+</#if>
+<#if countStrategy == "CACHED">
+
+    /**
+     * 总数缓存的有效期（毫秒）
+     */
+    private static final long COUNT_CACHE_MILLIS = ${(countCacheSeconds * 1000)?c}L;
+
+    /**
+     * 总数缓存的最大条目数
+     */
+    private static final int COUNT_CACHE_MAX_SIZE = 1000;
+
+    /**
+     * 按过滤条件缓存的总数，有效期内新增或删除的数据不会反映在总数中
+     */
+    private final Map<String, CachedCount> countCache = new ConcurrentHashMap<>();
+</#if>
+
+    /**
+     * 列表查询可以通过 fields 参数指定的字段及对应的列名（不含大字段）
+     */
+    private static final Map<String, String> LIST_FIELDS = Map.ofEntries(
+<#list listColumns as column>
+            Map.entry("${column.javaFieldName}", "${column.columnName}")<#sep>,</#sep>
+</#list>
+    );
+
     @Autowired
     private ${entityName}Mapper ${entityVarName}Mapper;
+<#if entityCache>
+
+    /**
+     * 按主键缓存的实体，容量 ${cacheMaxSize?c} 条，写入 ${cacheTtlSeconds?c} 秒后过期。
+     * 本服务内的更新和删除在事务提交后失效对应条目（不在事务中时立即失效），其他途径对数据库的修改在过期后才可见。
+     * 读写事务中的查询不读也不写缓存，事务内能读到自己的修改，未提交的数据也不会进入缓存
+     */
+    private final Cache<${cacheKeyType}, ${entityName}> entityCache = Caffeine.newBuilder()
+            .maximumSize(${cacheMaxSize?c})
+            .expireAfterWrite(Duration.ofSeconds(${cacheTtlSeconds?c}))
+            .recordStats()
+            .build();
+</#if>
+<#if metrics>
+
+    /**
+     * 各查询返回的行数（crud.rows.returned）和批量删除影响的行数（crud.rows.affected），
+     * 没有 MeterRegistry 时注册到全局注册表
+     */
+    private DistributionSummary pageRows;
+
+    private DistributionSummary allRows;
+<#if cursorColumns?has_content>
+
+    private DistributionSummary cursorRows;
+</#if>
+
+    private Counter deletedRows;
+</#if>
+<#if entityCache || metrics>
+
+    @Autowired(required = false)
+    private MeterRegistry meterRegistry;
+</#if>
+<#if batchExecutor>
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+</#if>
+<#if countStrategy == "PARALLEL">
+
+    /**
+     * 执行总数查询的线程池（Spring Boot 自动配置的 applicationTaskExecutor）
+     */
+    @Autowired
+    private Executor taskExecutor;
+<#if readWriteSplit>
+
+    /**
+     * 并发统计总数的线程不在调用方的事务中，在单独的只读事务中执行以路由到从库
+     */
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+</#if>
+</#if>
+
+<#if entityCache || metrics>
+    /**
+     * 注册指标：<#if entityCache>缓存的命中率、容量等（cache.gets、cache.size 等，标签 cache=${entityVarName}）</#if><#if entityCache && metrics>；</#if><#if metrics>查询返回和批量删除影响的行数（标签 table、operation）</#if>
+     */
+    @PostConstruct
+    public void bindMetrics() {
+<#if entityCache>
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, entityCache, "${entityVarName}");
+        }
+</#if>
+<#if metrics>
+        MeterRegistry registry = meterRegistry != null ? meterRegistry : Metrics.globalRegistry;
+        pageRows = rowsReturned(registry, "getByPage");
+        allRows = rowsReturned(registry, "getAll");
+<#if cursorColumns?has_content>
+        cursorRows = rowsReturned(registry, "getByCursor");
+</#if>
+        deletedRows = Counter.builder("crud.rows.affected")
+                .description("批量删除影响的行数")
+                .tags("table", "${tableName}", "operation", "deleteBatchByIds")
+                .register(registry);
+</#if>
+    }
 
+<#if metrics>
+    private static DistributionSummary rowsReturned(MeterRegistry registry, String operation) {
+        return DistributionSummary.builder("crud.rows.returned")
+                .description("查询返回的行数")
+                .tags("table", "${tableName}", "operation", operation)
+<#if metricsHistograms>
+                .publishPercentileHistogram()
+</#if>
+                .register(registry);
+    }
+
+</#if>
+</#if>
+<#if entityCache>
+    /**
+     * 根据ID查询，优先读取缓存，未命中时查询数据库并写入缓存（不缓存不存在的记录）；读写事务中直接查询数据库
+     */
+    @Override
+<@timed "getById"/>
+<@readOnly/>
+    public ${entityName} getById(<#list primaryKeys as pk>${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>) {
+        if (inReadWriteTransaction()) {
+            return ${entityVarName}Mapper.selectById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
+        }
+        return entityCache.get(${idCacheKey}, key -> ${entityVarName}Mapper.selectById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>));
+    }
+<#else>
     /**
      * 根据ID查询
      */
     @Override
-    public ${entityName} getById(${primaryKey.javaType} ${primaryKey.javaFieldName}) {
-        return ${entityVarName}Mapper.selectById(${primaryKey.javaFieldName});
+<@timed "getById"/>
+<@readOnly/>
+    public ${entityName} getById(<#list primaryKeys as pk>${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>) {
+        return ${entityVarName}Mapper.selectById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
+    }
+</#if>
+
+    /**
+     * 根据多个ID查询<#if entityCache>，缓存中已有的记录不再查询</#if>，不存在的ID没有对应记录，不保证返回顺序
+     */
+    @Override
+<@timed "getByIds"/>
+<@readOnly/>
+    public List<${entityName}> getByIds(List<${idType}> ids) {
+<#if entityCache>
+        if (inReadWriteTransaction()) {
+            return loadByIds(ids);
+        }
+        Map<${cacheKeyType}, ${idType}> idsByKey = new LinkedHashMap<>();
+        for (${idType} id : ids) {
+            if (id != null) {
+                idsByKey.put(<#if compositeKey>cacheKey(id)<#else>id</#if>, id);
+            }
+        }
+        Map<${cacheKeyType}, ${entityName}> found = entityCache.getAll(idsByKey.keySet(), keys -> {
+            Map<${cacheKeyType}, ${entityName}> loaded = new HashMap<>();
+            for (${entityName} row : loadByIds(keys.stream().map(idsByKey::get).toList())) {
+                loaded.put(cacheKey(row), row);
+            }
+            return loaded;
+        });
+        return new ArrayList<>(found.values());
+<#else>
+        return loadByIds(ids);
+</#if>
+    }
+
+    /**
+     * 判断ID是否存在
+     */
+    @Override
+<@timed "existsById"/>
+<@readOnly/>
+    public boolean existsById(<#list primaryKeys as pk>${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>) {
+<#if entityCache>
+        if (!inReadWriteTransaction() && entityCache.getIfPresent(${idCacheKey}) != null) {
+            return true;
+        }
+</#if>
+        return ${entityVarName}Mapper.existsById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
+    }
+
+    /**
+     * 统计多个ID中存在的记录数（重复的ID只计一次）
+     */
+    @Override
+<@timed "countByIds"/>
+<@readOnly/>
+    public int countByIds(List<${idType}> ids) {
+        int count = 0;
+        for (List<${idType}> chunk : distinctChunks(ids)) {
+            count += ${entityVarName}Mapper.countByIds(chunk);
+        }
+        return count;
     }
 
     /**
      * 分页条件查询
+<#switch countStrategy>
+    <#case "HAS_NEXT">
+     * <p>
+     * 不统计总数，多查一条记录判断是否还有下一页
+        <#break>
+    <#case "PARALLEL">
+     * <p>
+     * 查询数据与统计总数在两个连接上并发执行<#if readWriteSplit>，总数在单独的只读事务中统计（从库），看不到调用方事务中未提交的写入</#if>
+        <#break>
+    <#case "ESTIMATED">
+     * <p>
+     * 没有过滤条件时使用 information_schema.TABLES 中的估算行数作为总数（totalEstimated为true），
+     * 有过滤条件时统计精确总数
+        <#break>
+    <#case "CACHED">
+     * <p>
+     * 相同过滤条件的总数在 ${countCacheSeconds?c} 秒内复用
+        <#break>
+</#switch>
      */
     @Override
+<@timed "getByPage"/>
+<@readOnly/>
     public Map<String, Object> getByPage(Map<String, Object> params) {
+        applyProjection(params);
+        
         // 计算分页参数
         int page = params.get("page") != null ? (Integer) params.get("page") : 1;
         int pageSize = params.get("pageSize") != null ? (Integer) params.get("pageSize") : 10;
         int offset = (page - 1) * pageSize;
         
         params.put("offset", offset);
+<#switch countStrategy>
+    <#case "HAS_NEXT">
+        params.put("limit", pageSize + 1);
+        
+        // 查询数据，多出的一条只用于判断是否有下一页
+        List<${entityName}> list = ${entityVarName}Mapper.selectByPage(params);
+<#if metrics>
+        pageRows.record(list.size());
+</#if>
+        boolean hasNext = list.size() > pageSize;
+        if (hasNext) {
+            list = list.subList(0, pageSize);
+        }
+        
+        // 封装结果
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", list);
+        result.put("page", page);
+        result.put("pageSize", pageSize);
+        result.put("hasNext", hasNext);
+        
+        return result;
+    }
+        <#break>
+    <#case "PARALLEL">
+        params.put("limit", pageSize);
+        
+        // 统计总数与查询数据并发执行
+        Map<String, Object> countParams = new HashMap<>(params);
+<#if readWriteSplit>
+        TransactionTemplate readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        CompletableFuture<Integer> totalFuture = CompletableFuture.supplyAsync(
+                () -> readOnlyTransaction.execute(status -> ${entityVarName}Mapper.countByCondition(countParams)), taskExecutor);
+<#else>
+        CompletableFuture<Integer> totalFuture = CompletableFuture.supplyAsync(
+                () -> ${entityVarName}Mapper.countByCondition(countParams), taskExecutor);
+</#if>
+        List<${entityName}> list = ${entityVarName}Mapper.selectByPage(params);
+<#if metrics>
+        pageRows.record(list.size());
+</#if>
+        int total;
+        try {
+            total = totalFuture.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+        
+        // 封装结果
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", list);
+        result.put("total", total);
+        result.put("page", page);
+        result.put("pageSize", pageSize);
+        result.put("totalPages", (total + pageSize - 1) / pageSize);
+        
+        return result;
+    }
+        <#break>
+    <#case "ESTIMATED">
+        params.put("limit", pageSize);
+        
+        // 查询数据
+        List<${entityName}> list = ${entityVarName}Mapper.selectByPage(params);
+<#if metrics>
+        pageRows.record(list.size());
+</#if>
+        
+        int total;
+        boolean totalEstimated = false;
+        if (list.size() < pageSize && (!list.isEmpty() || offset == 0)) {
+            // 最后一页，总数可以直接算出
+            total = offset + list.size();
+        } else if (filterParams(params).isEmpty()) {
+            Long estimate = ${entityVarName}Mapper.estimateCount();
+            if (estimate != null) {
+                // 估算值可能小于已经翻过的行数
+                total = (int) Math.min(Integer.MAX_VALUE, Math.max(estimate, (long) offset + list.size()));
+                totalEstimated = true;
+            } else {
+                total = ${entityVarName}Mapper.countByCondition(params);
+            }
+        } else {
+            total = ${entityVarName}Mapper.countByCondition(params);
+        }
+        
+        // 封装结果
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", list);
+        result.put("total", total);
+        result.put("totalEstimated", totalEstimated);
+        result.put("page", page);
+        result.put("pageSize", pageSize);
+        result.put("totalPages", (total + pageSize - 1) / pageSize);
+        
+        return result;
+    }
+        <#break>
+    <#case "CACHED">
+        params.put("limit", pageSize);
+        
+        // 查询数据，总数优先从缓存中读取
+        List<${entityName}> list = ${entityVarName}Mapper.selectByPage(params);
+<#if metrics>
+        pageRows.record(list.size());
+</#if>
+        int total = cachedCount(params);
+        
+        // 封装结果
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", list);
+        result.put("total", total);
+        result.put("page", page);
+        result.put("pageSize", pageSize);
+        result.put("totalPages", (total + pageSize - 1) / pageSize);
+        
+        return result;
+    }
+        <#break>
+    <#default>
         params.put("limit", pageSize);
         
         // 查询数据
         List<${entityName}> list = ${entityVarName}Mapper.selectByPage(params);
+<#if metrics>
+        pageRows.record(list.size());
+</#if>
         int total = ${entityVarName}Mapper.countByCondition(params);
         
         // 封装结果
@@ -55,44 +580,470 @@ public class ${entityName}ServiceImpl implements I${entityName}Service {
         
         return result;
     }
+</#switch>
 
+<#if cursorColumns?has_content>
+    /**
+     * 游标分页查询：多查一条判断是否还有下一页，nextCursor编码了本页最后一条记录的排序列值
+     */
+    @Override
+<@timed "getByCursor"/>
+<@readOnly/>
+    public Map<String, Object> getByCursor(Map<String, Object> params) {
+        // 游标列用于生成nextCursor，总是查询
+        applyProjection(params<#list cursorColumns as column>, "${column.columnName}"</#list>);
+        int pageSize = params.get("pageSize") != null ? (Integer) params.get("pageSize") : 10;
+        Object cursor = params.get("cursor");
+        params.put("cursorValues", cursor != null && !cursor.toString().isEmpty() ? decodeCursor(cursor.toString()) : null);
+        params.put("limit", pageSize + 1);
+
+        List<${entityName}> list = ${entityVarName}Mapper.selectByCursor(params);
+<#if metrics>
+        cursorRows.record(list.size());
+</#if>
+        boolean hasMore = list.size() > pageSize;
+        if (hasMore) {
+            list = list.subList(0, pageSize);
+        }
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", list);
+        result.put("pageSize", pageSize);
+        result.put("hasMore", hasMore);
+        result.put("nextCursor", hasMore ? encodeCursor(list.get(list.size() - 1)) : null);
+        return result;
+    }
+
+</#if>
     /**
      * 条件查询所有记录（不分页）
      */
     @Override
+<@timed "getAll"/>
+<@readOnly/>
     public List<${entityName}> getAll(Map<String, Object> params) {
+        applyProjection(params);
+<#if metrics>
+        List<${entityName}> list = ${entityVarName}Mapper.selectAll(params);
+        allRows.record(list.size());
+        return list;
+<#else>
         return ${entityVarName}Mapper.selectAll(params);
+</#if>
+    }
+
+    /**
+     * 条件查询所有记录并逐条交给consumer处理，游标在只读事务中打开并在遍历后关闭
+     */
+    @Override
+<@timed "exportAll"/>
+    @Transactional(readOnly = true)
+    public void exportAll(Map<String, Object> params, Consumer<${entityName}> consumer) {
+        try (Cursor<${entityName}> cursor = ${entityVarName}Mapper.selectAllCursor(params)) {
+            cursor.forEach(consumer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     /**
      * 创建
      */
     @Override
+<@timed "create"/>
     public int create(${entityName} ${entityVarName}) {
         return ${entityVarName}Mapper.insert(${entityVarName});
     }
 
+    /**
+     * 批量创建
+     */
+    @Override
+<@timed "createBatch"/>
+    @Transactional(rollbackFor = Exception.class)
+    public int createBatch(List<${entityName}> list) {
+<#if batchExecutor>
+        return executeBatch(list, (mapper, row) -> mapper.insertBatch(List.of(row)));
+<#else>
+        int rows = 0;
+        for (List<${entityName}> batch : splitBatch(list, ${insertColumns?size?c})) {
+            rows += ${entityVarName}Mapper.insertBatch(batch);
+        }
+        return rows;
+</#if>
+    }
+
+    /**
+     * 批量创建或更新，为null的字段插入时取列默认值，已存在时保持原值
+     */
+    @Override
+<@timed "upsertBatch"/>
+    @Transactional(rollbackFor = Exception.class)
+    public int upsertBatch(List<${entityName}> list) {
+<#if batchExecutor>
+        int rows = executeBatch(list, (mapper, row) -> mapper.upsertBatch(List.of(row)));
+<#else>
+        int rows = 0;
+        for (List<${entityName}> group : groupByPresentFields(list)) {
+            for (List<${entityName}> batch : splitBatch(group, ${columns?size?c})) {
+                rows += ${entityVarName}Mapper.upsertBatch(batch);
+            }
+        }
+</#if>
+<#if entityCache>
+        evict(list);
+</#if>
+        return rows;
+    }
+
     /**
      * 根据ID更新
      */
     @Override
+<@timed "updateById"/>
     public int updateById(${entityName} ${entityVarName}) {
+<#if entityCache>
+        int rows = ${entityVarName}Mapper.updateById(${entityVarName});
+        evict(List.of(${entityVarName}));
+        return rows;
+<#else>
         return ${entityVarName}Mapper.updateById(${entityVarName});
+</#if>
+    }
+<#if nonKeyColumns?has_content>
+
+    /**
+     * 根据ID批量更新，为null的字段不更新
+     */
+    @Override
+<@timed "updateBatchById"/>
+    @Transactional(rollbackFor = Exception.class)
+    public int updateBatchById(List<${entityName}> list) {
+<#if batchExecutor>
+        int rows = executeBatch(list, (mapper, row) -> mapper.updateById(row));
+<#else>
+        int rows = 0;
+        for (List<${entityName}> batch : splitBatch(list, ${(nonKeyColumns?size * (primaryKeys?size + 1) + primaryKeys?size)?c},
+                UPDATE_BATCH_MAX_ROWS, CASE_ROW_BYTES)) {
+            rows += ${entityVarName}Mapper.updateBatchById(batch);
+        }
+</#if>
+<#if entityCache>
+        evict(list);
+</#if>
+        return rows;
     }
+</#if>
 
     /**
      * 根据ID删除
      */
     @Override
-    public int deleteById(${primaryKey.javaType} ${primaryKey.javaFieldName}) {
-        return ${entityVarName}Mapper.deleteById(${primaryKey.javaFieldName});
+<@timed "deleteById"/>
+    public int deleteById(<#list primaryKeys as pk>${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>) {
+<#if entityCache>
+        int rows = ${entityVarName}Mapper.deleteById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
+        invalidate(Collections.singletonList(${idCacheKey}));
+        return rows;
+<#else>
+        return ${entityVarName}Mapper.deleteById(<#list primaryKeys as pk>${pk.javaFieldName}<#sep>, </#sep></#list>);
+</#if>
     }
 
     /**
      * 批量删除
      */
     @Override
-    public int deleteBatchByIds(List<${primaryKey.javaType}> ids) {
+<@timed "deleteBatchByIds"/>
+    public int deleteBatchByIds(List<${idType}> ids) {
+<#if entityCache || metrics>
+        int rows = ${entityVarName}Mapper.deleteBatchByIds(ids);
+<#if entityCache>
+<#if compositeKey>
+        evict(ids);
+<#else>
+        invalidate(ids);
+</#if>
+</#if>
+<#if metrics>
+        deletedRows.increment(rows);
+</#if>
+        return rows;
+<#else>
         return ${entityVarName}Mapper.deleteBatchByIds(ids);
+</#if>
+    }
+<#if entityCache>
+
+    /**
+     * 实体的缓存键
+     */
+    private static ${cacheKeyType} cacheKey(${entityName} ${entityVarName}) {
+        return ${cacheKeyOf(primaryKeys?map(pk -> entityVarName + ".get" + pk.javaFieldName?cap_first + "()"))};
+    }
+
+    /**
+     * 失效一批实体对应的缓存条目
+     */
+    private void evict(List<${entityName}> list) {
+        invalidate(list.stream().map(${entityName}ServiceImpl::cacheKey).toList());
+    }
+
+    /**
+     * 失效缓存条目（跳过为空的键）。在事务中时等事务提交后再失效：提交前其他线程读到的仍是修改前的数据，
+     * 立即失效后会被重新放入缓存；事务回滚时数据没有变化，不需要失效
+     */
+    private void invalidate(Collection<${cacheKeyType}> keys) {
+        List<${cacheKeyType}> nonNullKeys = keys.stream().filter(Objects::nonNull).toList();
+        if (nonNullKeys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entityCache.invalidateAll(nonNullKeys);
+                }
+            });
+        } else {
+            entityCache.invalidateAll(nonNullKeys);
+        }
+    }
+
+    /**
+     * 当前是否在读写事务中：事务中可能有未提交的修改，查询不使用缓存
+     */
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+</#if>
+
+    /**
+     * 按块查询多个ID对应的记录
+     */
+    private List<${entityName}> loadByIds(List<${idType}> ids) {
+        List<${entityName}> rows = new ArrayList<>();
+        for (List<${idType}> chunk : distinctChunks(ids)) {
+            rows.addAll(${entityVarName}Mapper.selectByIds(chunk));
+        }
+        return rows;
+    }
+
+    /**
+     * ID去重、去掉null后按 ID_CHUNK_SIZE 分块
+     */
+    private static List<List<${idType}>> distinctChunks(List<${idType}> ids) {
+        List<${idType}> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        distinct.removeIf(Objects::isNull);
+        List<List<${idType}>> chunks = new ArrayList<>();
+        for (int i = 0; i < distinct.size(); i += ID_CHUNK_SIZE) {
+            chunks.add(distinct.subList(i, Math.min(i + ID_CHUNK_SIZE, distinct.size())));
+        }
+        return chunks;
+    }
+
+    /**
+     * 校验 fields 参数（字段名列表或逗号分隔的字符串）并转换为列名放入 selectColumns，
+     * 未指定 fields 时查询默认的列表字段
+     *
+     * @param params 查询参数
+     * @param requiredColumns 总是查询的列
+     * @throws IllegalArgumentException fields 中包含不存在或不能在列表中查询的字段
+     */
+    private static void applyProjection(Map<String, Object> params, String... requiredColumns) {
+        // selectColumns 直接拼接到SQL中，只能由这里根据白名单生成
+        params.remove("selectColumns");
+        Object fields = params.get("fields");
+        if (fields == null || "".equals(fields)) {
+            return;
+        }
+        Collection<?> names = fields instanceof Collection<?> collection
+                ? collection : Arrays.asList(fields.toString().split(","));
+        Set<String> columns = new LinkedHashSet<>(Arrays.asList(requiredColumns));
+        for (Object name : names) {
+            String column = name == null ? null : LIST_FIELDS.get(name.toString().trim());
+            if (column == null) {
+                throw new IllegalArgumentException("不支持查询的字段: " + name);
+            }
+            columns.add(column);
+        }
+        params.put("selectColumns", new ArrayList<>(columns));
+    }
+<#if countStrategy == "ESTIMATED" || countStrategy == "CACHED">
+
+    /**
+     * 提取过滤条件（去掉分页、排序参数和空值），按参数名排序
+     */
+    private static Map<String, Object> filterParams(Map<String, Object> params) {
+        Map<String, Object> filters = new TreeMap<>();
+        params.forEach((key, value) -> {
+            if (!PAGING_KEYS.contains(key) && value != null && !"".equals(value)) {
+                filters.put(key, value);
+            }
+        });
+        return filters;
+    }
+</#if>
+<#if countStrategy == "CACHED">
+
+    /**
+     * 读取缓存的总数，缓存不存在或已过期时重新统计
+     */
+    private int cachedCount(Map<String, Object> params) {
+        String key = filterParams(params).toString();
+        long now = System.currentTimeMillis();
+        CachedCount cached = countCache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.total();
+        }
+        int total = ${entityVarName}Mapper.countByCondition(params);
+        if (countCache.size() >= COUNT_CACHE_MAX_SIZE) {
+            countCache.values().removeIf(entry -> entry.expiresAt() <= now);
+        }
+        if (countCache.size() < COUNT_CACHE_MAX_SIZE) {
+            countCache.put(key, new CachedCount(total, now + COUNT_CACHE_MILLIS));
+        }
+        return total;
+    }
+
+    private record CachedCount(int total, long expiresAt) {
+    }
+</#if>
+<#if cursorColumns?has_content>
+
+    /**
+     * 将记录的排序列值编码为不透明的游标
+     */
+    private static String encodeCursor(${entityName} last) {
+        StringBuilder sb = new StringBuilder();
+<#list cursorColumns as column>
+        sb.append(<#if column?index gt 0>'.').append(</#if>encodeCursorValue(last.get${column.javaFieldName?cap_first}()));
+</#list>
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String encodeCursorValue(Object value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(String.valueOf(value).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标，还原为各排序列的值
+     */
+    private static Map<String, Object> decodeCursor(String cursor) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\.", -1);
+            if (parts.length != ${cursorColumns?size}) {
+                throw new IllegalArgumentException("游标格式错误");
+            }
+            Map<String, Object> values = new HashMap<>();
+<#list cursorColumns as column>
+            values.put("${column.javaFieldName}", ${parseCursorValue(column, "decodeCursorValue(parts[" + column?index + "])")});
+</#list>
+            return values;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("无效的游标: " + cursor, e);
+        }
+    }
+
+    private static String decodeCursorValue(String part) {
+        return new String(Base64.getUrlDecoder().decode(part), StandardCharsets.UTF_8);
+    }
+</#if>
+<#if batchExecutor>
+
+    /**
+     * 通过 ExecutorType.BATCH 会话逐行执行，语句在客户端累积，每 BATCH_MAX_ROWS 行发送一次。
+     * 需要在事务中调用，且同一事务中不能先使用普通会话。
+     */
+    private int executeBatch(List<${entityName}> list, BiConsumer<${entityName}Mapper, ${entityName}> statement) {
+        SqlSessionTemplate batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        ${entityName}Mapper batchMapper = batchSession.getMapper(${entityName}Mapper.class);
+        int rows = 0;
+        for (int i = 0; i < list.size(); i++) {
+            statement.accept(batchMapper, list.get(i));
+            if ((i + 1) % BATCH_MAX_ROWS == 0 || i == list.size() - 1) {
+                for (BatchResult result : batchSession.flushStatements()) {
+                    for (int count : result.getUpdateCounts()) {
+                        // 驱动改写批量语句时返回 SUCCESS_NO_INFO（-2），按1行计
+                        rows += count >= 0 ? count : 1;
+                    }
+                }
+            }
+        }
+        return rows;
+    }
+<#else>
+
+    /**
+     * 按非空字段分组，保持组内顺序。upsertBatch 按批次第一行的非空字段生成列清单，同一批的行必须写入相同的列
+     */
+    private static Collection<List<${entityName}>> groupByPresentFields(List<${entityName}> list) {
+        Map<BitSet, List<${entityName}>> groups = new LinkedHashMap<>();
+        for (${entityName} row : list) {
+            BitSet present = new BitSet(${columns?size?c});
+<#list columns as column>
+            if (row.get${column.javaFieldName?cap_first}() != null) {
+                present.set(${column?index});
+            }
+</#list>
+            groups.computeIfAbsent(present, key -> new ArrayList<>()).add(row);
+        }
+        return groups.values();
+    }
+
+    /**
+     * 按行数、参数个数和估算的语句大小拆分批次
+     */
+    private static List<List<${entityName}>> splitBatch(List<${entityName}> list, int columnCount) {
+        return splitBatch(list, columnCount, BATCH_MAX_ROWS, 0);
+    }
+
+    /**
+     * 按行数、参数个数和估算的语句大小拆分批次
+     *
+     * @param columnCount 每行的参数个数
+     * @param batchMaxRows 每批的最大行数
+     * @param extraRowBytes 每行在行数据之外占用的SQL文本字节数
+     */
+    private static List<List<${entityName}>> splitBatch(List<${entityName}> list, int columnCount, int batchMaxRows,
+                                                       long extraRowBytes) {
+        int maxRows = Math.max(1, Math.min(batchMaxRows, MAX_PLACEHOLDERS / Math.max(1, columnCount)));
+        List<List<${entityName}>> batches = new ArrayList<>();
+        int start = 0;
+        long bytes = 0;
+        for (int i = 0; i < list.size(); i++) {
+            long rowBytes = estimateRowBytes(list.get(i)) + extraRowBytes;
+            if (i > start && (i - start >= maxRows || bytes + rowBytes > BATCH_MAX_BYTES)) {
+                batches.add(list.subList(start, i));
+                start = i;
+                bytes = 0;
+            }
+            bytes += rowBytes;
+        }
+        if (start < list.size()) {
+            batches.add(list.subList(start, list.size()));
+        }
+        return batches;
+    }
+
+    /**
+     * 估算一行在SQL语句中占用的字节数（字符串按每字符4字节、二进制按转义后2倍计算）
+     */
+    private static long estimateRowBytes(${entityName} row) {
+        long bytes = FIXED_ROW_BYTES;
+<#list columns as column>
+    <#if column.javaType == "String">
+        if (row.get${column.javaFieldName?cap_first}() != null) {
+            bytes += row.get${column.javaFieldName?cap_first}().length() * 4L;
+        }
+    <#elseif column.javaType == "byte[]">
+        if (row.get${column.javaFieldName?cap_first}() != null) {
+            bytes += row.get${column.javaFieldName?cap_first}().length * 2L;
+        }
+    </#if>
+</#list>
+        return bytes;
     }
+</#if>
 }
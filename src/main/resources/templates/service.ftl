@@ -1,8 +1,13 @@
+<#assign idType = compositeKey?then(entityName, primaryKey.javaType)>
 package ${packageName}.service;
 
 import ${packageName}.entity.${entityName};
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * ${entityName} Service接口
@@ -14,35 +19,86 @@ public interface I${entityName}Service {
     /**
      * 根据ID查询
      */
-    ${entityName} getById(${primaryKey.javaType} ${primaryKey.javaFieldName});
+    ${entityName} getById(<#list primaryKeys as pk>${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>);
 
     /**
-     * 分页条件查询
+     * 根据多个ID查询，ID个数较多时自动分块，不存在的ID没有对应记录<#if compositeKey>（ids中每个元素只需填写主键字段）</#if>
+     */
+    List<${entityName}> getByIds(List<${idType}> ids);
+
+    /**
+     * 判断ID是否存在
+     */
+    boolean existsById(<#list primaryKeys as pk>${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>);
+
+    /**
+     * 统计多个ID中存在的记录数
+     */
+    int countByIds(List<${idType}> ids);
+
+    /**
+     * 分页条件查询，<#if countStrategy == "HAS_NEXT">返回list、page、pageSize和hasNext（不统计总数）<#else>返回list、total、page、pageSize和totalPages<#if countStrategy == "ESTIMATED">，total为估算值时totalEstimated为true</#if></#if>。
+<#if sharded>
+     * 在所有分表上查询后按主键排序合并，查询大字段以外的所有字段
+<#else>
+     * params中fields可以指定查询的字段（字段名列表或逗号分隔），未指定时查询大字段以外的所有字段；
+     * 游标分页和条件查询所有记录同样支持fields
+</#if>
      */
     Map<String, Object> getByPage(Map<String, Object> params);
 
+<#if cursorColumns?has_content>
+    /**
+     * 游标分页查询，按 <#list cursorColumns as column>${column.columnName}<#sep>, </#sep></#list> 排序。
+     * params中cursor为上一页返回的nextCursor（查询第一页时不传），翻页深度不影响查询耗时
+     */
+    Map<String, Object> getByCursor(Map<String, Object> params);
+
+</#if>
     /**
      * 条件查询所有记录（不分页）
      */
     List<${entityName}> getAll(Map<String, Object> params);
 
+    /**
+     * 条件查询所有记录并逐条交给consumer处理，不在内存中保留结果（用于导出）
+     */
+    void exportAll(Map<String, Object> params, Consumer<${entityName}> consumer);
+
     /**
      * 创建
      */
     int create(${entityName} ${entityVarName});
 
+    /**
+     * 批量创建，按行数和语句大小自动分批<#if autoIncrementKey??>，自增主键回填到实体中</#if>
+     */
+    int createBatch(List<${entityName}> list);
+
+    /**
+     * 批量创建或更新（主键或唯一键已存在时更新其余字段），按行数和语句大小自动分批
+     */
+    int upsertBatch(List<${entityName}> list);
+
     /**
      * 根据ID更新
      */
     int updateById(${entityName} ${entityVarName});
+<#if nonKeyColumns?has_content>
+
+    /**
+     * 根据ID批量更新（为null的字段不更新），按行数和语句大小自动分批
+     */
+    int updateBatchById(List<${entityName}> list);
+</#if>
 
     /**
      * 根据ID删除
      */
-    int deleteById(${primaryKey.javaType} ${primaryKey.javaFieldName});
+    int deleteById(<#list primaryKeys as pk>${pk.javaType} ${pk.javaFieldName}<#sep>, </#sep></#list>);
 
     /**
      * 批量删除
      */
-    int deleteBatchByIds(List<${primaryKey.javaType}> ids);
+    int deleteBatchByIds(List<${idType}> ids);
 }
@@ -0,0 +1,434 @@
+<#assign idType = primaryKey.javaType>
+<#assign pkGetter = "get" + primaryKey.javaFieldName?cap_first>
+<#assign shardGetter = "get" + shardKey.javaFieldName?cap_first>
+<#-- 分表键为主键时按ID的读写可以直接路由，否则需要访问所有分表 -->
+<#assign routeById = shardKey.primaryKey>
+<#-- 开启指标时为Service方法生成计时注解，按表名和操作打标签；开启直方图时发布耗时分位数直方图 -->
+<#macro timed operation>
+<#if metrics>
+    @Timed(value = "crud.service", extraTags = {"table", "${tableName}", "operation", "${operation}"}<#if metricsHistograms>, histogram = true</#if>)
+</#if>
+</#macro>
+<#-- 开启读写分离时只访问一张分表的查询在只读事务中执行 -->
+<#macro readOnly>
+<#if readWriteSplit>
+    @Transactional(readOnly = true)
+</#if>
+</#macro>
+package ${packageName}.service.impl;
+
+import ${packageName}.entity.${entityName};
+import ${packageName}.mapper.${entityName}Mapper;
+import ${packageName}.service.I${entityName}Service;
+import ${packageName}.shard.ShardContext;
+<#if metrics>
+import io.micrometer.core.annotation.Timed;
+</#if>
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+<#list keyImports as keyImport>
+import ${keyImport};
+</#list>
+import java.util.List;
+import java.util.Map;
+<#if !routeById>
+import java.util.Objects;
+</#if>
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+/**
+ * ${entityName} Service实现类（分表）
+ * <p>
+ * ${tableName} 分为 ${shardCount?c} 张分表（${firstShardTable} ~ ${lastShardTable}），按 ${shardKey.columnName} 取模路由。
+ * 带分表键的读写只访问一张分表，<#if !routeById>按ID的读写、</#if>条件查询和统计在所有分表上并发执行后合并结果。
+ * 跨分表分页按主键排序：每张分表查询前 offset + pageSize 条后归并，页码越深开销越大。
+ * 批量写入按分表分组后在同一个事务中依次执行。
+ *
+ * @author tongysh
+ */
+@Service
+public class ${entityName}ServiceImpl implements I${entityName}Service {
+
+    /**
+     * 分表数量
+     */
+    private static final int SHARD_COUNT = ${shardCount?c};
+
+    /**
+     * 批量写入每条语句的最大行数
+     */
+    private static final int BATCH_MAX_ROWS = ${batchMaxRows?c};
+<#if nonKeyColumns?has_content>
+
+    /**
+     * 按ID批量更新每条语句的最大行数。每行在每个非主键列的CASE中各有一个WHEN分支，
+     * 数据库逐个分支匹配，开销随行数平方增长，批次比插入小得多
+     */
+    private static final int UPDATE_BATCH_MAX_ROWS = Math.min(BATCH_MAX_ROWS, 50);
+</#if>
+
+    /**
+     * 跨分表分页的排序列，各分表按同一顺序查询后归并
+     */
+    private static final String ORDER_BY = "${primaryKey.columnName}";
+
+    @Autowired
+    private ${entityName}Mapper ${entityVarName}Mapper;
+
+    /**
+     * 并发访问各分表的线程池（Spring Boot 自动配置的 applicationTaskExecutor）
+     */
+    @Autowired
+    private Executor taskExecutor;
+
+    /**
+     * 根据ID查询
+     */
+    @Override
+<@timed "getById"/>
+<#if routeById>
+<@readOnly/>
+    public ${entityName} getById(${idType} ${primaryKey.javaFieldName}) {
+        return ShardContext.call(shardOf(${primaryKey.javaFieldName}), () -> ${entityVarName}Mapper.selectById(${primaryKey.javaFieldName}));
+    }
+<#else>
+    public ${entityName} getById(${idType} ${primaryKey.javaFieldName}) {
+        return fanOut(() -> ${entityVarName}Mapper.selectById(${primaryKey.javaFieldName})).stream()
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+    }
+</#if>
+
+    /**
+     * 根据多个ID查询，不存在的ID没有对应记录，不保证返回顺序
+     */
+    @Override
+<@timed "getByIds"/>
+    public List<${entityName}> getByIds(List<${idType}> ids) {
+        List<${entityName}> result = new ArrayList<>();
+        if (ids == null || ids.isEmpty()) {
+            return result;
+        }
+<#if routeById>
+        inShards(groupByShard(ids, id -> id), ${entityVarName}Mapper::selectByIds).forEach(result::addAll);
+<#else>
+        fanOut(() -> ${entityVarName}Mapper.selectByIds(ids)).forEach(result::addAll);
+</#if>
+        return result;
+    }
+
+    /**
+     * 判断ID是否存在
+     */
+    @Override
+<@timed "existsById"/>
+<#if routeById>
+<@readOnly/>
+    public boolean existsById(${idType} ${primaryKey.javaFieldName}) {
+        return ShardContext.call(shardOf(${primaryKey.javaFieldName}), () -> ${entityVarName}Mapper.existsById(${primaryKey.javaFieldName}));
+    }
+<#else>
+    public boolean existsById(${idType} ${primaryKey.javaFieldName}) {
+        return fanOut(() -> ${entityVarName}Mapper.existsById(${primaryKey.javaFieldName})).contains(Boolean.TRUE);
+    }
+</#if>
+
+    /**
+     * 统计多个ID中存在的记录数
+     */
+    @Override
+<@timed "countByIds"/>
+    public int countByIds(List<${idType}> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+<#if routeById>
+        return inShards(groupByShard(ids, id -> id), ${entityVarName}Mapper::countByIds).stream().mapToInt(Integer::intValue).sum();
+<#else>
+        return fanOut(() -> ${entityVarName}Mapper.countByIds(ids)).stream().mapToInt(Integer::intValue).sum();
+</#if>
+    }
+
+    /**
+     * 分页条件查询：各分表并发查询前 offset + pageSize 条和总数，按主键归并后取本页
+     */
+    @Override
+<@timed "getByPage"/>
+    public Map<String, Object> getByPage(Map<String, Object> params) {
+        int page = params.get("page") != null ? (Integer) params.get("page") : 1;
+        int pageSize = params.get("pageSize") != null ? (Integer) params.get("pageSize") : 10;
+        int offset = (page - 1) * pageSize;
+
+        Map<String, Object> query = shardQuery(params);
+        query.put("offset", 0);
+        query.put("limit", offset + pageSize);
+        List<ShardPage> shardPages = fanOut(() -> {
+            Map<String, Object> shardParams = new HashMap<>(query);
+            return new ShardPage(${entityVarName}Mapper.selectByPage(shardParams), ${entityVarName}Mapper.countByCondition(shardParams));
+        });
+
+        List<${entityName}> list = shardPages.stream()
+                .flatMap(shardPage -> shardPage.list().stream())
+                .sorted(Comparator.comparing(${entityName}::${pkGetter}))
+                .skip(offset)
+                .limit(pageSize)
+                .toList();
+        int total = shardPages.stream().mapToInt(ShardPage::total).sum();
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("list", list);
+        result.put("total", total);
+        result.put("page", page);
+        result.put("pageSize", pageSize);
+        result.put("totalPages", (total + pageSize - 1) / pageSize);
+        return result;
+    }
+
+    /**
+     * 条件查询所有记录（不分页），按主键排序
+     */
+    @Override
+<@timed "getAll"/>
+    public List<${entityName}> getAll(Map<String, Object> params) {
+        Map<String, Object> query = shardQuery(params);
+        List<${entityName}> result = new ArrayList<>();
+        fanOut(() -> ${entityVarName}Mapper.selectAll(new HashMap<>(query))).forEach(result::addAll);
+        result.sort(Comparator.comparing(${entityName}::${pkGetter}));
+        return result;
+    }
+
+    /**
+     * 条件查询所有记录并逐条交给consumer处理，依次读取各分表，游标在只读事务中打开并在遍历后关闭
+     */
+    @Override
+<@timed "exportAll"/>
+    @Transactional(readOnly = true)
+    public void exportAll(Map<String, Object> params, Consumer<${entityName}> consumer) {
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            ShardContext.call(shard, () -> {
+                try (Cursor<${entityName}> cursor = ${entityVarName}Mapper.selectAllCursor(params)) {
+                    cursor.forEach(consumer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * 创建，按分表键写入对应的分表
+     */
+    @Override
+<@timed "create"/>
+    public int create(${entityName} ${entityVarName}) {
+        return ShardContext.call(shardOf(${entityVarName}.${shardGetter}()), () -> ${entityVarName}Mapper.insert(${entityVarName}));
+    }
+
+    /**
+     * 批量创建，按分表分组后分批写入
+     */
+    @Override
+<@timed "createBatch"/>
+    @Transactional(rollbackFor = Exception.class)
+    public int createBatch(List<${entityName}> list) {
+        return writeByShard(list, ${entityVarName}Mapper::insertBatch);
+    }
+
+    /**
+     * 批量创建或更新（主键或唯一键已存在时更新其余非空字段），按分表和非空字段分组后分批写入
+     */
+    @Override
+<@timed "upsertBatch"/>
+    @Transactional(rollbackFor = Exception.class)
+    public int upsertBatch(List<${entityName}> list) {
+        return writeByShard(list, batch -> groupByPresentFields(batch).stream()
+                .mapToInt(${entityVarName}Mapper::upsertBatch)
+                .sum());
+    }
+
+    /**
+     * 根据ID更新<#if !routeById>，未填写分表键时在所有分表上执行</#if>
+     */
+    @Override
+<@timed "updateById"/>
+    public int updateById(${entityName} ${entityVarName}) {
+<#if !routeById>
+        if (${entityVarName}.${shardGetter}() == null) {
+            return fanOut(() -> ${entityVarName}Mapper.updateById(${entityVarName})).stream().mapToInt(Integer::intValue).sum();
+        }
+</#if>
+        return ShardContext.call(shardOf(${entityVarName}.${shardGetter}()), () -> ${entityVarName}Mapper.updateById(${entityVarName}));
+    }
+<#if nonKeyColumns?has_content>
+
+    /**
+     * 根据ID批量更新（为null的字段不更新），按分表分组后分批执行<#if !routeById>，每条记录都需要填写分表键</#if>
+     */
+    @Override
+<@timed "updateBatchById"/>
+    @Transactional(rollbackFor = Exception.class)
+    public int updateBatchById(List<${entityName}> list) {
+        return writeByShard(list, UPDATE_BATCH_MAX_ROWS, ${entityVarName}Mapper::updateBatchById);
+    }
+</#if>
+
+    /**
+     * 根据ID删除
+     */
+    @Override
+<@timed "deleteById"/>
+    public int deleteById(${idType} ${primaryKey.javaFieldName}) {
+<#if routeById>
+        return ShardContext.call(shardOf(${primaryKey.javaFieldName}), () -> ${entityVarName}Mapper.deleteById(${primaryKey.javaFieldName}));
+<#else>
+        return fanOut(() -> ${entityVarName}Mapper.deleteById(${primaryKey.javaFieldName})).stream().mapToInt(Integer::intValue).sum();
+</#if>
+    }
+
+    /**
+     * 批量删除，<#if routeById>按分表分组后</#if>在同一个事务中依次删除<#if !routeById>各分表中的记录</#if>
+     */
+    @Override
+<@timed "deleteBatchByIds"/>
+    @Transactional(rollbackFor = Exception.class)
+    public int deleteBatchByIds(List<${idType}> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return 0;
+        }
+        int rows = 0;
+<#if routeById>
+        for (Map.Entry<Integer, List<${idType}>> entry : groupByShard(ids, id -> id).entrySet()) {
+            rows += ShardContext.call(entry.getKey(), () -> ${entityVarName}Mapper.deleteBatchByIds(entry.getValue()));
+        }
+<#else>
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            rows += ShardContext.call(shard, () -> ${entityVarName}Mapper.deleteBatchByIds(ids));
+        }
+</#if>
+        return rows;
+    }
+
+    /**
+     * 跨分表查询的参数：按主键排序，去掉不支持的字段选择（selectColumns 直接拼接到SQL中）
+     */
+    private static Map<String, Object> shardQuery(Map<String, Object> params) {
+        Map<String, Object> query = new HashMap<>(params);
+        query.remove("selectColumns");
+        query.put("orderBy", ORDER_BY);
+        return query;
+    }
+
+    /**
+     * 按分表分组后在当前线程中依次分批写入（保持在调用方的事务中）
+     */
+    private int writeByShard(List<${entityName}> list, Function<List<${entityName}>, Integer> write) {
+        return writeByShard(list, BATCH_MAX_ROWS, write);
+    }
+
+    /**
+     * 按分表分组后在当前线程中依次写入，每批最多 batchMaxRows 行
+     */
+    private int writeByShard(List<${entityName}> list, int batchMaxRows, Function<List<${entityName}>, Integer> write) {
+        if (list == null || list.isEmpty()) {
+            return 0;
+        }
+        int rows = 0;
+        for (Map.Entry<Integer, List<${entityName}>> entry : groupByShard(list, ${entityName}::${shardGetter}).entrySet()) {
+            List<${entityName}> rowsInShard = entry.getValue();
+            for (int from = 0; from < rowsInShard.size(); from += batchMaxRows) {
+                List<${entityName}> batch = rowsInShard.subList(from, Math.min(from + batchMaxRows, rowsInShard.size()));
+                rows += ShardContext.call(entry.getKey(), () -> write.apply(batch));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 在所有分表上并发执行，按分表序号返回结果
+     */
+    private <T> List<T> fanOut(Supplier<T> action) {
+        return join(IntStream.range(0, SHARD_COUNT)
+                .mapToObj(shard -> CompletableFuture.supplyAsync(() -> ShardContext.call(shard, action), taskExecutor))
+                .toList());
+    }
+
+<#if routeById>
+    /**
+     * 在分组涉及的分表上并发执行
+     */
+    private <K, T> List<T> inShards(Map<Integer, List<K>> groups, Function<List<K>, T> action) {
+        return join(groups.entrySet().stream()
+                .map(entry -> CompletableFuture.supplyAsync(
+                        () -> ShardContext.call(entry.getKey(), () -> action.apply(entry.getValue())), taskExecutor))
+                .toList());
+    }
+
+</#if>
+    private static <T> List<T> join(List<CompletableFuture<T>> futures) {
+        try {
+            return futures.stream().map(CompletableFuture::join).toList();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    /**
+     * 按分表键分组，保持组内顺序
+     */
+    private static <K> Map<Integer, List<K>> groupByShard(List<K> items, Function<K, Object> shardKey) {
+        Map<Integer, List<K>> groups = new LinkedHashMap<>();
+        for (K item : items) {
+            Object key = shardKey.apply(item);
+            if (key == null) {
+                throw new IllegalArgumentException("分表键 ${shardKey.javaFieldName} 不能为空");
+            }
+            groups.computeIfAbsent(shardOf(key), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    /**
+     * 按非空字段分组，保持组内顺序。upsertBatch 按批次第一行的非空字段生成列清单，同一批的行必须写入相同的列
+     */
+    private static Collection<List<${entityName}>> groupByPresentFields(List<${entityName}> list) {
+        Map<BitSet, List<${entityName}>> groups = new LinkedHashMap<>();
+        for (${entityName} row : list) {
+            BitSet present = new BitSet(${columns?size?c});
+<#list columns as column>
+            if (row.get${column.javaFieldName?cap_first}() != null) {
+                present.set(${column?index});
+            }
+</#list>
+            groups.computeIfAbsent(present, key -> new ArrayList<>()).add(row);
+        }
+        return groups.values();
+    }
+
+    private static int shardOf(Object shardKey) {
+        return ShardContext.shardOf(shardKey, SHARD_COUNT);
+    }
+
+    /**
+     * 一张分表的分页结果
+     */
+    private record ShardPage(List<${entityName}> list, int total) {
+    }
+}
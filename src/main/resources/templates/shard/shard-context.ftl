@@ -0,0 +1,67 @@
+package ${packageName}.shard;
+
+import java.math.BigInteger;
+import java.util.function.Supplier;
+
+/**
+ * 分表上下文
+ * <p>
+ * 在当前线程中记录要访问的分表序号，分表的 Mapper XML 在表名中调用 suffix 取得分表后缀，
+ * 因此分表的语句都需要在 call 中执行。
+ * 分表序号由分表键取模得到：整数按数值取模，其他类型按 hashCode 取模，需要与写入数据的分表规则一致。
+ *
+ * @author tongysh
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * 分表键对应的分表序号
+     */
+    public static int shardOf(Object shardKey, int shardCount) {
+        if (shardKey == null) {
+            throw new IllegalArgumentException("分表键不能为空");
+        }
+        if (shardKey instanceof Long || shardKey instanceof Integer || shardKey instanceof Short || shardKey instanceof Byte) {
+            return (int) Math.floorMod(((Number) shardKey).longValue(), (long) shardCount);
+        }
+        if (shardKey instanceof BigInteger bigInteger) {
+            return bigInteger.mod(BigInteger.valueOf(shardCount)).intValue();
+        }
+        return Math.floorMod(shardKey.hashCode(), shardCount);
+    }
+
+    /**
+     * 在指定分表上执行，执行后恢复之前的分表
+     */
+    public static <T> T call(int shard, Supplier<T> action) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * 当前分表的表名后缀，width 大于0时左侧补零到该宽度
+     *
+     * @throws IllegalStateException 不在 call 中执行
+     */
+    public static String suffix(int width) {
+        Integer shard = CURRENT.get();
+        if (shard == null) {
+            throw new IllegalStateException("未指定分表，分表的语句需要在 ShardContext.call 中执行");
+        }
+        return width > 0 ? String.format("%0" + width + "d", shard) : String.valueOf(shard);
+    }
+}
@@ -0,0 +1,242 @@
+<#assign idType = compositeKey?then(entityName, primaryKey.javaType)>
+package ${packageName}.perf;
+
+import ${packageName}.entity.${entityName};
+import ${packageName}.service.I${entityName}Service;
+import ${packageName}.service.impl.${entityName}ServiceImpl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+<#if countStrategy == "PARALLEL" || sharded>
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+</#if>
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+<#list perfImports as perfImport>
+import ${perfImport};
+</#list>
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * ${entityName} 性能测试
+ * <p>
+ * 在内嵌H2（MySQL模式）中按表结构建表并造 ${perfRows?c} 条数据，测量 getById、不同深度的 getByPage、create 和 deleteBatchByIds 的耗时，
+ * 平均耗时超过系统属性 perf.max-avg-millis（默认50毫秒）时测试失败。
+ * H2与MySQL的执行计划不同，结果用于发现明显变慢的查询、对比改动前后的耗时，不代表线上性能。
+ * 测试标记为 performance，可以在构建中按标签单独运行或排除。
+ *
+ * @author tongysh
+ */
+@Tag("performance")
+@MybatisTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(${entityName}ServiceImpl.class)
+<#if countStrategy == "PARALLEL" || sharded>
+@ImportAutoConfiguration(TaskExecutionAutoConfiguration.class)
+</#if>
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:perf_${tableName};MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "mybatis.mapper-locations=classpath:mapper/${entityName}Mapper.xml"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ${entityName}PerformanceTest {
+
+    /**
+     * 造数行数
+     */
+    private static final int ROWS = ${perfRows?c};
+
+    private static final int WARMUP = 50;
+
+    private static final int ITERATIONS = 200;
+
+    private static final int PAGE_SIZE = 20;
+
+    /**
+     * deleteBatchByIds 每次删除的行数
+     */
+    private static final int BATCH_SIZE = 100;
+
+    private static final double MAX_AVG_MILLIS = Double.parseDouble(System.getProperty("perf.max-avg-millis", "50"));
+
+    /**
+     * 根据表结构生成的H2建表语句
+     */
+    private static final String[] SCHEMA = {
+<#list h2Schema as statement>
+            "${statement?j_string}"<#sep>,</#sep>
+</#list>
+    };
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private I${entityName}Service ${entityVarName}Service;
+
+    /**
+     * 下一条新增记录的行序号，与造数的行不重复
+     */
+    private final AtomicInteger nextRow = new AtomicInteger(ROWS);
+
+    /**
+     * 造数后所有记录的ID
+     */
+    private List<${idType}> ids;
+
+    @BeforeAll
+    void setUp() throws SQLException {
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            for (String sql : SCHEMA) {
+                statement.execute(sql);
+            }
+        }
+        List<${entityName}> rows = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            rows.add(newRow(i));
+        }
+        long start = System.nanoTime();
+        ${entityVarName}Service.createBatch(rows);
+        System.out.printf("[perf] ${entityName} 造数 %d 行耗时 %.1fms%n", ROWS, (System.nanoTime() - start) / 1_000_000.0);
+
+        ids = ${entityVarName}Service.getAll(new HashMap<>()).stream().map(${entityName}PerformanceTest::idOf).toList();
+        assertEquals(ROWS, ids.size());
+    }
+
+    @Test
+    void getById() {
+        measure("getById", WARMUP, ITERATIONS, n -> {
+            ${idType} id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+            assertNotNull(${entityVarName}Service.getById(<#if compositeKey><#list primaryKeys as pk>id.get${pk.javaFieldName?cap_first}()<#sep>, </#sep></#list><#else>id</#if>));
+        });
+    }
+
+    @Test
+    void getByPage() {
+        int lastPage = (ROWS + PAGE_SIZE - 1) / PAGE_SIZE;
+        // 首页、较深的页和最后一页，OFFSET越大耗时越长
+        int[] pages = IntStream.of(1, 10, 100, lastPage / 2, lastPage)
+                .filter(page -> page >= 1 && page <= lastPage)
+                .distinct()
+                .toArray();
+        for (int page : pages) {
+            measure("getByPage(page=" + page + ")", WARMUP, ITERATIONS, n -> {
+                Map<String, Object> params = new HashMap<>();
+                params.put("page", page);
+                params.put("pageSize", PAGE_SIZE);
+<#if countStrategy == "ESTIMATED">
+                // H2没有 information_schema.TABLES.TABLE_ROWS，传入一个不参与查询的参数，按有过滤条件执行 COUNT(*)
+                params.put("perfRun", true);
+</#if>
+                List<?> list = (List<?>) ${entityVarName}Service.getByPage(params).get("list");
+                assertFalse(list.isEmpty());
+            });
+        }
+    }
+
+    @Test
+    void create() {
+        List<${idType}> created = new ArrayList<>();
+        measure("create", WARMUP, ITERATIONS, n -> {
+            ${entityName} row = newRow(nextRow.getAndIncrement());
+            assertEquals(1, ${entityVarName}Service.create(row));
+            created.add(idOf(row));
+        });
+        ${entityVarName}Service.deleteBatchByIds(created);
+    }
+
+    @Test
+    void deleteBatchByIds() {
+        int warmup = 5;
+        int iterations = 20;
+        List<${entityName}> rows = new ArrayList<>();
+        for (int i = 0; i < (warmup + iterations) * BATCH_SIZE; i++) {
+            rows.add(newRow(nextRow.getAndIncrement()));
+        }
+        ${entityVarName}Service.createBatch(rows);
+        List<${idType}> createdIds = rows.stream().map(${entityName}PerformanceTest::idOf).toList();
+
+        measure("deleteBatchByIds(" + BATCH_SIZE + ")", warmup, iterations, n -> {
+            List<${idType}> batch = createdIds.subList(n * BATCH_SIZE, (n + 1) * BATCH_SIZE);
+            assertEquals(BATCH_SIZE, ${entityVarName}Service.deleteBatchByIds(batch));
+        });
+    }
+
+    /**
+     * 先预热再计时，输出平均值和分位数，平均耗时超过上限时失败。
+     * operation 的参数为调用序号（预热和计时连续编号）
+     */
+    private static void measure(String name, int warmup, int iterations, IntConsumer operation) {
+        for (int i = 0; i < warmup; i++) {
+            operation.accept(i);
+        }
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            operation.accept(warmup + i);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        double avgMillis = Arrays.stream(nanos).average().orElse(0) / 1_000_000.0;
+        System.out.printf("[perf] ${entityName}.%s: avg=%.3fms p50=%.3fms p99=%.3fms max=%.3fms (%d次)%n", name, avgMillis,
+                nanos[iterations / 2] / 1_000_000.0, nanos[(int) (iterations * 0.99)] / 1_000_000.0,
+                nanos[iterations - 1] / 1_000_000.0, iterations);
+        assertTrue(avgMillis <= MAX_AVG_MILLIS,
+                "${entityName}." + name + " 平均耗时 " + avgMillis + "ms 超过上限 " + MAX_AVG_MILLIS + "ms");
+    }
+
+    /**
+     * 按列类型造一行数据，i 为行序号
+     */
+    private static ${entityName} newRow(int i) {
+        ${entityName} row = new ${entityName}();
+<#list perfValues as field, value>
+        row.set${field?cap_first}(${value});
+</#list>
+        return row;
+    }
+
+    private static ${idType} idOf(${entityName} row) {
+        return <#if compositeKey>row<#else>row.get${primaryKey.javaFieldName?cap_first}()</#if>;
+    }
+
+    /**
+     * 长度为 length 的字符串，以行序号开头，长度足够时不重复
+     */
+    private static String text(int i, int length) {
+        StringBuilder sb = new StringBuilder(length).append(i).append('-');
+        while (sb.length() < length) {
+            sb.append('x');
+        }
+        sb.setLength(length);
+        return sb.toString();
+    }
+}
@@ -0,0 +1,246 @@
+package com.tongysh.generator.service;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 连接池注册表测试：淘汰、密码变化和并发创建，目标库由内存中的桩驱动模拟
+ *
+ * @author tongysh
+ */
+class ConnectionPoolRegistryTest {
+
+    private static final StubDriver DRIVER = new StubDriver();
+
+    private ConnectionPoolRegistry registry;
+
+    @BeforeAll
+    static void registerDriver() throws SQLException {
+        DriverManager.registerDriver(DRIVER);
+    }
+
+    @AfterAll
+    static void deregisterDriver() throws SQLException {
+        DriverManager.deregisterDriver(DRIVER);
+    }
+
+    @BeforeEach
+    void setUp() {
+        StubDriver.passwords = Set.of("secret");
+        StubDriver.slowConnect = new CountDownLatch(0);
+        StubDriver.slowEntered = new CountDownLatch(1);
+        registry = newRegistry(2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        registry.destroy();
+    }
+
+    private static ConnectionPoolRegistry newRegistry(int maxPools) {
+        ConnectionPoolRegistry registry = new ConnectionPoolRegistry();
+        ReflectionTestUtils.setField(registry, "maxPools", maxPools);
+        ReflectionTestUtils.setField(registry, "maxPoolSize", 2);
+        ReflectionTestUtils.setField(registry, "idleTimeoutSeconds", 300L);
+        ReflectionTestUtils.setField(registry, "connectionTimeoutMs", 1000L);
+        return registry;
+    }
+
+    private Connection connect(String target, String password) throws SQLException {
+        return registry.getConnection("jdbc:stub:" + target, "root", password, "demo");
+    }
+
+    private List<?> retiredPools() {
+        return (List<?>) ReflectionTestUtils.getField(registry, "retiredPools");
+    }
+
+    @Test
+    void rejectsNonPositiveMaxPools() {
+        assertThrows(IllegalStateException.class, () -> newRegistry(0).init());
+    }
+
+    @Test
+    void reusesPoolPerTarget() throws Exception {
+        connect("a", "secret").close();
+        connect("a", "secret").close();
+        connect("b", "secret").close();
+
+        assertEquals(2, registry.getPoolCount());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedPoolAfterBorrowedConnectionsReturn() throws Exception {
+        Connection borrowed = connect("a", "secret");
+        connect("b", "secret").close();
+        connect("c", "secret").close();
+
+        // a 最久未使用被淘汰，但借出的连接仍可使用，连接池等连接归还后才关闭
+        assertEquals(2, registry.getPoolCount());
+        assertEquals(1, retiredPools().size());
+        assertTrue(borrowed.isValid(1));
+
+        borrowed.close();
+        ReflectionTestUtils.invokeMethod(registry, "evictIdlePools");
+        assertTrue(retiredPools().isEmpty());
+    }
+
+    @Test
+    void wrongPasswordKeepsWorkingPool() throws Exception {
+        Connection borrowed = connect("a", "secret");
+
+        assertThrows(SQLException.class, () -> connect("a", "wrong"));
+
+        assertEquals(1, registry.getPoolCount());
+        assertTrue(retiredPools().isEmpty());
+        assertTrue(borrowed.isValid(1));
+        connect("a", "secret").close();
+        borrowed.close();
+    }
+
+    @Test
+    void changedPasswordReplacesPool() throws Exception {
+        Connection borrowed = connect("a", "secret");
+        StubDriver.passwords = Set.of("rotated");
+
+        connect("a", "rotated").close();
+
+        // 旧连接池被替换，借出的连接归还后再关闭
+        assertEquals(1, registry.getPoolCount());
+        assertEquals(1, retiredPools().size());
+        assertTrue(borrowed.isValid(1));
+        borrowed.close();
+        ReflectionTestUtils.invokeMethod(registry, "evictIdlePools");
+        assertTrue(retiredPools().isEmpty());
+    }
+
+    @Test
+    void slowTargetDoesNotBlockOtherTargets() throws Exception {
+        StubDriver.slowConnect = new CountDownLatch(1);
+        CompletableFuture<Connection> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return connect("slow", "secret");
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(StubDriver.slowEntered.await(5, TimeUnit.SECONDS));
+
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> connect("fast", "secret").close());
+        assertFalse(slow.isDone());
+
+        StubDriver.slowConnect.countDown();
+        Connection connection = slow.get(5, TimeUnit.SECONDS);
+        assertNotNull(connection);
+        connection.close();
+    }
+
+    /**
+     * 接受 jdbc:stub: 开头的URL，只允许配置的密码登录，目标名包含 slow 时阻塞到 slowConnect 放行
+     */
+    static class StubDriver implements Driver {
+
+        static volatile Set<String> passwords = Set.of();
+
+        static volatile CountDownLatch slowConnect = new CountDownLatch(0);
+
+        static volatile CountDownLatch slowEntered = new CountDownLatch(1);
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            if (!passwords.contains(info.getProperty("password"))) {
+                throw new SQLException("Access denied for user 'root'", "28000");
+            }
+            if (url.startsWith("jdbc:stub:slow")) {
+                slowEntered.countDown();
+                try {
+                    slowConnect.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new SQLException(e);
+                }
+            }
+            return stubConnection();
+        }
+
+        private static Connection stubConnection() {
+            boolean[] closed = {false};
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> switch (method.getName()) {
+                        case "close" -> {
+                            closed[0] = true;
+                            yield null;
+                        }
+                        case "isClosed" -> closed[0];
+                        case "isValid" -> !closed[0];
+                        case "getAutoCommit" -> true;
+                        case "isReadOnly", "isWrapperFor" -> false;
+                        case "getTransactionIsolation" -> Connection.TRANSACTION_READ_COMMITTED;
+                        case "getNetworkTimeout", "getHoldability" -> 0;
+                        case "hashCode" -> System.identityHashCode(proxy);
+                        case "equals" -> proxy == args[0];
+                        case "toString" -> "StubConnection";
+                        default -> null;
+                    });
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith("jdbc:stub:");
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
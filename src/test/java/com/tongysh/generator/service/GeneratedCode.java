@@ -0,0 +1,158 @@
+package com.tongysh.generator.service;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 测试用：渲染模板生成Java代码，用 javac 编译后加载，供测试直接调用生成的类
+ *
+ * @author tongysh
+ */
+final class GeneratedCode implements AutoCloseable {
+
+    private static final Pattern PACKAGE = Pattern.compile("^package\\s+([\\w.]+);", Pattern.MULTILINE);
+
+    private static final Pattern TYPE_NAME = Pattern.compile("^public\\s+(?:class|interface)\\s+(\\w+)", Pattern.MULTILINE);
+
+    private final URLClassLoader classLoader;
+
+    private GeneratedCode(URLClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * 渲染并编译模板生成的Java代码，编译失败时测试失败并列出 javac 的错误
+     *
+     * @param workDir 存放源文件和class文件的临时目录
+     * @param templateNames 生成Java代码的模板
+     */
+    static GeneratedCode compile(Path workDir, TemplateEngine templateEngine, Map<String, Object> dataModel,
+                                 Collection<String> templateNames) throws Exception {
+        Path sourceDir = workDir.resolve("src");
+        Path classDir = Files.createDirectories(workDir.resolve("classes"));
+        List<Path> sources = new ArrayList<>();
+        for (String templateName : templateNames) {
+            sources.add(writeSource(sourceDir, templateEngine.renderToString(templateName, dataModel)));
+        }
+
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertNotNull(compiler, "需要在JDK而不是JRE上运行测试");
+        DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+            // 使用测试类路径编译（surefire 的类路径清单jar中的 Class-Path 同样生效）
+            List<String> options = List.of("-classpath", System.getProperty("java.class.path"),
+                    "-d", classDir.toString(), "-encoding", "UTF-8", "-parameters");
+            boolean compiled = compiler.getTask(null, fileManager, diagnostics, options, null,
+                    fileManager.getJavaFileObjectsFromPaths(sources)).call();
+
+            StringBuilder errors = new StringBuilder();
+            for (Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+                if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                    errors.append('\n').append(diagnostic.getSource() == null ? "" : diagnostic.getSource().getName())
+                            .append(':').append(diagnostic.getLineNumber()).append(' ').append(diagnostic.getMessage(null));
+                }
+            }
+            assertTrue(compiled, "生成的代码编译失败:" + errors);
+        }
+        return new GeneratedCode(new URLClassLoader(new URL[]{classDir.toUri().toURL()},
+                GeneratedCode.class.getClassLoader()));
+    }
+
+    /**
+     * 按 package 和类名把生成的源文件写到对应目录
+     */
+    private static Path writeSource(Path sourceDir, String content) throws Exception {
+        Matcher packageMatcher = PACKAGE.matcher(content);
+        Matcher typeMatcher = TYPE_NAME.matcher(content);
+        assertTrue(packageMatcher.find() && typeMatcher.find(), "无法识别生成代码的包名和类名");
+        Path dir = sourceDir.resolve(packageMatcher.group(1).replace('.', '/'));
+        Path file = Files.createDirectories(dir).resolve(typeMatcher.group(1) + ".java");
+        Files.writeString(file, content);
+        return file;
+    }
+
+    Class<?> loadClass(String className) throws ClassNotFoundException {
+        return classLoader.loadClass(className);
+    }
+
+    /**
+     * 用无参构造器创建生成的类的实例
+     */
+    Object newInstance(String className) throws Exception {
+        return loadClass(className).getDeclaredConstructor().newInstance();
+    }
+
+    /**
+     * 创建接口的桩实现：按方法名查找应答，没有应答的方法返回 null
+     *
+     * @param answers 方法名 -> 由参数计算返回值
+     */
+    @SuppressWarnings("unchecked")
+    <T> T stub(String interfaceName, Map<String, Function<Object[], Object>> answers) throws ClassNotFoundException {
+        Class<?> type = loadClass(interfaceName);
+        return (T) Proxy.newProxyInstance(classLoader, new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    default -> interfaceName + " stub";
+                };
+            }
+            Function<Object[], Object> answer = answers.get(method.getName());
+            return answer == null ? null : answer.apply(args == null ? new Object[0] : args);
+        });
+    }
+
+    /**
+     * 设置字段（包括私有字段），用于注入生成类中 @Autowired 的依赖
+     */
+    static void setField(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    /**
+     * 按方法名和参数个数调用生成类的方法，抛出方法本身的异常
+     */
+    static Object invoke(Object target, String methodName, Object... args) throws Throwable {
+        for (Method method : target.getClass().getMethods()) {
+            if (method.getName().equals(methodName) && method.getParameterCount() == args.length) {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+        throw new NoSuchMethodException(methodName);
+    }
+
+    @Override
+    public void close() throws Exception {
+        classLoader.close();
+    }
+}
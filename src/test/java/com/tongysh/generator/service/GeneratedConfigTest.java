@@ -0,0 +1,230 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.ColumnInfo;
+import com.tongysh.generator.dto.GeneratorRequest;
+import com.tongysh.generator.dto.TableInfo;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 生成的配置类测试：编译模板生成的配置类，在不启动 Spring 容器的情况下验证其行为
+ *
+ * @author tongysh
+ */
+class GeneratedConfigTest {
+
+    private static final String PACKAGE_NAME = "com.example.demo";
+
+    private static final String STATEMENT_PREFIX = PACKAGE_NAME + ".mapper.SysUserMapper.";
+
+    private static TemplateEngine templateEngine;
+
+    private static CodeGeneratorService service;
+
+    @TempDir
+    Path workDir;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        templateEngine = new TemplateEngine();
+        templateEngine.init();
+
+        TypeMappingRegistry typeMappingRegistry = new TypeMappingRegistry();
+        typeMappingRegistry.init();
+        service = new CodeGeneratorService();
+        ReflectionTestUtils.setField(service, "typeMappingRegistry", typeMappingRegistry);
+    }
+
+    @Test
+    void mapperInterceptorTimesStatements() throws Exception {
+        GeneratorRequest request = new GeneratorRequest();
+        request.setMetrics(true);
+        try (GeneratedCode code = compile(request, "config/metrics-config.ftl", "config/mapper-metrics-interceptor.ftl")) {
+            MeterRegistry meterRegistry = new SimpleMeterRegistry();
+            Interceptor interceptor = (Interceptor) code.loadClass(PACKAGE_NAME + ".config.MapperMetricsInterceptor")
+                    .getConstructor(MeterRegistry.class).newInstance(meterRegistry);
+            Executor executor = (Executor) interceptor.plugin(stubExecutor());
+            Configuration configuration = new Configuration();
+
+            executor.query(statement(configuration, "selectById", SqlCommandType.SELECT), 1L,
+                    RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+            executor.query(statement(configuration, "selectById", SqlCommandType.SELECT), 2L,
+                    RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER);
+            assertThrows(SQLException.class,
+                    () -> executor.update(statement(configuration, "deleteById", SqlCommandType.DELETE), 1L));
+
+            Timer select = meterRegistry.find("crud.mapper")
+                    .tags("mapper", "SysUserMapper", "method", "selectById", "exception", "none")
+                    .timer();
+            assertNotNull(select);
+            assertEquals(2, select.count());
+            Timer failedDelete = meterRegistry.find("crud.mapper")
+                    .tags("mapper", "SysUserMapper", "method", "deleteById", "exception", "SQLException")
+                    .timer();
+            assertNotNull(failedDelete);
+            assertEquals(1, failedDelete.count());
+        }
+    }
+
+    @Test
+    void histogramsAreOptIn() throws Exception {
+        GeneratorRequest request = new GeneratorRequest();
+        request.setMetrics(true);
+        Map<String, Object> dataModel = service.createDataModel(userTable(), request);
+        for (String templateName : List.of("service-impl.ftl", "config/mapper-metrics-interceptor.ftl")) {
+            String content = templateEngine.renderToString(templateName, dataModel);
+            assertFalse(content.contains("histogram = true") || content.contains("publishPercentileHistogram"), templateName);
+        }
+
+        request.setMetricsHistograms(true);
+        dataModel = service.createDataModel(userTable(), request);
+        String serviceImpl = templateEngine.renderToString("service-impl.ftl", dataModel);
+        assertTrue(serviceImpl.contains("histogram = true"));
+        assertTrue(serviceImpl.contains("publishPercentileHistogram"));
+        assertTrue(templateEngine.renderToString("config/mapper-metrics-interceptor.ftl", dataModel)
+                .contains("publishPercentileHistogram"));
+    }
+
+    @Test
+    void readOnlyTransactionsRouteToReplica() throws Throwable {
+        GeneratorRequest request = new GeneratorRequest();
+        request.setReadWriteSplit(true);
+        try (GeneratedCode code = compile(request, "config/read-write-routing-config.ftl")) {
+            List<String> routed = new ArrayList<>();
+            Object config = code.newInstance(PACKAGE_NAME + ".config.ReadWriteRoutingConfig");
+            DataSource dataSource = (DataSource) GeneratedCode.invoke(config, "dataSource",
+                    stubDataSource("primary", routed), stubDataSource("replica", routed));
+            DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+            TransactionTemplate readWrite = new TransactionTemplate(transactionManager);
+            TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+            readOnly.setReadOnly(true);
+
+            readOnly.executeWithoutResult(status -> execute(dataSource));
+            readWrite.executeWithoutResult(status -> execute(dataSource));
+            // 只读方法在读写事务中调用时加入外层事务，读到自己的写入
+            readWrite.executeWithoutResult(status -> readOnly.executeWithoutResult(inner -> execute(dataSource)));
+            // 不在事务中的语句
+            execute(dataSource);
+
+            assertEquals(List.of("replica", "primary", "primary", "primary"), routed);
+        }
+    }
+
+    private GeneratedCode compile(GeneratorRequest request, String... templateNames) throws Exception {
+        Map<String, Object> dataModel = service.createDataModel(userTable(), request);
+        return GeneratedCode.compile(workDir, templateEngine, dataModel, List.of(templateNames));
+    }
+
+    private static MappedStatement statement(Configuration configuration, String method, SqlCommandType commandType) {
+        return new MappedStatement.Builder(configuration, STATEMENT_PREFIX + method,
+                new StaticSqlSource(configuration, "SELECT 1"), commandType).build();
+    }
+
+    /**
+     * 查询返回空列表、更新抛出 SQLException 的执行器
+     */
+    private static Executor stubExecutor() {
+        return (Executor) Proxy.newProxyInstance(GeneratedConfigTest.class.getClassLoader(), new Class<?>[]{Executor.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "query" -> List.of();
+                    case "update" -> throw new SQLException("deadlock");
+                    default -> null;
+                });
+    }
+
+    /**
+     * 在当前事务的连接（不在事务中时为新连接）上执行一条语句
+     */
+    private static void execute(DataSource dataSource) {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.prepareStatement("SELECT 1");
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        } finally {
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    /**
+     * 不连接数据库的数据源：在连接上执行语句时记录数据源名称
+     */
+    private static DataSource stubDataSource(String name, List<String> routed) {
+        InvocationHandler connectionHandler = (proxy, method, args) -> switch (method.getName()) {
+            case "prepareStatement" -> {
+                routed.add(name);
+                yield null;
+            }
+            case "getAutoCommit" -> true;
+            case "getTransactionIsolation" -> Connection.TRANSACTION_READ_COMMITTED;
+            case "isReadOnly", "isClosed" -> false;
+            case "hashCode" -> System.identityHashCode(proxy);
+            case "equals" -> proxy == args[0];
+            default -> null;
+        };
+        return (DataSource) Proxy.newProxyInstance(GeneratedConfigTest.class.getClassLoader(), new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getConnection" -> Proxy.newProxyInstance(GeneratedConfigTest.class.getClassLoader(),
+                            new Class<?>[]{Connection.class}, connectionHandler);
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> name;
+                    default -> null;
+                });
+    }
+
+    private static TableInfo userTable() {
+        ColumnInfo id = new ColumnInfo();
+        id.setColumnName("id");
+        id.setColumnType("BIGINT");
+        id.setFullColumnType("bigint");
+        id.setPrimaryKey(true);
+        id.setAutoIncrement(true);
+        id.setIndexed(true);
+        ColumnInfo username = new ColumnInfo();
+        username.setColumnName("username");
+        username.setColumnType("VARCHAR");
+        username.setFullColumnType("varchar(64)");
+        username.setNullable(true);
+
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setTableName("sys_user");
+        tableInfo.setPackageName(PACKAGE_NAME);
+        tableInfo.setColumns(List.of(id, username));
+        tableInfo.setPrimaryKeys(List.of(id));
+        tableInfo.setPrimaryKey(id);
+        service.applyJavaMapping(tableInfo, Dialect.MYSQL);
+        return tableInfo;
+    }
+}
@@ -0,0 +1,508 @@
+package com.tongysh.generator.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.tongysh.generator.dto.ColumnInfo;
+import com.tongysh.generator.dto.CountStrategy;
+import com.tongysh.generator.dto.GeneratorRequest;
+import com.tongysh.generator.dto.TableInfo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 生成的服务实现测试：编译模板生成的实体、Mapper接口和服务实现，注入桩Mapper后调用，验证生成代码的行为
+ *
+ * @author tongysh
+ */
+class GeneratedServiceTest {
+
+    private static final List<String> SERVICE_TEMPLATES = List.of(
+            "entity.ftl", "mapper.ftl", "service.ftl", "service-impl.ftl");
+
+    private static final String PACKAGE_NAME = "com.example.demo";
+
+    private static TemplateEngine templateEngine;
+
+    private static CodeGeneratorService service;
+
+    @TempDir
+    Path workDir;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        templateEngine = new TemplateEngine();
+        templateEngine.init();
+
+        TypeMappingRegistry typeMappingRegistry = new TypeMappingRegistry();
+        typeMappingRegistry.init();
+        service = new CodeGeneratorService();
+        ReflectionTestUtils.setField(service, "typeMappingRegistry", typeMappingRegistry);
+    }
+
+    @Test
+    void hasNextQueriesOneExtraRowWithoutCounting() throws Throwable {
+        try (GeneratedCode code = compile(countRequest(CountStrategy.HAS_NEXT))) {
+            StubMapper mapper = new StubMapper(code, 11, 100);
+            Object serviceImpl = serviceImpl(code, mapper);
+
+            Map<String, Object> result = getByPage(serviceImpl, Map.of("page", 1, "pageSize", 10));
+
+            assertEquals(11, mapper.lastLimit);
+            assertEquals(10, ((List<?>) result.get("list")).size());
+            assertEquals(true, result.get("hasNext"));
+            assertNull(result.get("total"));
+            assertEquals(0, mapper.counts.get());
+        }
+    }
+
+    @Test
+    void parallelCountsAlongsideQuery() throws Throwable {
+        try (GeneratedCode code = compile(countRequest(CountStrategy.PARALLEL))) {
+            StubMapper mapper = new StubMapper(code, 10, 95);
+            Object serviceImpl = serviceImpl(code, mapper);
+            List<Runnable> submitted = new ArrayList<>();
+            GeneratedCode.setField(serviceImpl, "taskExecutor", (Executor) command -> {
+                submitted.add(command);
+                command.run();
+            });
+
+            Map<String, Object> result = getByPage(serviceImpl, Map.of("page", 2, "pageSize", 10));
+
+            assertEquals(1, submitted.size());
+            assertEquals(1, mapper.counts.get());
+            assertEquals(95, result.get("total"));
+            assertEquals(10, result.get("totalPages"));
+        }
+    }
+
+    @Test
+    void parallelCountRunsInReadOnlyTransactionWithReadWriteSplit() throws Throwable {
+        GeneratorRequest request = countRequest(CountStrategy.PARALLEL);
+        request.setReadWriteSplit(true);
+        try (GeneratedCode code = compile(request)) {
+            List<Boolean> countReadOnly = new ArrayList<>();
+            StubMapper mapper = new StubMapper(code, 10, 95) {
+                @Override
+                int count() {
+                    // 路由数据源按这个标记选择从库
+                    countReadOnly.add(TransactionSynchronizationManager.isCurrentTransactionReadOnly());
+                    return super.count();
+                }
+            };
+            Object serviceImpl = serviceImpl(code, mapper);
+            RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+            GeneratedCode.setField(serviceImpl, "taskExecutor", (Executor) Runnable::run);
+            GeneratedCode.setField(serviceImpl, "transactionManager", transactionManager);
+
+            Map<String, Object> result = getByPage(serviceImpl, Map.of("page", 1, "pageSize", 10));
+
+            assertEquals(95, result.get("total"));
+            assertEquals(List.of(true), countReadOnly);
+            assertEquals(List.of(true), transactionManager.readOnly);
+            assertEquals(1, transactionManager.commits.get());
+        }
+    }
+
+    @Test
+    void estimatedUsesTableStatisticsOnlyWithoutFilters() throws Throwable {
+        try (GeneratedCode code = compile(countRequest(CountStrategy.ESTIMATED))) {
+            StubMapper mapper = new StubMapper(code, 10, 95);
+            mapper.estimate = 1000L;
+            Object serviceImpl = serviceImpl(code, mapper);
+
+            Map<String, Object> unfiltered = getByPage(serviceImpl, Map.of("page", 1, "pageSize", 10));
+
+            assertEquals(1000, unfiltered.get("total"));
+            assertEquals(true, unfiltered.get("totalEstimated"));
+            assertEquals(0, mapper.counts.get());
+
+            Map<String, Object> filtered = getByPage(serviceImpl, Map.of("page", 1, "pageSize", 10, "username", "tom"));
+
+            assertEquals(95, filtered.get("total"));
+            assertEquals(false, filtered.get("totalEstimated"));
+            assertEquals(1, mapper.counts.get());
+        }
+    }
+
+    @Test
+    void estimatedComputesTotalOnLastPage() throws Throwable {
+        try (GeneratedCode code = compile(countRequest(CountStrategy.ESTIMATED))) {
+            StubMapper mapper = new StubMapper(code, 3, 95);
+            Object serviceImpl = serviceImpl(code, mapper);
+
+            Map<String, Object> result = getByPage(serviceImpl, Map.of("page", 4, "pageSize", 10));
+
+            assertEquals(33, result.get("total"));
+            assertEquals(false, result.get("totalEstimated"));
+            assertEquals(0, mapper.counts.get());
+        }
+    }
+
+    @Test
+    void cachedReusesCountForSameFilters() throws Throwable {
+        try (GeneratedCode code = compile(countRequest(CountStrategy.CACHED))) {
+            StubMapper mapper = new StubMapper(code, 10, 95);
+            Object serviceImpl = serviceImpl(code, mapper);
+
+            getByPage(serviceImpl, Map.of("page", 1, "pageSize", 10, "username", "tom"));
+            // 翻页不影响缓存的键
+            Map<String, Object> result = getByPage(serviceImpl, Map.of("page", 2, "pageSize", 10, "username", "tom"));
+
+            assertEquals(95, result.get("total"));
+            assertEquals(1, mapper.counts.get());
+
+            getByPage(serviceImpl, Map.of("page", 1, "pageSize", 10, "username", "jerry"));
+            assertEquals(2, mapper.counts.get());
+        }
+    }
+
+    @Test
+    void exactCountsOnEveryPage() throws Throwable {
+        try (GeneratedCode code = compile(countRequest(CountStrategy.EXACT))) {
+            StubMapper mapper = new StubMapper(code, 10, 95);
+            Object serviceImpl = serviceImpl(code, mapper);
+
+            getByPage(serviceImpl, Map.of("page", 1, "pageSize", 10));
+            Map<String, Object> result = getByPage(serviceImpl, Map.of("page", 2, "pageSize", 10));
+
+            assertEquals(95, result.get("total"));
+            assertEquals(10, result.get("totalPages"));
+            assertEquals(2, mapper.counts.get());
+            assertFalse(result.containsKey("totalEstimated"));
+        }
+    }
+
+    @Test
+    void cacheInvalidatedOnlyAfterCommit() throws Throwable {
+        try (GeneratedCode code = compile(cacheRequest())) {
+            StubMapper mapper = new StubMapper(code, 0, 0);
+            Object serviceImpl = serviceImpl(code, mapper);
+            Cache<Object, Object> entityCache = entityCache(serviceImpl);
+            TransactionTemplate transaction = new TransactionTemplate(new RecordingTransactionManager());
+
+            GeneratedCode.invoke(serviceImpl, "getById", 1L);
+            GeneratedCode.invoke(serviceImpl, "getById", 1L);
+            assertEquals(1, mapper.selects.get());
+
+            inTransaction(transaction, status -> {
+                GeneratedCode.invoke(serviceImpl, "updateById", mapper.row(1L));
+                // 提交前其他线程读到的仍是修改前的数据，缓存条目保留到提交后
+                assertNotNull(entityCache.getIfPresent(1L));
+            });
+
+            assertNull(entityCache.getIfPresent(1L));
+        }
+    }
+
+    @Test
+    void cacheKeptWhenTransactionRollsBack() throws Throwable {
+        try (GeneratedCode code = compile(cacheRequest())) {
+            StubMapper mapper = new StubMapper(code, 0, 0);
+            Object serviceImpl = serviceImpl(code, mapper);
+            Cache<Object, Object> entityCache = entityCache(serviceImpl);
+            TransactionTemplate transaction = new TransactionTemplate(new RecordingTransactionManager());
+
+            GeneratedCode.invoke(serviceImpl, "getById", 1L);
+            inTransaction(transaction, status -> {
+                GeneratedCode.invoke(serviceImpl, "deleteById", 1L);
+                status.setRollbackOnly();
+            });
+
+            assertNotNull(entityCache.getIfPresent(1L));
+        }
+    }
+
+    @Test
+    void readWriteTransactionBypassesCache() throws Throwable {
+        try (GeneratedCode code = compile(cacheRequest())) {
+            StubMapper mapper = new StubMapper(code, 0, 0);
+            Object serviceImpl = serviceImpl(code, mapper);
+            Cache<Object, Object> entityCache = entityCache(serviceImpl);
+            TransactionTemplate transaction = new TransactionTemplate(new RecordingTransactionManager());
+
+            GeneratedCode.invoke(serviceImpl, "getById", 1L);
+            inTransaction(transaction, status -> {
+                // 已缓存的记录也重新查询，事务内能读到自己的修改
+                GeneratedCode.invoke(serviceImpl, "getById", 1L);
+                // 事务中查询到的记录（可能包含未提交的修改）不放入缓存
+                GeneratedCode.invoke(serviceImpl, "getById", 2L);
+            });
+
+            assertEquals(3, mapper.selects.get());
+            assertNull(entityCache.getIfPresent(2L));
+
+            // 只读事务中照常使用缓存
+            transaction.setReadOnly(true);
+            inTransaction(transaction, status -> GeneratedCode.invoke(serviceImpl, "getById", 1L));
+            assertEquals(3, mapper.selects.get());
+        }
+    }
+
+    @Test
+    void updateBatchUsesSmallerChunksThanInsert() throws Throwable {
+        try (GeneratedCode code = compile(new GeneratorRequest())) {
+            StubMapper mapper = new StubMapper(code, 0, 0);
+            Object serviceImpl = serviceImpl(code, mapper);
+
+            int rows = (Integer) GeneratedCode.invoke(serviceImpl, "updateBatchById", mapper.rows(120));
+
+            assertEquals(120, rows);
+            assertEquals(List.of(50, 50, 20), mapper.updateBatches);
+        }
+    }
+
+    @Test
+    void updateBatchCountsCaseTextInStatementSize() throws Throwable {
+        GeneratorRequest request = new GeneratorRequest();
+        // 每行的估算大小：定长部分 80 字节，CASE分支和WHERE条件 123 字节
+        request.setBatchMaxBytes(1000);
+        try (GeneratedCode code = compile(request)) {
+            StubMapper mapper = new StubMapper(code, 0, 0);
+            Object serviceImpl = serviceImpl(code, mapper);
+
+            GeneratedCode.invoke(serviceImpl, "updateBatchById", mapper.rows(10));
+            GeneratedCode.invoke(serviceImpl, "createBatch", mapper.rows(10));
+
+            assertEquals(List.of(4, 4, 2), mapper.updateBatches);
+            assertEquals(List.of(10), mapper.insertBatches);
+        }
+    }
+
+    @Test
+    void skipsBatchUpdateWhenEveryColumnIsKey() throws Throwable {
+        TableInfo userRole = table("user_role", List.of(
+                column("user_id", "BIGINT", "bigint", true, false),
+                column("role_id", "BIGINT", "bigint", true, false)));
+        Map<String, Object> dataModel = service.createDataModel(userRole, new GeneratorRequest());
+
+        String mapperXml = templateEngine.renderToString("mapper-xml.ftl", dataModel);
+        assertFalse(mapperXml.contains("updateBatchById"));
+        List<String> templates = new ArrayList<>(SERVICE_TEMPLATES);
+        templates.add("controller.ftl");
+        try (GeneratedCode code = GeneratedCode.compile(workDir, templateEngine, dataModel, templates)) {
+            for (String className : List.of(".mapper.UserRoleMapper", ".service.IUserRoleService")) {
+                assertTrue(Arrays.stream(code.loadClass(PACKAGE_NAME + className).getMethods())
+                        .noneMatch(method -> method.getName().equals("updateBatchById")), className);
+            }
+        }
+    }
+
+    private static GeneratorRequest countRequest(CountStrategy countStrategy) {
+        GeneratorRequest request = new GeneratorRequest();
+        request.setCountStrategy(countStrategy);
+        return request;
+    }
+
+    private static void inTransaction(TransactionTemplate transaction, TransactionBody body) {
+        transaction.executeWithoutResult(status -> {
+            try {
+                body.run(status);
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private static GeneratorRequest cacheRequest() {
+        GeneratorRequest request = new GeneratorRequest();
+        request.setCacheTables(List.of("sys_user"));
+        return request;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Cache<Object, Object> entityCache(Object serviceImpl) {
+        return (Cache<Object, Object>) ReflectionTestUtils.getField(serviceImpl, "entityCache");
+    }
+
+    private GeneratedCode compile(GeneratorRequest request) throws Exception {
+        Map<String, Object> dataModel = service.createDataModel(userTable(), request);
+        return GeneratedCode.compile(workDir, templateEngine, dataModel, SERVICE_TEMPLATES);
+    }
+
+    private static Object serviceImpl(GeneratedCode code, StubMapper mapper) throws Exception {
+        Object serviceImpl = code.newInstance(PACKAGE_NAME + ".service.impl.SysUserServiceImpl");
+        GeneratedCode.setField(serviceImpl, "sysUserMapper", code.stub(PACKAGE_NAME + ".mapper.SysUserMapper", mapper.answers()));
+        return serviceImpl;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> getByPage(Object serviceImpl, Map<String, Object> params) throws Throwable {
+        return (Map<String, Object>) GeneratedCode.invoke(serviceImpl, "getByPage", new HashMap<>(params));
+    }
+
+    private static TableInfo userTable() {
+        return table("sys_user", List.of(
+                column("id", "BIGINT", "bigint", true, true),
+                column("username", "VARCHAR", "varchar(64)", false, false),
+                column("created_at", "DATETIME", "datetime", false, false)));
+    }
+
+    private static TableInfo table(String tableName, List<ColumnInfo> columns) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setTableName(tableName);
+        tableInfo.setPackageName(PACKAGE_NAME);
+        tableInfo.setColumns(columns);
+        List<ColumnInfo> primaryKeys = columns.stream().filter(ColumnInfo::isPrimaryKey).toList();
+        tableInfo.setPrimaryKeys(primaryKeys);
+        tableInfo.setPrimaryKey(primaryKeys.get(0));
+        primaryKeys.get(0).setIndexed(true);
+        service.applyJavaMapping(tableInfo, Dialect.MYSQL);
+        return tableInfo;
+    }
+
+    private static ColumnInfo column(String columnName, String columnType, String fullColumnType,
+                                     boolean primaryKey, boolean autoIncrement) {
+        ColumnInfo column = new ColumnInfo();
+        column.setColumnName(columnName);
+        column.setColumnType(columnType);
+        column.setFullColumnType(fullColumnType);
+        column.setComment(columnName + " 列");
+        column.setPrimaryKey(primaryKey);
+        column.setAutoIncrement(autoIncrement);
+        column.setNullable(!primaryKey);
+        return column;
+    }
+
+    /**
+     * 桩Mapper：分页查询返回固定行数，按ID查询返回对应ID的记录，记录统计总数、按ID查询的次数和批量写入每批的行数
+     */
+    private static class StubMapper {
+
+        private final GeneratedCode code;
+
+        private final int pageRows;
+
+        private final int total;
+
+        private final AtomicInteger counts = new AtomicInteger();
+
+        private final AtomicInteger selects = new AtomicInteger();
+
+        private final List<Integer> updateBatches = new ArrayList<>();
+
+        private final List<Integer> insertBatches = new ArrayList<>();
+
+        private Long estimate;
+
+        private Object lastLimit;
+
+        StubMapper(GeneratedCode code, int pageRows, int total) {
+            this.code = code;
+            this.pageRows = pageRows;
+            this.total = total;
+        }
+
+        int count() {
+            counts.incrementAndGet();
+            return total;
+        }
+
+        Map<String, Function<Object[], Object>> answers() {
+            Map<String, Function<Object[], Object>> answers = new HashMap<>();
+            answers.put("selectByPage", args -> {
+                lastLimit = ((Map<?, ?>) args[0]).get("limit");
+                return rows(pageRows);
+            });
+            answers.put("countByCondition", args -> count());
+            answers.put("estimateCount", args -> estimate);
+            answers.put("selectById", args -> {
+                selects.incrementAndGet();
+                return row((Long) args[0]);
+            });
+            answers.put("updateById", args -> 1);
+            answers.put("deleteById", args -> 1);
+            answers.put("updateBatchById", args -> {
+                int size = ((List<?>) args[0]).size();
+                updateBatches.add(size);
+                return size;
+            });
+            answers.put("insertBatch", args -> {
+                int size = ((List<?>) args[0]).size();
+                insertBatches.add(size);
+                return size;
+            });
+            return answers;
+        }
+
+        List<Object> rows(int count) {
+            List<Object> rows = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                rows.add(row(i + 1L));
+            }
+            return rows;
+        }
+
+        Object row(long id) {
+            try {
+                Object row = code.newInstance(PACKAGE_NAME + ".entity.SysUser");
+                GeneratedCode.invoke(row, "setId", id);
+                return row;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * 事务中执行的测试代码，可以抛出生成类方法的异常
+     */
+    private interface TransactionBody {
+
+        void run(TransactionStatus status) throws Throwable;
+    }
+
+    /**
+     * 不连接数据库的事务管理器，记录每个事务是否只读
+     */
+    private static class RecordingTransactionManager extends AbstractPlatformTransactionManager {
+
+        private final List<Boolean> readOnly = Collections.synchronizedList(new ArrayList<>());
+
+        private final AtomicInteger commits = new AtomicInteger();
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+            readOnly.add(definition.isReadOnly());
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+            commits.incrementAndGet();
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
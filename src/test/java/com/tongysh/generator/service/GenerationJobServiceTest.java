@@ -0,0 +1,155 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.GeneratorRequest;
+import com.tongysh.generator.dto.JobStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 异步生成任务测试：排队、运行中和已完成任务的取消，以及队列满时拒绝提交
+ *
+ * @author tongysh
+ */
+class GenerationJobServiceTest {
+
+    private static final byte[] ZIP_CONTENT = {'P', 'K'};
+
+    private StubGeneratorService generatorService;
+
+    private GenerationJobService jobService;
+
+    @BeforeEach
+    void setUp() {
+        generatorService = new StubGeneratorService();
+        jobService = new GenerationJobService();
+        ReflectionTestUtils.setField(jobService, "workers", 1);
+        ReflectionTestUtils.setField(jobService, "queueCapacity", 1);
+        ReflectionTestUtils.setField(jobService, "retentionMinutes", 30L);
+        ReflectionTestUtils.setField(jobService, "codeGeneratorService", generatorService);
+        jobService.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        generatorService.release.countDown();
+        jobService.destroy();
+    }
+
+    private static GeneratorRequest request(String tableName) {
+        GeneratorRequest request = new GeneratorRequest();
+        request.setTableName(tableName);
+        return request;
+    }
+
+    private JobStatus awaitState(String jobId, JobStatus.State state) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TimeUnit.SECONDS.toMillis(5);
+        JobStatus status = jobService.getStatus(jobId);
+        while (status.getState() != state && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            status = jobService.getStatus(jobId);
+        }
+        assertEquals(state, status.getState());
+        return status;
+    }
+
+    @Test
+    void completesJobAndKeepsResultFile() throws Exception {
+        generatorService.release.countDown();
+
+        String jobId = jobService.submit(request("sys_user")).getJobId();
+        awaitState(jobId, JobStatus.State.COMPLETED);
+
+        Path file = jobService.getResultFile(jobId);
+        assertNotNull(file);
+        assertArrayEquals(ZIP_CONTENT, Files.readAllBytes(file));
+        // 已结束的任务不能再取消
+        assertEquals(JobStatus.State.COMPLETED, jobService.cancel(jobId).getState());
+        assertNotNull(jobService.getResultFile(jobId));
+    }
+
+    @Test
+    void cancelsQueuedJobWithoutRunningIt() throws Exception {
+        String running = jobService.submit(request("sys_user")).getJobId();
+        assertTrue(generatorService.started.await(5, TimeUnit.SECONDS));
+        String queued = jobService.submit(request("sys_role")).getJobId();
+
+        JobStatus status = jobService.cancel(queued);
+
+        assertEquals(JobStatus.State.CANCELLED, status.getState());
+        generatorService.release.countDown();
+        awaitState(running, JobStatus.State.COMPLETED);
+        assertEquals(1, generatorService.invocations.get());
+        assertNull(jobService.getResultFile(queued));
+    }
+
+    @Test
+    void cancelsRunningJob() throws Exception {
+        String jobId = jobService.submit(request("sys_user")).getJobId();
+        assertTrue(generatorService.started.await(5, TimeUnit.SECONDS));
+
+        jobService.cancel(jobId);
+
+        JobStatus status = awaitState(jobId, JobStatus.State.CANCELLED);
+        assertEquals("任务已取消", status.getMessage());
+        assertNull(jobService.getResultFile(jobId));
+    }
+
+    @Test
+    void rejectsSubmitWhenQueueIsFull() throws Exception {
+        jobService.submit(request("sys_user"));
+        assertTrue(generatorService.started.await(5, TimeUnit.SECONDS));
+        jobService.submit(request("sys_role"));
+
+        assertThrows(IllegalStateException.class, () -> jobService.submit(request("sys_dept")));
+    }
+
+    @Test
+    void unknownJobReturnsNull() {
+        assertNull(jobService.getStatus("missing"));
+        assertNull(jobService.cancel("missing"));
+        assertNull(jobService.getResultFile("missing"));
+    }
+
+    /**
+     * 不连接数据库的生成服务，写出zip前阻塞到 release 放行，被中断时按取消处理
+     */
+    private static class StubGeneratorService extends CodeGeneratorService {
+
+        private final CountDownLatch started = new CountDownLatch(1);
+
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        @Override
+        public ZipWriter prepareBatchZip(GeneratorRequest request, GenerationContext context) {
+            invocations.incrementAndGet();
+            started.countDown();
+            return out -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("生成被中断");
+                }
+                out.write(ZIP_CONTENT);
+            };
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.GenerationStats;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 生成清单测试：内容未变化时跳过写入，变化时重新写入
+ *
+ * @author tongysh
+ */
+class GenerationManifestTest {
+
+    private static final String PATH = "src/main/java/com/example/entity/User.java";
+
+    @TempDir
+    Path outputDir;
+
+    @Test
+    void writesNewFile() throws Exception {
+        GenerationManifest manifest = GenerationManifest.load(outputDir.toString());
+
+        int bytes = manifest.write(PATH, "class User {}");
+
+        assertEquals("class User {}".getBytes(StandardCharsets.UTF_8).length, bytes);
+        assertEquals("class User {}", Files.readString(outputDir.resolve(PATH)));
+        assertStats(manifest.getStats(), 1, 0, 0);
+    }
+
+    @Test
+    void skipsUnchangedFile() throws Exception {
+        GenerationManifest first = GenerationManifest.load(outputDir.toString());
+        first.write(PATH, "class User {}");
+        first.save();
+        Path file = outputDir.resolve(PATH);
+        FileTime modified = FileTime.fromMillis(1_000_000L);
+        Files.setLastModifiedTime(file, modified);
+
+        GenerationManifest second = GenerationManifest.load(outputDir.toString());
+        assertEquals(0, second.write(PATH, "class User {}"));
+
+        assertEquals(modified, Files.getLastModifiedTime(file));
+        assertStats(second.getStats(), 0, 0, 1);
+    }
+
+    @Test
+    void rewritesChangedFile() throws Exception {
+        GenerationManifest first = GenerationManifest.load(outputDir.toString());
+        first.write(PATH, "class User {}");
+        first.save();
+
+        GenerationManifest second = GenerationManifest.load(outputDir.toString());
+        int bytes = second.write(PATH, "class User { Long id; }");
+
+        assertTrue(bytes > 0);
+        assertEquals("class User { Long id; }", Files.readString(outputDir.resolve(PATH)));
+        assertStats(second.getStats(), 0, 1, 0);
+    }
+
+    @Test
+    void rewritesFileEditedOutsideGenerator() throws Exception {
+        GenerationManifest first = GenerationManifest.load(outputDir.toString());
+        first.write(PATH, "class User {}");
+        first.save();
+        // 手动修改后文件大小与清单记录的内容不同，需要重新写入
+        Files.writeString(outputDir.resolve(PATH), "class User { String name; }");
+
+        GenerationManifest second = GenerationManifest.load(outputDir.toString());
+        second.write(PATH, "class User {}");
+
+        assertEquals("class User {}", Files.readString(outputDir.resolve(PATH)));
+        assertStats(second.getStats(), 0, 1, 0);
+    }
+
+    @Test
+    void comparesContentWithoutManifest() throws Exception {
+        Path file = outputDir.resolve(PATH);
+        Files.createDirectories(file.getParent());
+        Files.writeString(file, "class User {}");
+
+        GenerationManifest manifest = GenerationManifest.load(outputDir.toString());
+
+        assertEquals(0, manifest.write(PATH, "class User {}"));
+        assertStats(manifest.getStats(), 0, 0, 1);
+    }
+
+    @Test
+    void savedManifestRecordsHashes() throws Exception {
+        GenerationManifest manifest = GenerationManifest.load(outputDir.toString());
+        manifest.write(PATH, "class User {}");
+        manifest.save();
+
+        String saved = Files.readString(outputDir.resolve(GenerationManifest.FILE_NAME));
+        assertTrue(saved.contains(PATH + "="));
+    }
+
+    private static void assertStats(GenerationStats stats, int added, int changed, int unchanged) {
+        assertEquals(added, stats.getAdded(), "added");
+        assertEquals(changed, stats.getChanged(), "changed");
+        assertEquals(unchanged, stats.getUnchanged(), "unchanged");
+    }
+}
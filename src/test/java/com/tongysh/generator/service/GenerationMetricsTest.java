@@ -0,0 +1,65 @@
+package com.tongysh.generator.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 生成指标测试：阶段成功和失败都记录耗时，并带上 outcome/exception 标签
+ *
+ * @author tongysh
+ */
+class GenerationMetricsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private GenerationMetrics generationMetrics;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        generationMetrics = new GenerationMetrics();
+        ReflectionTestUtils.setField(generationMetrics, "meterRegistry", meterRegistry);
+    }
+
+    private Timer phaseTimer(String phase, String outcome, String exception) {
+        return meterRegistry.find("generator.phase")
+                .tag("phase", phase)
+                .tag("outcome", outcome)
+                .tag("exception", exception)
+                .timer();
+    }
+
+    @Test
+    void recordsSuccessfulPhase() throws Exception {
+        String content = generationMetrics.record(GenerationMetrics.PHASE_RENDER, "generate", "entity.ftl", () -> "class User {}");
+
+        assertEquals("class User {}", content);
+        Timer timer = phaseTimer(GenerationMetrics.PHASE_RENDER, "success", "none");
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals("entity.ftl", timer.getId().getTag("template"));
+    }
+
+    @Test
+    void recordsFailedPhaseAndRethrows() {
+        IOException thrown = assertThrows(IOException.class,
+                () -> generationMetrics.record(GenerationMetrics.PHASE_WRITE, "generate", () -> {
+                    throw new IOException("disk full");
+                }));
+
+        assertEquals("disk full", thrown.getMessage());
+        Timer timer = phaseTimer(GenerationMetrics.PHASE_WRITE, "failure", "IOException");
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+        assertEquals("none", timer.getId().getTag("template"));
+    }
+}
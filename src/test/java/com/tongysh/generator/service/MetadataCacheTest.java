@@ -0,0 +1,103 @@
+package com.tongysh.generator.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 元数据缓存测试：有效期、容量淘汰、按前缀失效和缓存键
+ *
+ * @author tongysh
+ */
+class MetadataCacheTest {
+
+    private static final String URL = "jdbc:mysql://localhost:3306";
+
+    private static MetadataCache newCache(long ttlSeconds, int maxEntries) {
+        MetadataCache cache = new MetadataCache();
+        ReflectionTestUtils.setField(cache, "ttlSeconds", ttlSeconds);
+        ReflectionTestUtils.setField(cache, "maxEntries", maxEntries);
+        return cache;
+    }
+
+    @Test
+    void loadsOnceWithinTtl() throws Exception {
+        MetadataCache cache = newCache(60, 10);
+        AtomicInteger loads = new AtomicInteger();
+        String key = MetadataCache.key(URL, "root", "secret", "db", "tables");
+
+        MetadataCache.Loader<String> loader = () -> {
+            loads.incrementAndGet();
+            return "v";
+        };
+
+        assertEquals("v", cache.get(key, loader));
+        assertEquals("v", cache.get(key, loader));
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.stats().get("hits"));
+        assertEquals(1L, cache.stats().get("misses"));
+    }
+
+    @Test
+    void expiredEntryIsReloaded() throws Exception {
+        MetadataCache cache = newCache(0, 10);
+        AtomicInteger loads = new AtomicInteger();
+        String key = MetadataCache.key(URL, "root", "secret", "db", "tables");
+
+        cache.get(key, loads::incrementAndGet);
+        assertNull(cache.getIfPresent(key));
+        cache.get(key, loads::incrementAndGet);
+        assertEquals(2, loads.get());
+        assertTrue((Long) cache.stats().get("evictions") >= 1);
+    }
+
+    @Test
+    void evictsLeastRecentlyAccessedWhenFull() {
+        MetadataCache cache = newCache(60, 2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        // 访问 a 后 b 成为最久未访问的项
+        assertNotNull(cache.getIfPresent("a"));
+        cache.put("c", 3);
+
+        assertNotNull(cache.getIfPresent("a"));
+        assertNull(cache.getIfPresent("b"));
+        assertNotNull(cache.getIfPresent("c"));
+        assertEquals(2, cache.stats().get("size"));
+    }
+
+    @Test
+    void invalidatesByPrefix() {
+        MetadataCache cache = newCache(60, 10);
+        cache.put(MetadataCache.key(URL, "root", "secret", "db1", "tables"), 1);
+        cache.put(MetadataCache.key(URL, "root", "secret", "db1", "table", "user"), 2);
+        cache.put(MetadataCache.key(URL, "root", "secret", "db10", "tables"), 3);
+        cache.put(MetadataCache.key(URL, "other", "secret", "db1", "tables"), 4);
+
+        assertEquals(2, cache.invalidate(MetadataCache.key(URL, "root", "secret", "db1")));
+        assertNotNull(cache.getIfPresent(MetadataCache.key(URL, "root", "secret", "db10", "tables")));
+        assertNotNull(cache.getIfPresent(MetadataCache.key(URL, "other", "secret", "db1", "tables")));
+
+        assertEquals(1, cache.invalidate(MetadataCache.key(URL, "root", "secret")));
+        assertEquals(1, cache.stats().get("size"));
+    }
+
+    @Test
+    void keyDoesNotContainPassword() {
+        String key = MetadataCache.key(URL, "root", "p@ssw0rd", "db", "tables");
+
+        assertFalse(key.contains("p@ssw0rd"));
+        assertFalse(key.contains("root"));
+        assertTrue(key.startsWith(URL + "|"));
+        assertTrue(key.endsWith("|db|tables|"));
+        assertEquals(key, MetadataCache.key(URL, "root", "p@ssw0rd", "db", "tables"));
+        assertFalse(key.equals(MetadataCache.key(URL, "root", "other", "db", "tables")));
+    }
+}
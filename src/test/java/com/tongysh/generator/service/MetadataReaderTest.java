@@ -0,0 +1,43 @@
+package com.tongysh.generator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 表结构读取器测试：传入表名与实际表名的对应，以及通用元数据接口的表名转义
+ *
+ * @author tongysh
+ */
+class MetadataReaderTest {
+
+    @Test
+    void prefersExactTableName() {
+        List<String> actualNames = List.of("User", "user");
+
+        assertEquals("user", MetadataReader.actualTableName(actualNames, "user"));
+        assertEquals("User", MetadataReader.actualTableName(actualNames, "User"));
+    }
+
+    @Test
+    void fallsBackToCaseInsensitiveMatch() {
+        List<String> actualNames = List.of("sys_user", "sys_role");
+
+        assertEquals("sys_user", MetadataReader.actualTableName(actualNames, "SYS_USER"));
+        assertNull(MetadataReader.actualTableName(actualNames, "sys_dept"));
+    }
+
+    @Test
+    void escapesWildcardsInSearchPattern() {
+        assertEquals("sys\\_user", MetadataReader.searchPattern("sys_user", "\\"));
+        assertEquals("rate\\%", MetadataReader.searchPattern("rate%", "\\"));
+        assertEquals("a\\\\b", MetadataReader.searchPattern("a\\b", "\\"));
+        assertEquals("orders", MetadataReader.searchPattern("orders", "\\"));
+        // 驱动不支持转义时原样返回
+        assertEquals("sys_user", MetadataReader.searchPattern("sys_user", ""));
+        assertEquals("sys_user", MetadataReader.searchPattern("sys_user", null));
+    }
+}
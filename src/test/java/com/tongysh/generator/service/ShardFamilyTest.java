@@ -0,0 +1,89 @@
+package com.tongysh.generator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 分表族识别测试
+ *
+ * @author tongysh
+ */
+class ShardFamilyTest {
+
+    private static List<String> shards(String prefix, int count, String format) {
+        List<String> tableNames = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            tableNames.add(prefix + "_" + String.format(format, i));
+        }
+        return tableNames;
+    }
+
+    @Test
+    void detectsUnpaddedSuffixes() {
+        Map<String, ShardFamily> families = ShardFamily.detect(shards("t_order", 16, "%d"));
+
+        assertEquals(Map.of("t_order", new ShardFamily("t_order", "t_order_0", 16, 0)), families);
+    }
+
+    @Test
+    void detectsPaddedSuffixes() {
+        Map<String, ShardFamily> families = ShardFamily.detect(shards("t_order", 64, "%02d"));
+
+        ShardFamily family = families.get("t_order");
+        assertEquals("t_order_00", family.firstTable());
+        assertEquals(64, family.shardCount());
+        assertEquals(2, family.suffixWidth());
+    }
+
+    @Test
+    void ignoresFamiliesWithGaps() {
+        assertTrue(ShardFamily.detect(List.of("t_order_0", "t_order_2")).isEmpty());
+        // 后缀必须从0开始
+        assertTrue(ShardFamily.detect(List.of("t_order_1", "t_order_2")).isEmpty());
+        assertTrue(ShardFamily.detect(List.of("t_order_00", "t_order_01", "t_order_03")).isEmpty());
+    }
+
+    @Test
+    void ignoresSingleTable() {
+        assertTrue(ShardFamily.detect(List.of("t_order_0", "t_user")).isEmpty());
+    }
+
+    @Test
+    void ignoresFamilyWhenBarePrefixTableExists() {
+        List<String> tableNames = new ArrayList<>(shards("t_order", 4, "%d"));
+        tableNames.add("T_ORDER");
+
+        assertTrue(ShardFamily.detect(tableNames).isEmpty());
+    }
+
+    @Test
+    void detectsSeveralFamilies() {
+        List<String> tableNames = new ArrayList<>(shards("t_order", 4, "%d"));
+        tableNames.addAll(shards("t_order_item", 8, "%d"));
+        tableNames.add("t_user");
+
+        Map<String, ShardFamily> families = ShardFamily.detect(tableNames);
+
+        assertEquals(List.of("t_order", "t_order_item"), new ArrayList<>(families.keySet()));
+        assertEquals(8, families.get("t_order_item").shardCount());
+    }
+
+    @Test
+    void collapsesShardsToLogicalName() {
+        List<String> tableNames = new ArrayList<>();
+        tableNames.add("t_user");
+        tableNames.addAll(shards("t_order", 4, "%d"));
+        tableNames.add("t_log_2024");
+        Map<String, ShardFamily> families = ShardFamily.detect(tableNames);
+
+        // t_log_2024 只有一张，不是分表族，保持原表名
+        assertEquals(List.of("t_user", "t_order", "t_log_2024"), ShardFamily.collapse(tableNames, families));
+        assertEquals(tableNames, ShardFamily.collapse(tableNames, Map.of()));
+    }
+}
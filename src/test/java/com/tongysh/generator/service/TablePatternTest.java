@@ -0,0 +1,54 @@
+package com.tongysh.generator.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 批量生成的表名匹配模式测试（SQL LIKE 语法）
+ *
+ * @author tongysh
+ */
+class TablePatternTest {
+
+    private static boolean matches(String likePattern, String tableName) {
+        Pattern pattern = CodeGeneratorService.likeToRegex(likePattern);
+        return pattern.matcher(tableName).matches();
+    }
+
+    @Test
+    void percentMatchesAnyString() {
+        assertTrue(matches("sys_%", "sys_user"));
+        assertTrue(matches("sys_%", "sys_"));
+        assertTrue(matches("%_log", "sys_operation_log"));
+        assertTrue(matches("%", "anything"));
+        assertFalse(matches("sys_%", "biz_user"));
+    }
+
+    @Test
+    void underscoreMatchesOneCharacter() {
+        assertTrue(matches("order_", "order0"));
+        assertTrue(matches("order_", "order_"));
+        assertFalse(matches("order_", "order"));
+        assertFalse(matches("order_", "order_1"));
+    }
+
+    @Test
+    void matchesWholeNameIgnoringCase() {
+        assertTrue(matches("SYS_%", "sys_user"));
+        assertTrue(matches("user", "USER"));
+        assertFalse(matches("user", "user_role"));
+        assertFalse(matches("user", "sys_user"));
+    }
+
+    @Test
+    void regexCharactersAreLiteral() {
+        assertTrue(matches("a.b%", "a.b_c"));
+        assertFalse(matches("a.b%", "axb_c"));
+        assertTrue(matches("t$(1)", "t$(1)"));
+        assertFalse(matches("t[12]", "t1"));
+    }
+}
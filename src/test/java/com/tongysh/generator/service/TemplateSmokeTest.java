@@ -0,0 +1,221 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.ColumnInfo;
+import com.tongysh.generator.dto.CountStrategy;
+import com.tongysh.generator.dto.FilterIndexMode;
+import com.tongysh.generator.dto.GenerationTarget;
+import com.tongysh.generator.dto.GeneratorRequest;
+import com.tongysh.generator.dto.TableInfo;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 模板冒烟测试：预解析所有内置模板，并用示例表在不同生成选项下渲染，发现模板语法和数据模型错误；
+ * 默认选项生成的Java代码用 javac 编译一遍，发现生成代码本身的编译错误
+ *
+ * @author tongysh
+ */
+class TemplateSmokeTest {
+
+    /**
+     * 不需要开启任何选项就会生成的模板
+     */
+    private static final Set<String> CORE_TEMPLATES = Set.of(
+            "entity.ftl", "mapper.ftl", "mapper-xml.ftl", "service.ftl", "service-impl.ftl", "controller.ftl");
+
+    private static TemplateEngine templateEngine;
+
+    private static CodeGeneratorService service;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        templateEngine = new TemplateEngine();
+        templateEngine.init();
+
+        TypeMappingRegistry typeMappingRegistry = new TypeMappingRegistry();
+        typeMappingRegistry.init();
+        service = new CodeGeneratorService();
+        ReflectionTestUtils.setField(service, "typeMappingRegistry", typeMappingRegistry);
+    }
+
+    @Test
+    void parsesAllTemplates() throws Exception {
+        for (String templateName : TemplateEngine.TEMPLATE_NAMES) {
+            templateEngine.getTemplate(templateName);
+        }
+    }
+
+    @TestFactory
+    List<DynamicTest> rendersAllTemplates() {
+        List<Scenario> scenarios = new ArrayList<>();
+        scenarios.add(new Scenario("default", this::userTable, GeneratorRequest::new, CORE_TEMPLATES::contains));
+        for (CountStrategy countStrategy : CountStrategy.values()) {
+            scenarios.add(new Scenario("all-options-" + countStrategy, this::userTable, () -> {
+                GeneratorRequest request = allOptions();
+                request.setCountStrategy(countStrategy);
+                return request;
+            }, TemplateSmokeTest::mvcTemplate));
+        }
+        scenarios.add(new Scenario("composite-key", this::orderItemTable, TemplateSmokeTest::allOptions,
+                TemplateSmokeTest::mvcTemplate));
+        scenarios.add(new Scenario("reactive", this::userTable, () -> {
+            GeneratorRequest request = allOptions();
+            request.setTarget(GenerationTarget.REACTIVE);
+            return request;
+        }, templateName -> templateName.equals("entity.ftl") || templateName.startsWith("reactive/")));
+        scenarios.add(new Scenario("sharded", this::orderTable, () -> {
+            GeneratorRequest request = allOptions();
+            request.setShardTables(true);
+            request.setShardKey("user_id");
+            return request;
+        }, templateName -> !templateName.startsWith("reactive/") && !templateName.equals("service-impl.ftl")));
+
+        Set<String> covered = new TreeSet<>();
+        List<DynamicTest> tests = new ArrayList<>();
+        for (Scenario scenario : scenarios) {
+            for (String templateName : TemplateEngine.TEMPLATE_NAMES) {
+                if (!scenario.templates().test(templateName)) {
+                    continue;
+                }
+                covered.add(templateName);
+                tests.add(DynamicTest.dynamicTest(scenario.name() + ": " + templateName, () -> {
+                    Map<String, Object> dataModel = service.createDataModel(scenario.table().get(), scenario.request().get());
+                    String content = templateEngine.renderToString(templateName, dataModel);
+                    assertFalse(content.isBlank(), templateName + " 渲染结果为空");
+                }));
+            }
+        }
+        assertEquals(new TreeSet<>(TemplateEngine.TEMPLATE_NAMES), covered, "存在没有被任何场景渲染的模板");
+        return tests;
+    }
+
+    @Test
+    void compilesDefaultMvcOutput(@TempDir Path workDir) throws Exception {
+        Map<String, Object> dataModel = service.createDataModel(userTable(), new GeneratorRequest());
+        List<String> javaTemplates = new TreeSet<>(CORE_TEMPLATES).stream()
+                .filter(templateName -> !templateName.equals("mapper-xml.ftl"))
+                .toList();
+
+        GeneratedCode.compile(workDir, templateEngine, dataModel, javaTemplates).close();
+    }
+
+    /**
+     * 同步MVC目标使用的模板
+     */
+    private static boolean mvcTemplate(String templateName) {
+        return !templateName.startsWith("reactive/") && !templateName.startsWith("shard/");
+    }
+
+    /**
+     * 开启所有可选生成内容的请求
+     */
+    private static GeneratorRequest allOptions() {
+        GeneratorRequest request = new GeneratorRequest();
+        request.setTarget(GenerationTarget.VIRTUAL_THREADS);
+        request.setCursorColumn("created_at");
+        request.setBatchExecutor(true);
+        request.setExportFetchSize(500);
+        request.setFilterIndexMode(FilterIndexMode.INDEXED);
+        request.setCacheTables(List.of("sys_user", "order_item"));
+        request.setMetrics(true);
+        request.setReadWriteSplit(true);
+        request.setPerfTest(true);
+        return request;
+    }
+
+    /**
+     * 自增主键，覆盖字符串、布尔、小数、时间、大字段和二进制列
+     */
+    private TableInfo userTable() {
+        List<ColumnInfo> columns = List.of(
+                column("id", "BIGINT", "bigint", true, true),
+                indexed(column("username", "VARCHAR", "varchar(64)", false, false)),
+                column("enabled", "TINYINT", "tinyint(1)", false, false),
+                column("balance", "DECIMAL", "decimal(10,2)", false, false),
+                indexed(column("created_at", "DATETIME", "datetime", false, false)),
+                column("profile", "TEXT", "text", false, false),
+                column("avatar", "BLOB", "blob", false, false));
+        return table("sys_user", columns);
+    }
+
+    /**
+     * 联合主键
+     */
+    private TableInfo orderItemTable() {
+        List<ColumnInfo> columns = List.of(
+                column("order_id", "BIGINT", "bigint", true, false),
+                column("item_id", "INT", "int", true, false),
+                column("quantity", "INT", "int", false, false),
+                column("price", "DECIMAL", "decimal(10,2)", false, false));
+        return table("order_item", columns);
+    }
+
+    /**
+     * 分为4张分表（t_order_00 ~ t_order_03）的逻辑表，按 user_id 路由
+     */
+    private TableInfo orderTable() {
+        List<ColumnInfo> columns = List.of(
+                column("id", "BIGINT", "bigint", true, false),
+                indexed(column("user_id", "BIGINT", "bigint", false, false)),
+                column("amount", "DECIMAL", "decimal(12,2)", false, false),
+                column("created_at", "DATETIME", "datetime", false, false));
+        TableInfo tableInfo = table("t_order", columns);
+        tableInfo.setShardCount(4);
+        tableInfo.setShardSuffixWidth(2);
+        return tableInfo;
+    }
+
+    private TableInfo table(String tableName, List<ColumnInfo> columns) {
+        TableInfo tableInfo = new TableInfo();
+        tableInfo.setTableName(tableName);
+        tableInfo.setPackageName("com.example.demo");
+        tableInfo.setColumns(columns);
+        List<ColumnInfo> primaryKeys = columns.stream().filter(ColumnInfo::isPrimaryKey).toList();
+        tableInfo.setPrimaryKeys(primaryKeys);
+        tableInfo.setPrimaryKey(primaryKeys.get(0));
+        primaryKeys.get(0).setIndexed(true);
+        service.applyJavaMapping(tableInfo, Dialect.MYSQL);
+        return tableInfo;
+    }
+
+    private static ColumnInfo column(String columnName, String columnType, String fullColumnType,
+                                     boolean primaryKey, boolean autoIncrement) {
+        ColumnInfo column = new ColumnInfo();
+        column.setColumnName(columnName);
+        column.setColumnType(columnType);
+        column.setFullColumnType(fullColumnType);
+        column.setComment(columnName + " 列");
+        column.setPrimaryKey(primaryKey);
+        column.setAutoIncrement(autoIncrement);
+        column.setNullable(!primaryKey);
+        return column;
+    }
+
+    private static ColumnInfo indexed(ColumnInfo column) {
+        column.setIndexed(true);
+        return column;
+    }
+
+    /**
+     * 渲染场景：表结构、生成请求以及适用的模板
+     */
+    private record Scenario(String name, Supplier<TableInfo> table, Supplier<GeneratorRequest> request,
+                            Predicate<String> templates) {
+    }
+}
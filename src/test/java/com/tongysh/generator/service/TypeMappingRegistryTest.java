@@ -0,0 +1,131 @@
+package com.tongysh.generator.service;
+
+import com.tongysh.generator.dto.ColumnInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Types;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * SQL类型映射测试：各方言的映射、查找顺序和用户覆盖
+ *
+ * @author tongysh
+ */
+class TypeMappingRegistryTest {
+
+    private static TypeMappingRegistry newRegistry(String overrides) {
+        TypeMappingRegistry registry = new TypeMappingRegistry();
+        ReflectionTestUtils.setField(registry, "overrides", overrides);
+        registry.init();
+        return registry;
+    }
+
+    private static ColumnInfo column(String columnType, String fullColumnType, Integer sqlTypeCode) {
+        ColumnInfo column = new ColumnInfo();
+        column.setColumnType(columnType);
+        column.setFullColumnType(fullColumnType);
+        column.setSqlTypeCode(sqlTypeCode);
+        return column;
+    }
+
+    @Test
+    void mysqlTinyint1IsBoolean() {
+        TypeMappingRegistry registry = newRegistry("");
+
+        TypeMappingRegistry.TypeMapping mapping = registry.resolve(Dialect.MYSQL, column("TINYINT", "tinyint(1)", null));
+        assertEquals("Boolean", mapping.javaType());
+        assertNull(mapping.javaImport());
+        assertEquals("BIT", mapping.jdbcType());
+
+        // 其他长度的 tinyint 按类型名映射
+        assertEquals("Byte", registry.resolve(Dialect.MYSQL, column("TINYINT", "tinyint(4)", null)).javaType());
+        assertEquals("Short", registry.resolve(Dialect.MYSQL, column("TINYINT UNSIGNED", "tinyint(3) unsigned", null)).javaType());
+    }
+
+    @Test
+    void mysqlOnlyBit1IsBoolean() {
+        TypeMappingRegistry registry = newRegistry("");
+
+        assertEquals("Boolean", registry.resolve(Dialect.MYSQL, column("BIT", "bit(1)", null)).javaType());
+
+        TypeMappingRegistry.TypeMapping bits = registry.resolve(Dialect.MYSQL, column("BIT", "bit(8)", null));
+        assertEquals("byte[]", bits.javaType());
+        assertEquals("BINARY", bits.jdbcType());
+        assertEquals("byte[]", registry.resolve(Dialect.MYSQL, column("BIT", "bit(64)", null)).javaType());
+    }
+
+    @Test
+    void mysqlDateTimeTypes() {
+        TypeMappingRegistry registry = newRegistry("");
+
+        TypeMappingRegistry.TypeMapping datetime = registry.resolve(Dialect.MYSQL, column("DATETIME", "datetime(3)", null));
+        assertEquals("LocalDateTime", datetime.javaType());
+        assertEquals("java.time.LocalDateTime", datetime.javaImport());
+        assertEquals("TIMESTAMP", datetime.jdbcType());
+
+        assertEquals("LocalDate", registry.resolve(Dialect.MYSQL, "date").javaType());
+        assertEquals("LocalTime", registry.resolve(Dialect.MYSQL, "time").javaType());
+    }
+
+    @Test
+    void normalizesCaseAndZerofill() {
+        TypeMappingRegistry registry = newRegistry("");
+
+        TypeMappingRegistry.TypeMapping mapping = registry.resolve(Dialect.MYSQL,
+                column("INT UNSIGNED", "INT(10)  UNSIGNED ZEROFILL", null));
+        assertEquals("Long", mapping.javaType());
+        assertEquals("BIGINT", mapping.jdbcType());
+    }
+
+    @Test
+    void dialectsMapIndependently() {
+        TypeMappingRegistry registry = newRegistry("");
+
+        assertEquals("OffsetDateTime", registry.resolve(Dialect.POSTGRESQL, "timestamptz").javaType());
+        assertEquals("UUID", registry.resolve(Dialect.POSTGRESQL, "uuid").javaType());
+        assertEquals("java.util.UUID", registry.resolve(Dialect.POSTGRESQL, "uuid").javaImport());
+        assertEquals("Double", registry.resolve(Dialect.H2, "float").javaType());
+        assertEquals("Float", registry.resolve(Dialect.MYSQL, "float").javaType());
+    }
+
+    @Test
+    void fallsBackToJdbcTypeCodeThenUnknown() {
+        TypeMappingRegistry registry = newRegistry("");
+
+        TypeMappingRegistry.TypeMapping mapping = registry.resolve(Dialect.POSTGRESQL, column("citext", "citext", Types.VARCHAR));
+        assertEquals("String", mapping.javaType());
+        assertEquals("VARCHAR", mapping.jdbcType());
+
+        assertSame(TypeMappingRegistry.UNKNOWN, registry.resolve(Dialect.POSTGRESQL, column("geometry", "geometry", null)));
+    }
+
+    @Test
+    void overridesTakePrecedence() {
+        TypeMappingRegistry registry = newRegistry(
+                "tinyint(1)=Integer:TINYINT, json=com.fasterxml.jackson.databind.JsonNode:OTHER, broken");
+
+        TypeMappingRegistry.TypeMapping tinyint = registry.resolve(Dialect.MYSQL, column("TINYINT", "tinyint(1)", null));
+        assertEquals("Integer", tinyint.javaType());
+        assertEquals("TINYINT", tinyint.jdbcType());
+
+        TypeMappingRegistry.TypeMapping json = registry.resolve(Dialect.MYSQL, "json");
+        assertEquals("JsonNode", json.javaType());
+        assertEquals("com.fasterxml.jackson.databind.JsonNode", json.javaImport());
+
+        // 覆盖对所有方言生效，未覆盖的类型不受影响
+        assertEquals("JsonNode", registry.resolve(Dialect.POSTGRESQL, "json").javaType());
+        assertEquals("Byte", registry.resolve(Dialect.MYSQL, column("TINYINT", "tinyint(4)", null)).javaType());
+    }
+
+    @Test
+    void overrideByTypeNameBeatsDialectFullType() {
+        TypeMappingRegistry registry = newRegistry("tinyint=Integer:INTEGER");
+
+        // 先查完覆盖（完整类型、类型名）再查方言，方言中的 tinyint(1) 不再生效
+        assertEquals("Integer", registry.resolve(Dialect.MYSQL, column("TINYINT", "tinyint(1)", null)).javaType());
+    }
+}